@@ -20,6 +20,7 @@ expression
   | expression '|' expression # pipeExpression
   | RAW_STRING # rawStringExpression
   | currentNode # currentNodeExpression
+  | VARIABLE # variableExpression
   ;
 
 chainedExpression
@@ -91,6 +92,8 @@ JSON_CONSTANT
 
 NAME : [a-zA-Z_] [a-zA-Z0-9_]* ;
 
+VARIABLE : '$' [a-zA-Z_] [a-zA-Z0-9_]* ;
+
 jsonObject
   : '{' jsonObjectPair (',' jsonObjectPair)* '}'
   | '{' '}'
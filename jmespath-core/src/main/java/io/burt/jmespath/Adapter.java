@@ -1,5 +1,7 @@
 package io.burt.jmespath;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Comparator;
 import java.util.Map;
@@ -39,6 +41,22 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   String toString(T value);
 
+  /**
+   * Writes the argument as JSON to the specified output, without building
+   * intermediate strings. Unlike {@link #toString(Object)} strings are written
+   * quoted.
+   *
+   * The output is not flushed or closed.
+   */
+  void writeJson(T value, Appendable output) throws IOException;
+
+  /**
+   * Writes the argument as UTF-8 encoded JSON to the specified stream.
+   *
+   * The stream is flushed, but not closed.
+   */
+  void writeJson(T value, OutputStream output) throws IOException;
+
   /**
    * Converts the argument to a {@link Number}, or null if the argument does not
    * represent a number.
@@ -103,6 +121,14 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   T createArray(Collection<T> elements);
 
+  /**
+   * Returns a builder for an array value, for when the elements are produced
+   * one at a time. This avoids collecting them in an intermediate collection.
+   *
+   * The size hint is the expected number of elements, or zero when unknown.
+   */
+  ArrayBuilder<T> arrayBuilder(int sizeHint);
+
   /**
    * Returns a string value containing the specified string.
    */
@@ -122,6 +148,14 @@ public interface Adapter<T> extends JmesPath<T>, Comparator<T> {
    */
   T createObject(Map<T, T> obj);
 
+  /**
+   * Returns a builder for an object value, for when the properties are
+   * produced one at a time. This avoids collecting them in an intermediate map.
+   *
+   * The size hint is the expected number of properties, or zero when unknown.
+   */
+  ObjectBuilder<T> objectBuilder(int sizeHint);
+
   /**
    * Returns a number value containing the specified floating point number.
    */
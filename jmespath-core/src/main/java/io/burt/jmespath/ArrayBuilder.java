@@ -0,0 +1,18 @@
+package io.burt.jmespath;
+
+/**
+ * Builds an array value one element at a time.
+ *
+ * @see Adapter#arrayBuilder(int)
+ */
+public interface ArrayBuilder<T> {
+  /**
+   * Appends an element to the array.
+   */
+  void add(T element);
+
+  /**
+   * Returns the array value. The builder must not be used afterwards.
+   */
+  T build();
+}
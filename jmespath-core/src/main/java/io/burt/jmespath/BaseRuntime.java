@@ -1,14 +1,28 @@
 package io.burt.jmespath;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Collection;
+import java.util.Map;
 
 import io.burt.jmespath.parser.ExpressionParser;
 import io.burt.jmespath.function.FunctionRegistry;
 import io.burt.jmespath.function.Function;
 import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.limits.LimitedExpression;
+import io.burt.jmespath.metrics.ExpressionListener;
+import io.burt.jmespath.metrics.InstrumentedExpression;
 import io.burt.jmespath.node.NodeFactory;
 import io.burt.jmespath.node.StandardNodeFactory;
+import io.burt.jmespath.util.JsonStrings;
 
 /**
  * This class can be extended instead of implementing {@link Adapter} directly,
@@ -22,6 +36,8 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
   private final FunctionRegistry functionRegistry;
   private final NodeFactory<T> nodeFactory;
   private final boolean silentTypeErrors;
+  private final ExpressionListener expressionListener;
+  private final EvaluationLimits evaluationLimits;
 
   /**
    * Create a new runtime with a default function registry.
@@ -36,12 +52,47 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
   public BaseRuntime(RuntimeConfiguration configuration) {
     this.silentTypeErrors = configuration.silentTypeErrors();
     this.functionRegistry = configuration.functionRegistry();
-    this.nodeFactory = new StandardNodeFactory<>(this);
+    this.expressionListener = configuration.expressionListener();
+    this.evaluationLimits = configuration.evaluationLimits();
+    this.nodeFactory = createNodeFactory(configuration);
   }
 
+  /**
+   * Creates the node factory used to compile expressions. Runtimes can
+   * override this to create nodes that work directly on their own value
+   * types, instead of through the methods of this interface.
+   * <p>
+   * This is called from the constructor, before the fields of subclasses have
+   * been assigned.
+   */
+  protected NodeFactory<T> createNodeFactory(RuntimeConfiguration configuration) {
+    return new StandardNodeFactory<>(this, configuration.indexCache());
+  }
+
+  /**
+   * Compiles an expression, and wraps it in a {@link LimitedExpression} when
+   * the runtime has been configured with {@link EvaluationLimits}, and in an
+   * {@link InstrumentedExpression} when the runtime has been configured with
+   * an {@link ExpressionListener}.
+   */
   @Override
   public Expression<T> compile(String expression) {
-    return ExpressionParser.fromString(this, expression);
+    return wrapCompiledExpression(expression, ExpressionParser.fromString(this, expression));
+  }
+
+  /**
+   * Wraps an expression that was compiled without {@link #compile}, for
+   * example loaded from a plan, the same way {@link #compile} wraps the
+   * expressions it compiles.
+   */
+  public Expression<T> wrapCompiledExpression(String expression, Expression<T> compiledExpression) {
+    if (!evaluationLimits.isUnlimited()) {
+      compiledExpression = new LimitedExpression<>(compiledExpression, evaluationLimits);
+    }
+    if (expressionListener != ExpressionListener.NONE) {
+      compiledExpression = new InstrumentedExpression<>(this, expression, compiledExpression, expressionListener);
+    }
+    return compiledExpression;
   }
 
   /**
@@ -124,6 +175,105 @@ public abstract class BaseRuntime<T> implements Adapter<T> {
     return true;
   }
 
+  /**
+   * Writes the value by walking it with {@link #typeOf}, {@link #toList},
+   * {@link #getPropertyNames} and {@link #getProperty}, writing numbers and
+   * booleans with {@link #toString}.
+   */
+  @Override
+  public void writeJson(T value, Appendable output) throws IOException {
+    switch (typeOf(value)) {
+      case NULL:
+        output.append("null");
+        break;
+      case STRING:
+        JsonStrings.write(toString(value), output);
+        break;
+      case ARRAY:
+        output.append('[');
+        boolean firstElement = true;
+        for (T element : toList(value)) {
+          if (!firstElement) {
+            output.append(',');
+          }
+          writeJson(element, output);
+          firstElement = false;
+        }
+        output.append(']');
+        break;
+      case OBJECT:
+        output.append('{');
+        boolean firstProperty = true;
+        for (T name : getPropertyNames(value)) {
+          if (!firstProperty) {
+            output.append(',');
+          }
+          JsonStrings.write(toString(name), output);
+          output.append(':');
+          writeJson(getProperty(value, name), output);
+          firstProperty = false;
+        }
+        output.append('}');
+        break;
+      default:
+        output.append(toString(value));
+        break;
+    }
+  }
+
+  /**
+   * Writes the value through a buffered UTF-8 {@link Writer}, using
+   * {@link #writeJson(Object, Appendable)}.
+   */
+  @Override
+  public void writeJson(T value, OutputStream output) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    writeJson(value, writer);
+    writer.flush();
+  }
+
+  /**
+   * Collects the elements in a list and passes it to {@link #createArray}.
+   * Subclasses should override this method if they can append to their own
+   * array type directly.
+   */
+  @Override
+  public ArrayBuilder<T> arrayBuilder(int sizeHint) {
+    final List<T> elements = new ArrayList<>(sizeHint);
+    return new ArrayBuilder<T>() {
+      @Override
+      public void add(T element) {
+        elements.add(element);
+      }
+
+      @Override
+      public T build() {
+        return createArray(elements);
+      }
+    };
+  }
+
+  /**
+   * Collects the properties in a map and passes it to {@link #createObject}.
+   * Subclasses should override this method if they can add properties to
+   * their own object type directly.
+   */
+  @Override
+  public ObjectBuilder<T> objectBuilder(int sizeHint) {
+    final Map<T, T> properties = new LinkedHashMap<>(sizeHint);
+    return new ObjectBuilder<T>() {
+      @Override
+      public void put(T name, T value) {
+        properties.put(name, value);
+      }
+
+      @Override
+      public T build() {
+        return createObject(properties);
+      }
+    };
+  }
+
   /**
    * Throws {@link ArgumentTypeException} unless {@link RuntimeConfiguration#silentTypeErrors}
    * is true, in which case it returns a null value (<em>not</em> Java <code>null</code>).
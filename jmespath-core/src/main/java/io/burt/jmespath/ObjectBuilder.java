@@ -0,0 +1,20 @@
+package io.burt.jmespath;
+
+/**
+ * Builds an object value one property at a time.
+ *
+ * @see Adapter#objectBuilder(int)
+ */
+public interface ObjectBuilder<T> {
+  /**
+   * Sets a property of the object. The name must be a string value. Setting
+   * a property that has already been set replaces its value, but keeps its
+   * position.
+   */
+  void put(T name, T value);
+
+  /**
+   * Returns the object value. The builder must not be used afterwards.
+   */
+  T build();
+}
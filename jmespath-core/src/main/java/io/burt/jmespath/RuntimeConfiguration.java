@@ -1,14 +1,27 @@
 package io.burt.jmespath;
 
 import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.metrics.ExpressionListener;
 
 public class RuntimeConfiguration {
   private final FunctionRegistry functionRegistry;
   private final boolean silentTypeErrors;
+  private final ExpressionListener expressionListener;
+  private final EvaluationLimits evaluationLimits;
+  private final IndexCache indexCache;
+  private final boolean listViews;
+  private final boolean fixedShapeObjects;
 
   private RuntimeConfiguration(Builder builder) {
     this.functionRegistry = builder.functionRegistry;
     this.silentTypeErrors = builder.silentTypeErrors;
+    this.expressionListener = builder.expressionListener;
+    this.evaluationLimits = builder.evaluationLimits;
+    this.indexCache = builder.indexCache;
+    this.listViews = builder.listViews;
+    this.fixedShapeObjects = builder.fixedShapeObjects;
   }
 
   public FunctionRegistry functionRegistry() {
@@ -19,6 +32,26 @@ public class RuntimeConfiguration {
     return silentTypeErrors;
   }
 
+  public ExpressionListener expressionListener() {
+    return expressionListener;
+  }
+
+  public EvaluationLimits evaluationLimits() {
+    return evaluationLimits;
+  }
+
+  public IndexCache indexCache() {
+    return indexCache;
+  }
+
+  public boolean listViews() {
+    return listViews;
+  }
+
+  public boolean fixedShapeObjects() {
+    return fixedShapeObjects;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -30,9 +63,16 @@ public class RuntimeConfiguration {
   public static class Builder {
     protected FunctionRegistry functionRegistry;
     protected boolean silentTypeErrors;
+    protected ExpressionListener expressionListener;
+    protected EvaluationLimits evaluationLimits;
+    protected IndexCache indexCache;
+    protected boolean listViews;
+    protected boolean fixedShapeObjects;
 
     public Builder() {
       this.functionRegistry = FunctionRegistry.defaultRegistry();
+      this.expressionListener = ExpressionListener.NONE;
+      this.evaluationLimits = EvaluationLimits.NONE;
     }
 
     public RuntimeConfiguration build() {
@@ -48,5 +88,57 @@ public class RuntimeConfiguration {
       this.silentTypeErrors = silentTypeErrors;
       return this;
     }
+
+    /**
+     * Makes the runtime wrap all compiled expressions so that the listener is
+     * notified of every search.
+     */
+    public Builder withExpressionListener(ExpressionListener expressionListener) {
+      this.expressionListener = expressionListener;
+      return this;
+    }
+
+    /**
+     * Makes the runtime wrap all compiled expressions so that every search is
+     * aborted with a {@link io.burt.jmespath.limits.LimitExceededException}
+     * when it exceeds the limits.
+     */
+    public Builder withEvaluationLimits(EvaluationLimits evaluationLimits) {
+      this.evaluationLimits = evaluationLimits;
+      return this;
+    }
+
+    /**
+     * Makes selections like <code>users[?id == 'u-123']</code> look up the
+     * matching elements in indexes kept in the cache, instead of scanning the
+     * array. Indexes must be invalidated when documents are modified, see
+     * {@link IndexCache}.
+     */
+    public Builder withIndexCache(IndexCache indexCache) {
+      this.indexCache = indexCache;
+      return this;
+    }
+
+    /**
+     * Makes runtimes whose arrays are lists return slices, reversed arrays
+     * and flattened arrays as unmodifiable views of the arrays they were
+     * created from, instead of copying them. The views reflect changes made
+     * to those arrays, see {@link io.burt.jmespath.util.ListViews}.
+     */
+    public Builder withListViews(boolean listViews) {
+      this.listViews = listViews;
+      return this;
+    }
+
+    /**
+     * Makes the JCF runtime create the objects of multi-select hashes, like
+     * <code>items[*].{id: id, name: name}</code>, as unmodifiable maps that
+     * share one array of keys and hold only their values, which uses much
+     * less memory than a {@link java.util.LinkedHashMap} per object.
+     */
+    public Builder withFixedShapeObjects(boolean fixedShapeObjects) {
+      this.fixedShapeObjects = fixedShapeObjects;
+      return this;
+    }
   }
 }
@@ -0,0 +1,107 @@
+package io.burt.jmespath.async;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.limits.Cancellation;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.limits.LimitedExpression;
+
+/**
+ * Runs searches of an expression on an {@link Executor}, for callers that must
+ * not block, like event loops.
+ * <p>
+ * Each search returns a {@link Future}, and optionally reports its outcome to
+ * a {@link SearchCallback}. Cancelling the future also stops the search if it
+ * is running: projections and selections check for cancellation for each
+ * element, so the thread is freed promptly. Limits configured in the runtime
+ * that compiled the expression still apply.
+ */
+public class AsyncExpression<T> {
+  private final LimitedExpression<T> expression;
+  private final Executor executor;
+
+  public AsyncExpression(Expression<T> expression, Executor executor) {
+    this.expression = new LimitedExpression<>(expression, EvaluationLimits.NONE);
+    this.executor = executor;
+  }
+
+  /** Returns the wrapped expression */
+  public Expression<T> expression() {
+    return expression.expression();
+  }
+
+  /**
+   * Starts a search on the executor and returns a future for its result.
+   */
+  public Future<T> search(T input) {
+    return search(input, null);
+  }
+
+  /**
+   * Starts a search on the executor, returns a future for its result and
+   * reports the outcome to the callback, unless it is null.
+   *
+   * @throws java.util.concurrent.RejectedExecutionException when the executor rejects the search
+   */
+  public Future<T> search(final T input, SearchCallback<T> callback) {
+    final Cancellation cancellation = new Cancellation();
+    SearchFuture<T> future = new SearchFuture<>(new Callable<T>() {
+      @Override
+      public T call() {
+        return expression.search(input, cancellation);
+      }
+    }, cancellation, callback);
+    executor.execute(future);
+    return future;
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+
+  private static class SearchFuture<T> extends FutureTask<T> {
+    private final Cancellation cancellation;
+    private final SearchCallback<T> callback;
+
+    SearchFuture(Callable<T> search, Cancellation cancellation, SearchCallback<T> callback) {
+      super(search);
+      this.cancellation = cancellation;
+      this.callback = callback;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      cancellation.cancel();
+      return super.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    protected void done() {
+      if (callback == null) {
+        return;
+      }
+      T result;
+      try {
+        result = get();
+      } catch (CancellationException ce) {
+        callback.onFailure(ce);
+        return;
+      } catch (ExecutionException ee) {
+        callback.onFailure(ee.getCause());
+        return;
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        callback.onFailure(ie);
+        return;
+      }
+      callback.onSuccess(result);
+    }
+  }
+}
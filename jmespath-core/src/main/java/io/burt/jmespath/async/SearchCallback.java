@@ -0,0 +1,18 @@
+package io.burt.jmespath.async;
+
+/**
+ * Receives the outcome of a search started by {@link AsyncExpression}.
+ * <p>
+ * The callback is called on the thread that ran the search, or on the thread
+ * that cancelled it.
+ */
+public interface SearchCallback<T> {
+  /** Called with the result when the search completes */
+  void onSuccess(T result);
+
+  /**
+   * Called when the search fails, with the exception it threw, or with a
+   * {@link java.util.concurrent.CancellationException} when it was cancelled.
+   */
+  void onFailure(Throwable error);
+}
@@ -0,0 +1,219 @@
+package io.burt.jmespath.batch;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Searches many documents with the same expression concurrently, and returns
+ * the results in the order of the input.
+ * <p>
+ * Documents can be given either as values, or as {@link Callable}s that load
+ * them, for example by reading and parsing a file. Loading and searching each
+ * document is a separate task, so slow I/O for one document does not hold up
+ * the others. On JDK 21 and later the tasks run on virtual threads, which are
+ * cheap enough that there can be one for each document. On earlier JDKs they
+ * run on a pool of platform threads.
+ * <p>
+ * A document that can't be loaded or searched does not fail the batch: its
+ * {@link BatchResult} holds the exception instead of a value.
+ * <p>
+ * An evaluator is immutable and can be used for many batches, also
+ * concurrently. Unless an executor is given, each batch uses its own threads.
+ */
+public class BatchEvaluator<T> {
+  private static final Method newVirtualThreadPerTaskExecutor = findVirtualThreadExecutorFactory();
+
+  private final Expression<T> expression;
+  private final ExecutorService executor;
+  private final int maxConcurrency;
+
+  private BatchEvaluator(Builder<T> builder) {
+    this.expression = builder.expression;
+    this.executor = builder.executor;
+    this.maxConcurrency = builder.maxConcurrency;
+  }
+
+  public static <U> Builder<U> builder(Expression<U> expression) {
+    return new Builder<>(expression);
+  }
+
+  private static Method findVirtualThreadExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException nsme) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns true when batches run on virtual threads, which requires JDK 21
+   * or later (or an earlier JDK with preview features enabled).
+   */
+  public static boolean virtualThreadsAvailable() {
+    ExecutorService executor = newVirtualThreadExecutor();
+    if (executor != null) {
+      executor.shutdown();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    if (newVirtualThreadPerTaskExecutor != null) {
+      try {
+        return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        // JDK 19 and 20 throw UnsupportedOperationException unless preview
+        // features are enabled, fall back to platform threads
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches each of the documents.
+   *
+   * @throws InterruptedException when interrupted while waiting for the
+   *   batch, the searches that have not completed are then cancelled
+   */
+  public List<BatchResult<T>> search(Iterable<? extends T> inputs) throws InterruptedException {
+    List<Callable<T>> loaders = new ArrayList<>();
+    for (final T input : inputs) {
+      loaders.add(new Callable<T>() {
+        @Override
+        public T call() {
+          return input;
+        }
+      });
+    }
+    return load(loaders);
+  }
+
+  /**
+   * Loads each document with its loader and searches it. Loading and
+   * searching happen on the same thread.
+   *
+   * @throws InterruptedException when interrupted while waiting for the
+   *   batch, the loads and searches that have not completed are then cancelled
+   */
+  public List<BatchResult<T>> load(Iterable<? extends Callable<? extends T>> loaders) throws InterruptedException {
+    ExecutorService workers = executor;
+    boolean ownWorkers = false;
+    if (workers == null) {
+      workers = newVirtualThreadExecutor();
+      if (workers == null) {
+        int threads = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors() * 4;
+        workers = Executors.newFixedThreadPool(threads, new WorkerThreadFactory("jmespath-batch"));
+      }
+      ownWorkers = true;
+    }
+    Semaphore permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    List<Future<BatchResult<T>>> futures = new ArrayList<>();
+    try {
+      int index = 0;
+      for (Callable<? extends T> loader : loaders) {
+        futures.add(workers.submit(new Task(index++, loader, permits)));
+      }
+      List<BatchResult<T>> results = new ArrayList<>(futures.size());
+      for (Future<BatchResult<T>> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException ee) {
+          // Tasks capture their own errors, this can only happen if the
+          // executor itself fails
+          results.add(BatchResult.<T>failure(results.size(), ee.getCause()));
+        }
+      }
+      return results;
+    } catch (InterruptedException ie) {
+      for (Future<BatchResult<T>> future : futures) {
+        future.cancel(true);
+      }
+      throw ie;
+    } finally {
+      if (ownWorkers) {
+        workers.shutdown();
+      }
+    }
+  }
+
+  private class Task implements Callable<BatchResult<T>> {
+    private final int index;
+    private final Callable<? extends T> loader;
+    private final Semaphore permits;
+
+    Task(int index, Callable<? extends T> loader, Semaphore permits) {
+      this.index = index;
+      this.loader = loader;
+      this.permits = permits;
+    }
+
+    @Override
+    public BatchResult<T> call() throws InterruptedException {
+      if (permits != null) {
+        permits.acquire();
+      }
+      try {
+        return BatchResult.success(index, expression.search(loader.call()));
+      } catch (InterruptedException ie) {
+        throw ie;
+      } catch (Throwable t) {
+        return BatchResult.failure(index, t);
+      } finally {
+        if (permits != null) {
+          permits.release();
+        }
+      }
+    }
+  }
+
+  public static class Builder<T> {
+    protected final Expression<T> expression;
+    protected ExecutorService executor;
+    protected int maxConcurrency;
+
+    public Builder(Expression<T> expression) {
+      this.expression = expression;
+      this.executor = null;
+      this.maxConcurrency = 0;
+    }
+
+    public BatchEvaluator<T> build() {
+      return new BatchEvaluator<>(this);
+    }
+
+    /**
+     * Run the tasks on the specified executor instead of on virtual threads
+     * or a pool created for each batch. The executor is not shut down.
+     */
+    public Builder<T> withExecutor(ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Limit the number of documents loaded and searched at the same time, for
+     * example to avoid opening too many files at once. By default there is no
+     * limit on virtual threads, and platform thread pools have four threads
+     * per available processor.
+     */
+    public Builder<T> withMaxConcurrency(int maxConcurrency) {
+      if (maxConcurrency < 1) {
+        throw new IllegalArgumentException("The concurrency level must be at least one");
+      }
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package io.burt.jmespath.batch;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown by {@link BatchResult#value} when the document could not be loaded or
+ * searched. The original exception is available as the cause.
+ */
+@SuppressWarnings("serial")
+public class BatchItemException extends JmesPathException {
+  private final int index;
+
+  public BatchItemException(String message, int index, Throwable cause) {
+    super(message, cause);
+    this.index = index;
+  }
+
+  /** Returns the position of the document that failed, starting at zero */
+  public int index() {
+    return index;
+  }
+}
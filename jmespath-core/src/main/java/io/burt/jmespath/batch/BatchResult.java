@@ -0,0 +1,66 @@
+package io.burt.jmespath.batch;
+
+/**
+ * The outcome of searching one document in a batch: either the result of the
+ * search, or the exception thrown while loading or searching the document.
+ */
+public class BatchResult<T> {
+  private final int index;
+  private final T value;
+  private final Throwable error;
+
+  private BatchResult(int index, T value, Throwable error) {
+    this.index = index;
+    this.value = value;
+    this.error = error;
+  }
+
+  static <U> BatchResult<U> success(int index, U value) {
+    return new BatchResult<>(index, value, null);
+  }
+
+  static <U> BatchResult<U> failure(int index, Throwable error) {
+    return new BatchResult<U>(index, null, error);
+  }
+
+  /**
+   * Returns the position of the document in the input.
+   */
+  public int index() {
+    return index;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  /**
+   * Returns the result of the search.
+   *
+   * @throws BatchItemException when the document could not be loaded or
+   *   searched, with the original exception as cause
+   */
+  public T value() {
+    if (error != null) {
+      throw new BatchItemException(String.format("Document %d failed: %s", index, error.getMessage()), index, error);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the exception thrown while loading or searching the document, or
+   * null when the search succeeded.
+   */
+  public Throwable error() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    if (error == null) {
+      return String.format("BatchResult(%d, %s)", index, value);
+    } else {
+      return String.format("BatchResult(%d, error: %s)", index, error);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package io.burt.jmespath.batch;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown by a {@link JsonLinesProcessor} when a line can't be parsed, or when
+ * evaluating the expression against it fails. The original exception is
+ * available as the cause.
+ */
+@SuppressWarnings("serial")
+public class JsonLinesException extends JmesPathException {
+  private final long lineNumber;
+
+  public JsonLinesException(String message, long lineNumber, Throwable cause) {
+    super(message, cause);
+    this.lineNumber = lineNumber;
+  }
+
+  /** Returns the number of the line that failed, starting at one */
+  public long lineNumber() {
+    return lineNumber;
+  }
+}
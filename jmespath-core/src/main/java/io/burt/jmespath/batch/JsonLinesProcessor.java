@@ -0,0 +1,337 @@
+package io.burt.jmespath.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * Evaluates an expression against each document in a stream of newline
+ * delimited JSON (also known as NDJSON or JSON lines), and passes the results
+ * to a {@link ResultSink}.
+ * <p>
+ * The calling thread reads the input and splits it into chunks of lines,
+ * which are parsed and evaluated by a pool of worker threads. The number of
+ * chunks that have been read but not yet passed to the sink is bounded, so
+ * the memory used does not depend on the size of the input. By default the
+ * results are passed to the sink in the order of the input, but when the
+ * order doesn't matter allowing unordered output avoids a slow chunk holding
+ * back the ones after it.
+ * <p>
+ * Empty lines are skipped. Processing stops at the first line that can't be
+ * parsed or evaluated, with a {@link JsonLinesException}.
+ * <p>
+ * A processor is immutable and can be used to process many inputs, also
+ * concurrently. Each call to {@link #process} uses its own worker threads.
+ */
+public class JsonLinesProcessor<T> {
+  private final Adapter<T> runtime;
+  private final Expression<T> expression;
+  private final int threads;
+  private final int chunkSize;
+  private final int maxChunksInFlight;
+  private final boolean ordered;
+  private final boolean skipNullResults;
+
+  private JsonLinesProcessor(Builder<T> builder) {
+    this.runtime = builder.runtime;
+    this.expression = builder.expression;
+    this.threads = builder.threads;
+    this.chunkSize = builder.chunkSize;
+    this.maxChunksInFlight = builder.maxChunksInFlight == 0 ? builder.threads * 2 : builder.maxChunksInFlight;
+    this.ordered = builder.ordered;
+    this.skipNullResults = builder.skipNullResults;
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime, Expression<U> expression) {
+    return new Builder<>(runtime, expression);
+  }
+
+  /**
+   * Processes a file of newline delimited JSON.
+   *
+   * @return the number of results passed to the sink
+   */
+  public long process(Path path, ResultSink<T> sink) throws IOException {
+    try (InputStream input = Files.newInputStream(path)) {
+      return process(input, sink);
+    }
+  }
+
+  /**
+   * Processes a stream of UTF-8 encoded, newline delimited JSON. The stream
+   * is read to the end, or until processing fails, but is not closed.
+   *
+   * @return the number of results passed to the sink
+   */
+  public long process(InputStream input, ResultSink<T> sink) throws IOException {
+    Run run = new Run(sink);
+    try {
+      run.readChunks(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+    } finally {
+      run.awaitCompletion();
+    }
+    return run.resultCount();
+  }
+
+  private static class Chunk {
+    final long sequenceNumber;
+    final long firstLineNumber;
+    final List<String> lines;
+
+    Chunk(long sequenceNumber, long firstLineNumber, List<String> lines) {
+      this.sequenceNumber = sequenceNumber;
+      this.firstLineNumber = firstLineNumber;
+      this.lines = lines;
+    }
+  }
+
+  private static class ChunkResult<T> {
+    final long sequenceNumber;
+    final List<Long> lineNumbers;
+    final List<T> results;
+
+    ChunkResult(long sequenceNumber, int size) {
+      this.sequenceNumber = sequenceNumber;
+      this.lineNumbers = new ArrayList<>(size);
+      this.results = new ArrayList<>(size);
+    }
+  }
+
+  /**
+   * The state of one call to {@link #process}.
+   */
+  private class Run {
+    private final ResultSink<T> sink;
+    private final ExecutorService workers;
+    private final Semaphore chunksInFlight;
+    private final AtomicReference<Throwable> failure;
+    private final Map<Long, ChunkResult<T>> pendingResults;
+    private long nextSequenceNumber;
+    private long resultCount;
+
+    Run(ResultSink<T> sink) {
+      this.sink = sink;
+      this.workers = Executors.newFixedThreadPool(threads, new WorkerThreadFactory("jmespath-json-lines"));
+      this.chunksInFlight = new Semaphore(maxChunksInFlight);
+      this.failure = new AtomicReference<>();
+      this.pendingResults = new HashMap<>();
+      this.nextSequenceNumber = 0;
+      this.resultCount = 0;
+    }
+
+    void readChunks(BufferedReader reader) throws IOException {
+      long sequenceNumber = 0;
+      long lineNumber = 0;
+      List<String> lines = new ArrayList<>(chunkSize);
+      String line;
+      while (failure.get() == null && (line = reader.readLine()) != null) {
+        lines.add(line);
+        lineNumber++;
+        if (lines.size() == chunkSize) {
+          submit(new Chunk(sequenceNumber++, lineNumber - lines.size() + 1, lines));
+          lines = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!lines.isEmpty() && failure.get() == null) {
+        submit(new Chunk(sequenceNumber, lineNumber - lines.size() + 1, lines));
+      }
+    }
+
+    private void submit(final Chunk chunk) throws IOException {
+      try {
+        chunksInFlight.acquire();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException iioe = new InterruptedIOException("Interrupted while waiting for results to be written");
+        failure.compareAndSet(null, iioe);
+        throw iioe;
+      }
+      workers.execute(new Runnable() {
+        @Override
+        public void run() {
+          complete(evaluate(chunk));
+        }
+      });
+    }
+
+    private ChunkResult<T> evaluate(Chunk chunk) {
+      ChunkResult<T> chunkResult = new ChunkResult<>(chunk.sequenceNumber, chunk.lines.size());
+      long lineNumber = chunk.firstLineNumber;
+      try {
+        for (String line : chunk.lines) {
+          if (failure.get() != null) {
+            break;
+          }
+          if (!line.trim().isEmpty()) {
+            T result = evaluate(line, lineNumber);
+            if (!skipNullResults || runtime.typeOf(result) != JmesPathType.NULL) {
+              chunkResult.lineNumbers.add(lineNumber);
+              chunkResult.results.add(result);
+            }
+          }
+          lineNumber++;
+        }
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      }
+      return chunkResult;
+    }
+
+    private T evaluate(String line, long lineNumber) {
+      T input;
+      try {
+        input = runtime.parseString(line);
+      } catch (RuntimeException re) {
+        throw new JsonLinesException(String.format("Could not parse line %d: %s", lineNumber, re.getMessage()), lineNumber, re);
+      }
+      try {
+        return expression.search(input);
+      } catch (RuntimeException re) {
+        throw new JsonLinesException(String.format("Could not evaluate line %d: %s", lineNumber, re.getMessage()), lineNumber, re);
+      }
+    }
+
+    private void complete(ChunkResult<T> chunkResult) {
+      synchronized (this) {
+        if (ordered) {
+          pendingResults.put(chunkResult.sequenceNumber, chunkResult);
+          ChunkResult<T> next;
+          while ((next = pendingResults.remove(nextSequenceNumber)) != null) {
+            nextSequenceNumber++;
+            write(next);
+            chunksInFlight.release();
+          }
+        } else {
+          write(chunkResult);
+          chunksInFlight.release();
+        }
+      }
+    }
+
+    private void write(ChunkResult<T> chunkResult) {
+      int size = chunkResult.results.size();
+      for (int i = 0; i < size && failure.get() == null; i++) {
+        try {
+          sink.accept(chunkResult.lineNumbers.get(i), chunkResult.results.get(i));
+          resultCount++;
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      }
+    }
+
+    void awaitCompletion() throws IOException {
+      chunksInFlight.acquireUninterruptibly(maxChunksInFlight);
+      workers.shutdown();
+      Throwable t = failure.get();
+      if (t instanceof IOException) {
+        throw (IOException) t;
+      } else if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      } else if (t instanceof Error) {
+        throw (Error) t;
+      } else if (t != null) {
+        throw new IOException(t);
+      }
+    }
+
+    synchronized long resultCount() {
+      return resultCount;
+    }
+  }
+
+  public static class Builder<T> {
+    protected final Adapter<T> runtime;
+    protected final Expression<T> expression;
+    protected int threads;
+    protected int chunkSize;
+    protected int maxChunksInFlight;
+    protected boolean ordered;
+    protected boolean skipNullResults;
+
+    public Builder(Adapter<T> runtime, Expression<T> expression) {
+      this.runtime = runtime;
+      this.expression = expression;
+      this.threads = Runtime.getRuntime().availableProcessors();
+      this.chunkSize = 1000;
+      this.maxChunksInFlight = 0;
+      this.ordered = true;
+      this.skipNullResults = false;
+    }
+
+    public JsonLinesProcessor<T> build() {
+      return new JsonLinesProcessor<>(this);
+    }
+
+    /**
+     * Set the number of worker threads that parse and evaluate lines. Defaults
+     * to the number of available processors.
+     */
+    public Builder<T> withThreads(int threads) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("The number of threads must be at least one");
+      }
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Set the number of lines handed to a worker at a time. Defaults to 1000.
+     */
+    public Builder<T> withChunkSize(int chunkSize) {
+      if (chunkSize < 1) {
+        throw new IllegalArgumentException("The chunk size must be at least one");
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of chunks that have been read but whose results
+     * have not been passed to the sink yet. Together with the chunk size this
+     * bounds the memory used. Defaults to twice the number of threads.
+     */
+    public Builder<T> withMaxChunksInFlight(int maxChunksInFlight) {
+      if (maxChunksInFlight < 1) {
+        throw new IllegalArgumentException("The maximum number of chunks in flight must be at least one");
+      }
+      this.maxChunksInFlight = maxChunksInFlight;
+      return this;
+    }
+
+    /**
+     * Allow results to be passed to the sink as soon as their chunk is done,
+     * instead of in the order of the input.
+     */
+    public Builder<T> withUnorderedOutput() {
+      this.ordered = false;
+      return this;
+    }
+
+    /**
+     * Don't pass null results to the sink, for example from lines where the
+     * expression didn't match anything.
+     */
+    public Builder<T> withNullResultsSkipped() {
+      this.skipNullResults = true;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package io.burt.jmespath.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * A sink that writes each result as JSON on a line of its own.
+ * <p>
+ * The writer is not flushed or closed, that is left to the caller.
+ */
+public class JsonLinesWriter<T> implements ResultSink<T> {
+  private final Adapter<T> runtime;
+  private final Writer writer;
+
+  public JsonLinesWriter(Adapter<T> runtime, Writer writer) {
+    this.runtime = runtime;
+    this.writer = writer;
+  }
+
+  @Override
+  public void accept(long lineNumber, T result) throws IOException {
+    runtime.writeJson(result, writer);
+    writer.write('\n');
+  }
+}
@@ -0,0 +1,17 @@
+package io.burt.jmespath.batch;
+
+import java.io.IOException;
+
+/**
+ * Receives the results of a {@link JsonLinesProcessor}.
+ * <p>
+ * The processor never calls a sink from more than one thread at a time, so
+ * sinks don't need to be thread safe.
+ */
+public interface ResultSink<T> {
+  /**
+   * Receives the result of evaluating the expression against the document on
+   * the specified line. Line numbers start at one.
+   */
+  void accept(long lineNumber, T result) throws IOException;
+}
@@ -0,0 +1,26 @@
+package io.burt.jmespath.batch;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates named daemon threads for the worker pools of the batch APIs.
+ */
+class WorkerThreadFactory implements ThreadFactory {
+  private static final AtomicInteger poolCount = new AtomicInteger();
+
+  private final String namePrefix;
+  private final AtomicInteger threadCount;
+
+  WorkerThreadFactory(String name) {
+    this.namePrefix = String.format("%s-%d-", name, poolCount.incrementAndGet());
+    this.threadCount = new AtomicInteger();
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class AbsFunction extends MathFunction {
+  public AbsFunction() {
+    super(true);
+  }
+
   @Override
   protected double performMathOperation(double n) {
     return Math.abs(n);
@@ -0,0 +1,81 @@
+package io.burt.jmespath.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.AggregateNode;
+import io.burt.jmespath.node.Node;
+
+/**
+ * Helper base class for functions that fold an array into a single value by
+ * looking at each element once, like calculating the sum, average or max.
+ * <p>
+ * Since the elements are consumed one at a time the interpreter can feed an
+ * aggregate function directly from a projection, without first building the
+ * projected array (see {@link AggregateNode}).
+ */
+public abstract class AggregateFunction extends ArrayMathFunction {
+  public AggregateFunction(ArgumentConstraint innerConstraint) {
+    this(innerConstraint, false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected AggregateFunction(ArgumentConstraint innerConstraint, boolean pure) {
+    super(innerConstraint, pure);
+  }
+
+  /**
+   * Subclasses implement this method to create a new accumulator for each
+   * evaluation.
+   */
+  public abstract <T> Accumulator<T> createAccumulator(Adapter<T> runtime);
+
+  /**
+   * Compiles calls whose argument is a projection to an
+   * {@link AggregateNode}.
+   */
+  @Override
+  public <T> Node<T> specialize(Adapter<T> runtime, List<? extends Expression<T>> arguments) {
+    if (AggregateNode.isAggregatable(arguments)) {
+      return new AggregateNode<>(runtime, this, arguments);
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
+    Accumulator<T> accumulator = createAccumulator(runtime);
+    for (T value : values) {
+      accumulator.accumulate(value);
+    }
+    return accumulator.result();
+  }
+
+  public static abstract class Accumulator<V> {
+    protected final Adapter<V> runtime;
+
+    public Accumulator(Adapter<V> runtime) {
+      this.runtime = runtime;
+    }
+
+    /**
+     * Adds a value to the aggregate.
+     * <p>
+     * Returns false, without changing the aggregate, when the value is of a
+     * type that the function does not accept. This only happens when the values
+     * have not been checked against the function's argument constraints first,
+     * and the caller is then responsible for reporting the type error.
+     */
+    public abstract boolean accumulate(V value);
+
+    /**
+     * Returns the aggregate of all accumulated values.
+     */
+    public abstract V result();
+  }
+}
@@ -13,7 +13,15 @@ import io.burt.jmespath.Adapter;
  */
 public abstract class ArrayMathFunction extends BaseFunction {
   public ArrayMathFunction(ArgumentConstraint innerConstraint) {
-    super(ArgumentConstraints.arrayOf(innerConstraint));
+    this(innerConstraint, false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected ArrayMathFunction(ArgumentConstraint innerConstraint, boolean pure) {
+    super(ArgumentConstraints.arrayOf(innerConstraint), pure);
   }
 
   @Override
@@ -1,27 +1,45 @@
 package io.burt.jmespath.function;
 
-import java.util.List;
-
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 
-public class AvgFunction extends ArrayMathFunction {
+public class AvgFunction extends AggregateFunction {
   public AvgFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER), true);
   }
 
   @Override
-  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
-    if (values.isEmpty()) {
-      return runtime.createNull();
-    } else {
-      double sum = 0;
-      int count = 0;
-      for (T n : values) {
-        sum += runtime.toNumber(n).doubleValue();
+  public <T> Accumulator<T> createAccumulator(Adapter<T> runtime) {
+    return new AverageAccumulator<>(runtime);
+  }
+
+  private static class AverageAccumulator<V> extends Accumulator<V> {
+    private final CompensatedSum sum;
+    private int count;
+
+    public AverageAccumulator(Adapter<V> runtime) {
+      super(runtime);
+      this.sum = new CompensatedSum();
+    }
+
+    @Override
+    public boolean accumulate(V value) {
+      if (runtime.typeOf(value) == JmesPathType.NUMBER) {
+        sum.add(runtime.toNumber(value).doubleValue());
         count += 1;
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public V result() {
+      if (count == 0) {
+        return runtime.createNull();
+      } else {
+        return runtime.createNumber(sum.value()/count);
       }
-      return runtime.createNumber(sum/count);
     }
   }
 }
@@ -6,6 +6,8 @@ import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.Node;
 
 /**
  * Base class of all functions.
@@ -23,10 +25,15 @@ import io.burt.jmespath.Adapter;
  * Subclasses must also provide argument constraints for checking arguments.
  * This is done by using the {@link ArgumentConstraints} DSL and passing the
  * result in a <code>super</code> call in the constructor.
+ * <p>
+ * Subclasses that are pure can say so by passing true as the
+ * <code>pure</code> argument of the constructor, and subclasses that can
+ * compile some calls to faster nodes can override {@link #specialize}.
  */
-public abstract class BaseFunction implements Function {
+public abstract class BaseFunction implements SpecializableFunction {
   private final ArgumentConstraint argumentConstraints;
   private final String name;
+  private final boolean pure;
 
   private static final Pattern CAMEL_CASE_COMPONENT_RE = Pattern.compile("[A-Z][^A-Z]+");
 
@@ -63,8 +70,27 @@ public abstract class BaseFunction implements Function {
    * the class name) and that accept a single, or a variable number of arguments.
    */
   public BaseFunction(String name, ArgumentConstraint argumentConstraints) {
+    this(name, argumentConstraints, false);
+  }
+
+  /**
+   * Constructor used by subclasses whose name ends with "Function" and that
+   * specify whether they are pure, see {@link #isPure}.
+   *
+   * @throws FunctionConfigurationException when the function name cannot be produced from the class name
+   */
+  protected BaseFunction(ArgumentConstraint argumentConstraints, boolean pure) {
+    this(null, argumentConstraints, pure);
+  }
+
+  /**
+   * Constructor used by subclasses that provide a custom name and specify
+   * whether they are pure, see {@link #isPure}.
+   */
+  protected BaseFunction(String name, ArgumentConstraint argumentConstraints, boolean pure) {
     this.name = name == null ? classNameToFunctionName() : name;
     this.argumentConstraints = argumentConstraints;
+    this.pure = pure;
   }
 
   private String classNameToFunctionName() {
@@ -103,6 +129,24 @@ public abstract class BaseFunction implements Function {
     return argumentConstraints;
   }
 
+  /**
+   * Returns the <code>pure</code> argument given to the constructor, which is
+   * false unless the subclass passes true.
+   */
+  @Override
+  public boolean isPure() {
+    return pure;
+  }
+
+  /**
+   * Returns null, which means that calls are compiled to regular function
+   * call nodes.
+   */
+  @Override
+  public <T> Node<T> specialize(Adapter<T> runtime, List<? extends Expression<T>> arguments) {
+    return null;
+  }
+
   /**
    * Call this function with a list of arguments.
    *
@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class CeilFunction extends MathFunction {
+  public CeilFunction() {
+    super(true);
+  }
+
   @Override
   protected double performMathOperation(double n) {
     return Math.ceil(n);
@@ -6,6 +6,18 @@ import io.burt.jmespath.Adapter;
  * Helper base class for higher order comparison functions like max_by and min_by.
  */
 public abstract class CompareByFunction extends TransformByFunction {
+  public CompareByFunction() {
+    this(false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected CompareByFunction(boolean pure) {
+    super(pure);
+  }
+
   /**
    * Subclasses override this method to decide whether the greatest or least
    * element sorts first.
@@ -1,17 +1,22 @@
 package io.burt.jmespath.function;
 
-import java.util.List;
-import java.util.Iterator;
-
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 
 /**
  * Helper base class for comparison functions like max and min.
  */
-public abstract class CompareFunction extends ArrayMathFunction {
+public abstract class CompareFunction extends AggregateFunction {
   public CompareFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING));
+    this(false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected CompareFunction(boolean pure) {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING), pure);
   }
 
   /**
@@ -21,19 +26,42 @@ public abstract class CompareFunction extends ArrayMathFunction {
   protected abstract boolean sortsBefore(int compareResult);
 
   @Override
-  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
-    if (values.isEmpty()) {
-      return runtime.createNull();
-    } else {
-      Iterator<T> vs = values.iterator();
-      T result = vs.next();
-      while (vs.hasNext()) {
-        T candidate = vs.next();
-        if (sortsBefore(runtime.compare(candidate, result))) {
-          result = candidate;
+  public <T> Accumulator<T> createAccumulator(Adapter<T> runtime) {
+    return new ComparingAccumulator<>(runtime);
+  }
+
+  private class ComparingAccumulator<V> extends Accumulator<V> {
+    private JmesPathType type;
+    private V current;
+
+    public ComparingAccumulator(Adapter<V> runtime) {
+      super(runtime);
+    }
+
+    @Override
+    public boolean accumulate(V candidate) {
+      JmesPathType candidateType = runtime.typeOf(candidate);
+      if (type == null) {
+        if (candidateType != JmesPathType.NUMBER && candidateType != JmesPathType.STRING) {
+          return false;
         }
+        type = candidateType;
+        current = candidate;
+      } else if (candidateType != type) {
+        return false;
+      } else if (sortsBefore(runtime.compare(candidate, current))) {
+        current = candidate;
+      }
+      return true;
+    }
+
+    @Override
+    public V result() {
+      if (type == null) {
+        return runtime.createNull();
+      } else {
+        return current;
       }
-      return result;
     }
   }
 }
@@ -0,0 +1,28 @@
+package io.burt.jmespath.function;
+
+/**
+ * A running sum of floating point numbers that keeps track of the low order
+ * bits lost in each addition and adds them back at the end.
+ * <p>
+ * This is the Kahan-Babuška (a.k.a. Neumaier) variant of compensated summation,
+ * which unlike plain Kahan summation stays accurate also when an added value
+ * is larger in magnitude than the running sum.
+ */
+class CompensatedSum {
+  private double sum;
+  private double compensation;
+
+  public void add(double n) {
+    double t = sum + n;
+    if (Math.abs(sum) >= Math.abs(n)) {
+      compensation += (sum - t) + n;
+    } else {
+      compensation += (n - t) + sum;
+    }
+    sum = t;
+  }
+
+  public double value() {
+    return sum + compensation;
+  }
+}
@@ -3,23 +3,47 @@ package io.burt.jmespath.function;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.node.MembershipNode;
+import io.burt.jmespath.node.Node;
 
 public class ContainsFunction extends BaseFunction {
   public ContainsFunction() {
     super(
-      ArgumentConstraints.typeOf(JmesPathType.ARRAY, JmesPathType.STRING),
-      ArgumentConstraints.anyValue()
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.typeOf(JmesPathType.ARRAY, JmesPathType.STRING),
+        ArgumentConstraints.anyValue()
+      ),
+      true
     );
   }
 
+  /**
+   * Compiles calls whose first argument is a literal array to a
+   * {@link MembershipNode}.
+   */
+  @Override
+  public <T> Node<T> specialize(Adapter<T> runtime, List<? extends Expression<T>> arguments) {
+    if (MembershipNode.isApplicable(runtime, arguments)) {
+      return new MembershipNode<>(runtime, this, arguments);
+    } else {
+      return null;
+    }
+  }
+
   @Override
   protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
     T haystack = arguments.get(0).value();
     T needle = arguments.get(1).value();
     JmesPathType haystackType = runtime.typeOf(haystack);
     if (haystackType == JmesPathType.ARRAY) {
-      return runtime.createBoolean(runtime.toList(haystack).contains(needle));
+      for (T element : runtime.toList(haystack)) {
+        if (runtime.compare(element, needle) == 0) {
+          return runtime.createBoolean(true);
+        }
+      }
+      return runtime.createBoolean(false);
     } else {
       return runtime.createBoolean(runtime.toString(haystack).contains(runtime.toString(needle)));
     }
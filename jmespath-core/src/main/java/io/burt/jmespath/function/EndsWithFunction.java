@@ -8,8 +8,11 @@ import io.burt.jmespath.JmesPathType;
 public class EndsWithFunction extends BaseFunction {
   public EndsWithFunction() {
     super(
-      ArgumentConstraints.typeOf(JmesPathType.STRING),
-      ArgumentConstraints.typeOf(JmesPathType.STRING)
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.typeOf(JmesPathType.STRING),
+        ArgumentConstraints.typeOf(JmesPathType.STRING)
+      ),
+      true
     );
   }
 
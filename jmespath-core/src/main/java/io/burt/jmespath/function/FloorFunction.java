@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class FloorFunction extends MathFunction {
+  public FloorFunction() {
+    super(true);
+  }
+
   @Override
   protected double performMathOperation(double n) {
     return Math.floor(n);
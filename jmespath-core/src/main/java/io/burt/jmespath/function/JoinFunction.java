@@ -9,8 +9,11 @@ import io.burt.jmespath.JmesPathType;
 public class JoinFunction extends BaseFunction {
   public JoinFunction() {
     super(
-      ArgumentConstraints.typeOf(JmesPathType.STRING),
-      ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.STRING))
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.typeOf(JmesPathType.STRING),
+        ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.STRING))
+      ),
+      true
     );
   }
 
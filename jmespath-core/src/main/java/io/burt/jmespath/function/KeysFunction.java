@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class KeysFunction extends BaseFunction {
   public KeysFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.OBJECT));
+    super(ArgumentConstraints.typeOf(JmesPathType.OBJECT), true);
   }
 
   @Override
@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class LengthFunction extends BaseFunction {
   public LengthFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.STRING, JmesPathType.ARRAY, JmesPathType.OBJECT));
+    super(ArgumentConstraints.typeOf(JmesPathType.STRING, JmesPathType.ARRAY, JmesPathType.OBJECT), true);
   }
 
   @Override
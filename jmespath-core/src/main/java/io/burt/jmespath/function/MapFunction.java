@@ -9,8 +9,11 @@ import io.burt.jmespath.Expression;
 public class MapFunction extends BaseFunction {
   public MapFunction() {
     super(
-      ArgumentConstraints.expression(),
-      ArgumentConstraints.arrayOf(ArgumentConstraints.anyValue())
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.expression(),
+        ArgumentConstraints.arrayOf(ArgumentConstraints.anyValue())
+      ),
+      true
     );
   }
 
@@ -11,7 +11,15 @@ import io.burt.jmespath.JmesPathType;
  */
 public abstract class MathFunction extends BaseFunction {
   public MathFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+    this(false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected MathFunction(boolean pure) {
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER), pure);
   }
 
   @Override
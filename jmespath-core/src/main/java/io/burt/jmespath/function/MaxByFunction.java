@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class MaxByFunction extends CompareByFunction {
+  public MaxByFunction() {
+    super(true);
+  }
+
   @Override
   protected boolean sortsBefore(int compareResult) {
     return compareResult > 0;
@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class MaxFunction extends CompareFunction {
+  public MaxFunction() {
+    super(true);
+  }
+
   @Override
   protected boolean sortsBefore(int compareResult) {
     return compareResult > 0;
@@ -9,7 +9,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class MergeFunction extends BaseFunction {
   public MergeFunction() {
-    super(ArgumentConstraints.listOf(1, Integer.MAX_VALUE, ArgumentConstraints.typeOf(JmesPathType.OBJECT)));
+    super(ArgumentConstraints.listOf(1, Integer.MAX_VALUE, ArgumentConstraints.typeOf(JmesPathType.OBJECT)), true);
   }
 
   @Override
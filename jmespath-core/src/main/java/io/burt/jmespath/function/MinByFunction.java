@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class MinByFunction extends CompareByFunction {
+  public MinByFunction() {
+    super(true);
+  }
+
   @Override
   protected boolean sortsBefore(int compareResult) {
     return compareResult < 0;
@@ -1,6 +1,10 @@
 package io.burt.jmespath.function;
 
 public class MinFunction extends CompareFunction {
+  public MinFunction() {
+    super(true);
+  }
+
   @Override
   protected boolean sortsBefore(int compareResult) {
     return compareResult < 0;
@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class NotNullFunction extends BaseFunction {
   public NotNullFunction() {
-    super(ArgumentConstraints.listOf(1, Integer.MAX_VALUE, ArgumentConstraints.anyValue()));
+    super(ArgumentConstraints.listOf(1, Integer.MAX_VALUE, ArgumentConstraints.anyValue()), true);
   }
 
   @Override
@@ -1,15 +1,14 @@
 package io.burt.jmespath.function;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.ArrayList;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.util.ListViews;
 
 public class ReverseFunction extends BaseFunction {
   public ReverseFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.ARRAY, JmesPathType.STRING));
+    super(ArgumentConstraints.typeOf(JmesPathType.ARRAY, JmesPathType.STRING), true);
   }
 
   @Override
@@ -17,9 +16,7 @@ public class ReverseFunction extends BaseFunction {
     T subject = arguments.get(0).value();
     JmesPathType subjectType = runtime.typeOf(subject);
     if (subjectType == JmesPathType.ARRAY) {
-      List<T> elements = new ArrayList<>(runtime.toList(subject));
-      Collections.reverse(elements);
-      return runtime.createArray(elements);
+      return runtime.createArray(ListViews.reverse(runtime.toList(subject)));
     } else {
       return runtime.createString(new StringBuilder(runtime.toString(subject)).reverse().toString());
     }
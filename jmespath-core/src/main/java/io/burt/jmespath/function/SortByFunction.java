@@ -8,6 +8,10 @@ import java.util.Comparator;
 import io.burt.jmespath.Adapter;
 
 public class SortByFunction extends TransformByFunction {
+  public SortByFunction() {
+    super(true);
+  }
+
   @Override
   protected <T> TransformByFunction.Aggregator<T> createAggregator(Adapter<T> runtime, int elementCount, T element, T elementValue) {
     return new SortingAggregator<T>(runtime, elementCount, element, elementValue);
@@ -12,7 +12,8 @@ public class SortFunction extends BaseFunction {
     super(
       ArgumentConstraints.arrayOf(
         ArgumentConstraints.typeOf(JmesPathType.NUMBER, JmesPathType.STRING)
-      )
+      ),
+      true
     );
   }
 
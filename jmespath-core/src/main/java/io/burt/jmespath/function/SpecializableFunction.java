@@ -0,0 +1,40 @@
+package io.burt.jmespath.function;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.Node;
+
+/**
+ * Implemented by functions that take part in compiling the calls to them.
+ * <p>
+ * When an expression is compiled, calls to functions that implement this
+ * interface are first given to {@link #specialize}, which can replace the
+ * call with a node that is faster for the arguments at hand. When it doesn't,
+ * and the function is pure and all of its arguments are literals, the call
+ * is made once and replaced by its result.
+ * <p>
+ * {@link BaseFunction} implements this interface without specializing any
+ * calls, and only declares the subclasses that ask for it with a constructor
+ * argument pure, so custom functions have to opt in.
+ */
+public interface SpecializableFunction extends Function {
+  /**
+   * Returns true when the function always returns the same result for the
+   * same arguments, and has no side effects, which means that calls with
+   * literal arguments can be evaluated when the expression is compiled.
+   */
+  boolean isPure();
+
+  /**
+   * Returns a node to use instead of the regular function call node, or null
+   * when the call can't be specialized.
+   * <p>
+   * The node must behave exactly like a call to the function with the same
+   * arguments would, including type errors. It is usually a subclass of
+   * {@link io.burt.jmespath.node.FunctionCallNode} that falls back to the
+   * regular call when it meets values it doesn't handle.
+   */
+  <T> Node<T> specialize(Adapter<T> runtime, List<? extends Expression<T>> arguments);
+}
@@ -8,8 +8,11 @@ import io.burt.jmespath.JmesPathType;
 public class StartsWithFunction extends BaseFunction {
   public StartsWithFunction() {
     super(
-      ArgumentConstraints.typeOf(JmesPathType.STRING),
-      ArgumentConstraints.typeOf(JmesPathType.STRING)
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.typeOf(JmesPathType.STRING),
+        ArgumentConstraints.typeOf(JmesPathType.STRING)
+      ),
+      true
     );
   }
 
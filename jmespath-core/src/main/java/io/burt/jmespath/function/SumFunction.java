@@ -1,21 +1,39 @@
 package io.burt.jmespath.function;
 
-import java.util.List;
-
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
 
-public class SumFunction extends ArrayMathFunction {
+public class SumFunction extends AggregateFunction {
   public SumFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER));
+    super(ArgumentConstraints.typeOf(JmesPathType.NUMBER), true);
   }
 
   @Override
-  protected <T> T performMathOperation(Adapter<T> runtime, List<T> values) {
-    double sum = 0;
-    for (T n : values) {
-      sum += runtime.toNumber(n).doubleValue();
+  public <T> Accumulator<T> createAccumulator(Adapter<T> runtime) {
+    return new SumAccumulator<>(runtime);
+  }
+
+  private static class SumAccumulator<V> extends Accumulator<V> {
+    private final CompensatedSum sum;
+
+    public SumAccumulator(Adapter<V> runtime) {
+      super(runtime);
+      this.sum = new CompensatedSum();
+    }
+
+    @Override
+    public boolean accumulate(V value) {
+      if (runtime.typeOf(value) == JmesPathType.NUMBER) {
+        sum.add(runtime.toNumber(value).doubleValue());
+        return true;
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public V result() {
+      return runtime.createNumber(sum.value());
     }
-    return runtime.createNumber(sum);
   }
 }
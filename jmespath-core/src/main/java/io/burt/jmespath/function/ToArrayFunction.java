@@ -9,7 +9,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class ToArrayFunction extends BaseFunction {
   public ToArrayFunction() {
-    super(ArgumentConstraints.anyValue());
+    super(ArgumentConstraints.anyValue(), true);
   }
 
   @Override
@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class ToNumberFunction extends BaseFunction {
   public ToNumberFunction() {
-    super(ArgumentConstraints.anyValue());
+    super(ArgumentConstraints.anyValue(), true);
   }
 
   @Override
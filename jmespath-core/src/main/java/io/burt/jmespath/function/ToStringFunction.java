@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class ToStringFunction extends BaseFunction {
   public ToStringFunction() {
-    super(ArgumentConstraints.anyValue());
+    super(ArgumentConstraints.anyValue(), true);
   }
 
   @Override
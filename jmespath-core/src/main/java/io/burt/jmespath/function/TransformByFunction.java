@@ -12,9 +12,20 @@ import io.burt.jmespath.Expression;
  */
 public abstract class TransformByFunction extends BaseFunction {
   public TransformByFunction() {
+    this(false);
+  }
+
+  /**
+   * Constructor used by subclasses that specify whether they are pure, see
+   * {@link #isPure}.
+   */
+  protected TransformByFunction(boolean pure) {
     super(
-      ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.OBJECT)),
-      ArgumentConstraints.expression()
+      ArgumentConstraints.listOf(
+        ArgumentConstraints.arrayOf(ArgumentConstraints.typeOf(JmesPathType.OBJECT)),
+        ArgumentConstraints.expression()
+      ),
+      pure
     );
   }
 
@@ -6,7 +6,7 @@ import io.burt.jmespath.Adapter;
 
 public class TypeFunction extends BaseFunction {
   public TypeFunction() {
-    super(ArgumentConstraints.anyValue());
+    super(ArgumentConstraints.anyValue(), true);
   }
 
   @Override
@@ -7,7 +7,7 @@ import io.burt.jmespath.JmesPathType;
 
 public class ValuesFunction extends BaseFunction {
   public ValuesFunction() {
-    super(ArgumentConstraints.typeOf(JmesPathType.OBJECT));
+    super(ArgumentConstraints.typeOf(JmesPathType.OBJECT), true);
   }
 
   @Override
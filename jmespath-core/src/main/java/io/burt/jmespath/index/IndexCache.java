@@ -0,0 +1,331 @@
+package io.burt.jmespath.index;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.util.ListViews;
+import io.burt.jmespath.util.ValueKey;
+
+/**
+ * Keeps hash indexes of the elements of arrays, so that equality filters like
+ * <code>users[?id == 'u-123']</code> can be evaluated with a lookup instead of
+ * a scan when they are run many times against the same long lived document.
+ * <p>
+ * Indexes are keyed by the identity of the array and the expression that the
+ * elements are indexed by (<code>id</code> in the example above). Arrays are
+ * only weakly referenced, so an index is dropped when its document is garbage
+ * collected. The total number of indexed elements is bounded, and the least
+ * recently used indexes are evicted to stay within the bound.
+ * <p>
+ * An array is only indexed the second time it is looked up by the same key
+ * expression, the first lookup just remembers it and lets the filter scan.
+ * This keeps arrays that are created during a search, like the results of
+ * projections and slices, and documents that are only queried once, from
+ * paying for an index and evicting the ones that are useful.
+ * <p>
+ * Indexes are never updated, so when an indexed document is modified the
+ * indexes of its arrays must be invalidated with {@link #invalidate} or
+ * {@link #invalidateAll}.
+ * <p>
+ * The cache is enabled with
+ * {@link io.burt.jmespath.RuntimeConfiguration.Builder#withIndexCache}, and is
+ * safe to share between runtimes and threads. Lookups that find an index
+ * don't take any locks, so the recency used for eviction and the hit count
+ * are approximate when there are concurrent lookups.
+ */
+public class IndexCache {
+  /** Arrays smaller than this are scanned, since indexing them doesn't pay off */
+  public static final int MIN_INDEXED_SIZE = 8;
+
+  /** The number of arrays that have been looked up once that are remembered */
+  static final int MAX_CANDIDATES = 256;
+
+  private final long maxIndexedElements;
+  private final ConcurrentHashMap<IndexKey, Index> indexes;
+  private final LinkedHashMap<IndexKey, Boolean> candidates;
+  private final ReferenceQueue<Object> collectedArrays;
+  private volatile long clock;
+  private long indexedElements;
+  private long droppedHits;
+  private long misses;
+
+  /**
+   * Creates a cache that keeps indexes with at most the specified number of
+   * elements in total.
+   */
+  public IndexCache(long maxIndexedElements) {
+    this.maxIndexedElements = maxIndexedElements;
+    this.indexes = new ConcurrentHashMap<>();
+    this.candidates = new LinkedHashMap<IndexKey, Boolean>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<IndexKey, Boolean> eldest) {
+        return size() > MAX_CANDIDATES;
+      }
+    };
+    this.collectedArrays = new ReferenceQueue<>();
+  }
+
+  private static class Index {
+    final Map<Object, List<Object>> elementsByKey;
+    final int size;
+    volatile long lastUsed;
+    long hits;
+
+    Index(Map<Object, List<Object>> elementsByKey, int size) {
+      this.elementsByKey = elementsByKey;
+      this.size = size;
+    }
+  }
+
+  private static class ArrayReference extends WeakReference<Object> {
+    ArrayKey key;
+
+    ArrayReference(Object array, ReferenceQueue<Object> queue) {
+      super(array, queue);
+    }
+  }
+
+  private abstract static class IndexKey {
+    final Expression<?> keyExpression;
+    final int hashCode;
+
+    IndexKey(Object array, Expression<?> keyExpression) {
+      this.keyExpression = keyExpression;
+      this.hashCode = System.identityHashCode(array) * 31 + keyExpression.hashCode();
+    }
+
+    abstract Object array();
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof IndexKey)) {
+        return false;
+      }
+      IndexKey other = (IndexKey) o;
+      Object array = array();
+      return array != null && array == other.array() && keyExpression.equals(other.keyExpression);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** The key of an index in the cache, which only weakly references its array */
+  private static class ArrayKey extends IndexKey {
+    final ArrayReference reference;
+
+    ArrayKey(ArrayReference reference, Expression<?> keyExpression) {
+      super(reference.get(), keyExpression);
+      this.reference = reference;
+    }
+
+    @Override
+    Object array() {
+      return reference.get();
+    }
+  }
+
+  /** A key used to look up the index of an array for the duration of a lookup */
+  private static class Probe extends IndexKey {
+    final Object array;
+
+    Probe(Object array, Expression<?> keyExpression) {
+      super(array, keyExpression);
+      this.array = array;
+    }
+
+    @Override
+    Object array() {
+      return array;
+    }
+  }
+
+  /**
+   * Returns the elements of the array for which the key expression evaluates
+   * to a value equal to the specified key, in the order they appear in the
+   * array, or null when the array is not indexed and must be scanned. The
+   * returned list is an unmodifiable view of the index.
+   * <p>
+   * The array is indexed if it isn't already and it has been looked up by the
+   * same key expression before, unless it is too small or too large.
+   *
+   * @param key the value to look up, as returned by {@link ValueKey#of}
+   */
+  public <T> List<T> lookup(Adapter<T> runtime, T array, Expression<T> keyExpression, Object key) {
+    Probe probe = new Probe(array, keyExpression);
+    Index index = indexes.get(probe);
+    if (index != null) {
+      long now = clock;
+      if (index.lastUsed != now) {
+        index.lastUsed = now;
+      }
+      index.hits++;
+      return matches(index, key);
+    }
+    List<T> elements = runtime.toList(array);
+    if (elements.size() < MIN_INDEXED_SIZE || elements.size() > maxIndexedElements) {
+      return null;
+    }
+    synchronized (this) {
+      misses++;
+      expungeCollectedArrays();
+      if (candidates.remove(probe) == null) {
+        candidates.put(createKey(array, keyExpression), Boolean.TRUE);
+        return null;
+      }
+    }
+    index = createIndex(runtime, elements, keyExpression);
+    synchronized (this) {
+      index.lastUsed = clock++;
+      Index previous = indexes.put(createKey(array, keyExpression), index);
+      if (previous != null) {
+        drop(previous);
+      }
+      indexedElements += index.size;
+      evict();
+    }
+    return matches(index, key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> matches(Index index, Object key) {
+    List<T> matches = (List<T>) index.elementsByKey.get(key);
+    if (matches == null) {
+      matches = Collections.emptyList();
+    }
+    return ListViews.slice(matches, 0, 1, matches.size());
+  }
+
+  private ArrayKey createKey(Object array, Expression<?> keyExpression) {
+    ArrayReference reference = new ArrayReference(array, collectedArrays);
+    ArrayKey key = new ArrayKey(reference, keyExpression);
+    reference.key = key;
+    return key;
+  }
+
+  private <T> Index createIndex(Adapter<T> runtime, List<T> elements, Expression<T> keyExpression) {
+    EvaluationBudget budget = EvaluationBudget.current();
+    if (budget != null) {
+      budget.chargeProjectedElements(elements.size());
+      budget.chargeNodeEvaluations(elements.size());
+    }
+    Map<Object, List<Object>> elementsByKey = new HashMap<>();
+    for (T element : elements) {
+      Object key = ValueKey.of(runtime, keyExpression.search(element));
+      List<Object> matches = elementsByKey.get(key);
+      if (matches == null) {
+        matches = new ArrayList<>(1);
+        elementsByKey.put(key, matches);
+      }
+      matches.add(element);
+    }
+    return new Index(elementsByKey, elements.size());
+  }
+
+  private void drop(Index index) {
+    indexedElements -= index.size;
+    droppedHits += index.hits;
+  }
+
+  /**
+   * Drops the indexes that were used the longest ago until the cache is
+   * within its bound. Indexes used since the last index was added all look
+   * equally recent, which is close enough to LRU for this purpose.
+   */
+  private void evict() {
+    while (indexedElements > maxIndexedElements && !indexes.isEmpty()) {
+      Map.Entry<IndexKey, Index> oldest = null;
+      for (Map.Entry<IndexKey, Index> entry : indexes.entrySet()) {
+        if (oldest == null || entry.getValue().lastUsed < oldest.getValue().lastUsed) {
+          oldest = entry;
+        }
+      }
+      if (indexes.remove(oldest.getKey(), oldest.getValue())) {
+        drop(oldest.getValue());
+      }
+    }
+  }
+
+  private void expungeCollectedArrays() {
+    ArrayReference reference;
+    while ((reference = (ArrayReference) collectedArrays.poll()) != null) {
+      candidates.remove(reference.key);
+      Index index = indexes.remove(reference.key);
+      if (index != null) {
+        drop(index);
+      }
+    }
+  }
+
+  /**
+   * Drops all indexes of the specified array. This must be called when the
+   * array, or any of the values its elements are indexed by, is modified.
+   */
+  public synchronized void invalidate(Object array) {
+    Iterator<Map.Entry<IndexKey, Index>> iterator = indexes.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<IndexKey, Index> entry = iterator.next();
+      if (entry.getKey().array() == array) {
+        drop(entry.getValue());
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Drops all indexes.
+   */
+  public synchronized void invalidateAll() {
+    for (Index index : indexes.values()) {
+      droppedHits += index.hits;
+    }
+    indexes.clear();
+    candidates.clear();
+    indexedElements = 0;
+  }
+
+  /** Returns the number of indexes in the cache */
+  public synchronized int size() {
+    expungeCollectedArrays();
+    return indexes.size();
+  }
+
+  /** Returns the total number of elements in the indexes in the cache */
+  public synchronized long indexedElements() {
+    expungeCollectedArrays();
+    return indexedElements;
+  }
+
+  /** Returns the number of lookups that found an existing index */
+  public synchronized long hits() {
+    long hits = droppedHits;
+    for (Index index : indexes.values()) {
+      hits += index.hits;
+    }
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups of arrays that could be indexed that did
+   * not find an existing index
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+}
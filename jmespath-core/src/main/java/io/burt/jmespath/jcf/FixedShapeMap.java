@@ -0,0 +1,137 @@
+package io.burt.jmespath.jcf;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An unmodifiable map whose keys are shared with all other maps of the same
+ * {@link Shape}, so that each instance only holds an array of values.
+ * <p>
+ * Used by {@link JcfRuntime} for the results of multi-select hashes, which
+ * produce many objects with the same keys.
+ */
+class FixedShapeMap extends AbstractMap<Object, Object> {
+  private final Shape shape;
+  private final Object[] values;
+
+  /**
+   * The keys of a fixed shape map, in order, and a lookup table from key to
+   * position for shapes with many keys.
+   */
+  static class Shape {
+    private static final int MAX_SCANNED_KEYS = 8;
+
+    private final Object[] keys;
+    private final Map<Object, Integer> positions;
+
+    Shape(List<?> keys) {
+      this.keys = keys.toArray();
+      if (this.keys.length > MAX_SCANNED_KEYS) {
+        this.positions = new HashMap<>(this.keys.length * 2);
+        for (int i = 0; i < this.keys.length; i++) {
+          positions.put(this.keys[i], i);
+        }
+      } else {
+        this.positions = null;
+      }
+    }
+
+    int size() {
+      return keys.length;
+    }
+
+    int indexOf(Object key) {
+      if (positions != null) {
+        Integer position = positions.get(key);
+        return position == null ? -1 : position;
+      }
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i].equals(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Creates a map with the specified shape. The values array is used, not
+   * copied, and must have one element per key.
+   */
+  FixedShapeMap(Shape shape, Object[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return values.length == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return shape.indexOf(key) >= 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int index = shape.indexOf(key);
+    return index < 0 ? null : values[index];
+  }
+
+  @Override
+  public Collection<Object> values() {
+    return Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<Object, Object>>() {
+      @Override
+      public int size() {
+        return values.length;
+      }
+
+      @Override
+      public Iterator<Map.Entry<Object, Object>> iterator() {
+        return new Iterator<Map.Entry<Object, Object>>() {
+          private int index = 0;
+
+          @Override
+          public boolean hasNext() {
+            return index < values.length;
+          }
+
+          @Override
+          public Map.Entry<Object, Object> next() {
+            if (index >= values.length) {
+              throw new NoSuchElementException();
+            }
+            Map.Entry<Object, Object> entry = new AbstractMap.SimpleImmutableEntry<>(shape.keys[index], values[index]);
+            index++;
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+}
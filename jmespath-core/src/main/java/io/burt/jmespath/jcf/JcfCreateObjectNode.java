@@ -0,0 +1,47 @@
+package io.burt.jmespath.jcf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.burt.jmespath.node.CreateObjectNode;
+
+/**
+ * Creates {@link FixedShapeMap} instances that share the keys of the
+ * multi-select hash. Keys that occur more than once get the value of their
+ * last occurrence, in the position of their first, like they would in a
+ * {@link java.util.LinkedHashMap}.
+ */
+class JcfCreateObjectNode extends CreateObjectNode<Object> {
+  private final FixedShapeMap.Shape shape;
+  private final int[] positions;
+
+  JcfCreateObjectNode(JcfRuntime runtime, List<Entry<Object>> entries) {
+    super(runtime, entries);
+    List<String> keys = new ArrayList<>(entries.size());
+    this.positions = new int[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      String key = entries.get(i).key();
+      int position = keys.indexOf(key);
+      if (position < 0) {
+        position = keys.size();
+        keys.add(key);
+      }
+      positions[i] = position;
+    }
+    this.shape = new FixedShapeMap.Shape(keys);
+  }
+
+  @Override
+  public Object search(Object input) {
+    if (input == null) {
+      return null;
+    }
+    chargeBudget();
+    List<Entry<Object>> entries = entries();
+    Object[] values = new Object[shape.size()];
+    for (int i = 0; i < positions.length; i++) {
+      values[positions[i]] = entries.get(i).value().search(input);
+    }
+    return new FixedShapeMap(shape, values);
+  }
+}
@@ -0,0 +1,29 @@
+package io.burt.jmespath.jcf;
+
+import java.util.List;
+
+import io.burt.jmespath.node.IndexNode;
+
+class JcfIndexNode extends IndexNode<Object> {
+  private final int index;
+
+  JcfIndexNode(JcfRuntime runtime, int index) {
+    super(runtime, index);
+    this.index = index;
+  }
+
+  @Override
+  public Object search(Object input) {
+    if (input instanceof List) {
+      List<?> elements = (List<?>) input;
+      int i = index < 0 ? elements.size() + index : index;
+      if (i >= 0 && i < elements.size()) {
+        return elements.get(i);
+      } else {
+        return null;
+      }
+    } else {
+      return super.search(input);
+    }
+  }
+}
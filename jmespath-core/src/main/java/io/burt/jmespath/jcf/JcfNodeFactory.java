@@ -0,0 +1,50 @@
+package io.burt.jmespath.jcf;
+
+import java.util.List;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.StandardNodeFactory;
+
+/**
+ * A node factory whose property, index and projection nodes work directly on
+ * the maps and lists of {@link JcfRuntime}, without going through the
+ * runtime's adapter methods.
+ * <p>
+ * When the runtime uses fixed shape objects multi-select hashes create maps
+ * that share their keys, see {@link JcfRuntime#usesFixedShapeObjects()}.
+ */
+public class JcfNodeFactory extends StandardNodeFactory<Object> {
+  private final JcfRuntime runtime;
+
+  public JcfNodeFactory(JcfRuntime runtime, IndexCache indexCache) {
+    super(runtime, indexCache);
+    this.runtime = runtime;
+  }
+
+  @Override
+  public Node<Object> createProperty(String name) {
+    return new JcfPropertyNode(runtime, name);
+  }
+
+  @Override
+  public Node<Object> createIndex(int index) {
+    return new JcfIndexNode(runtime, index);
+  }
+
+  @Override
+  public Node<Object> createProjection(Expression<Object> expression) {
+    return new JcfProjectionNode(runtime, expression);
+  }
+
+  @Override
+  public Node<Object> createCreateObject(List<CreateObjectNode.Entry<Object>> entries) {
+    if (runtime.usesFixedShapeObjects()) {
+      return new JcfCreateObjectNode(runtime, entries);
+    } else {
+      return super.createCreateObject(entries);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.burt.jmespath.jcf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.node.ProjectionNode;
+
+class JcfProjectionNode extends ProjectionNode<Object> {
+  JcfProjectionNode(JcfRuntime runtime, Expression<Object> projection) {
+    super(runtime, projection);
+  }
+
+  @Override
+  public Object search(Object input) {
+    if (!(input instanceof Collection)) {
+      return null;
+    }
+    Collection<?> elements = (Collection<?>) input;
+    Expression<Object> projection = projection();
+    EvaluationBudget budget = chargeProjection(elements.size());
+    List<Object> results = new ArrayList<>(elements.size());
+    for (Object element : elements) {
+      checkpoint(budget);
+      Object result = projection.search(element);
+      if (result != null) {
+        results.add(result);
+      }
+    }
+    chargeResults(budget, results.size());
+    return results;
+  }
+}
@@ -0,0 +1,23 @@
+package io.burt.jmespath.jcf;
+
+import java.util.Map;
+
+import io.burt.jmespath.node.PropertyNode;
+
+class JcfPropertyNode extends PropertyNode<Object> {
+  private final String name;
+
+  JcfPropertyNode(JcfRuntime runtime, String name) {
+    super(runtime, name);
+    this.name = name;
+  }
+
+  @Override
+  public Object search(Object input) {
+    if (input instanceof Map) {
+      return ((Map<?, ?>) input).get(name);
+    } else {
+      return null;
+    }
+  }
+}
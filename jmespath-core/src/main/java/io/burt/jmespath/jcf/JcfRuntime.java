@@ -1,5 +1,6 @@
 package io.burt.jmespath.jcf;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -9,28 +10,52 @@ import java.util.Collections;
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
 import io.burt.jmespath.RuntimeConfiguration;
-import io.burt.jmespath.util.StringEscapeHelper;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.StandardNodeFactory;
+import io.burt.jmespath.util.JsonStrings;
+import io.burt.jmespath.util.ListViews;
 
 import static io.burt.jmespath.JmesPathType.*;
 
 public class JcfRuntime extends BaseRuntime<Object> {
-
-  private static final StringEscapeHelper jsonEscapeHelper = new StringEscapeHelper(
-    true,
-    'b', '\b',
-    't', '\t',
-    'n', '\n',
-    'f', '\f',
-    'r', '\r',
-    '\\', '\\',
-    '\"', '\"'
-  );
+  private final boolean fixedShapeObjects;
+  private final boolean listViews;
 
   public JcfRuntime() {
+    this.fixedShapeObjects = false;
+    this.listViews = false;
   }
 
   public JcfRuntime(RuntimeConfiguration configuration) {
     super(configuration);
+    this.fixedShapeObjects = configuration.fixedShapeObjects();
+    this.listViews = configuration.listViews();
+  }
+
+  /**
+   * Returns true when multi-select hashes create unmodifiable maps that share
+   * their keys, see
+   * {@link RuntimeConfiguration.Builder#withFixedShapeObjects}.
+   */
+  public boolean usesFixedShapeObjects() {
+    return fixedShapeObjects;
+  }
+
+  /**
+   * Creates a {@link JcfNodeFactory}, whose nodes work directly on maps and
+   * lists. The nodes don't call {@link #getProperty}, {@link #typeOf} or
+   * {@link #toList}, so subclasses, which may override them, get a
+   * {@link StandardNodeFactory} instead. Subclasses that represent values the
+   * same way can override this and return a {@link JcfNodeFactory}, which is
+   * also what fixed shape objects need.
+   */
+  @Override
+  protected NodeFactory<Object> createNodeFactory(RuntimeConfiguration configuration) {
+    if (getClass() == JcfRuntime.class) {
+      return new JcfNodeFactory(this, configuration.indexCache());
+    } else {
+      return super.createNodeFactory(configuration);
+    }
   }
 
   @Override
@@ -61,7 +86,13 @@ public class JcfRuntime extends BaseRuntime<Object> {
     if (typeOf(str) == STRING) {
       return (String) str;
     } else {
-      return unparse(str);
+      StringBuilder json = new StringBuilder();
+      try {
+        writeJson(str, json);
+      } catch (IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+      return json.toString();
     }
   }
 
@@ -139,9 +170,15 @@ public class JcfRuntime extends BaseRuntime<Object> {
     return null;
   }
 
+  /**
+   * Returns lists as they are, except for the views that slices, reverse and
+   * flattening create, which are copied into new lists unless
+   * {@link RuntimeConfiguration.Builder#withListViews} is set. Without it
+   * arrays created by searches are never the arrays of the input.
+   */
   @Override
   public Object createArray(Collection<Object> elements) {
-    if (elements instanceof List) {
+    if (elements instanceof List && (listViews || !ListViews.isView(elements))) {
       return elements;
     } else {
       return new ArrayList<>(elements);
@@ -174,55 +211,44 @@ public class JcfRuntime extends BaseRuntime<Object> {
   }
 
   /**
-   * Helper method to render a value as JSON.
-   *
-   * Assumes that <code>null</code>, <code>number</code> and <code>boolean</code>
-   * render themselves correctly with <code>toString</code>, and that
-   * <code>string</code> renders itself as an unquoted string.
+   * Writes maps, collections, strings, numbers, booleans and nulls directly,
+   * without going through the generic methods of the adapter.
    */
-  private String unparse(Object object) {
-    switch (typeOf(object)) {
-      case NUMBER:
-      case BOOLEAN:
-        return object.toString();
-      case NULL:
-        return "null";
-      case STRING:
-        return '"' + jsonEscapeHelper.escape(toString(object)) + '"';
-      case OBJECT:
-        return unparseObject(object);
-      case ARRAY:
-        return unparseArray(object);
-      default:
-        throw new IllegalStateException();
-    }
-  }
-
-  private String unparseObject(Object object) {
-    StringBuilder str = new StringBuilder("{");
-    Collection<Object> propertyNames = getPropertyNames(object);
-    for (Object key: propertyNames) {
-      Object value = getProperty(object, key);
-      str.append('"').append(jsonEscapeHelper.escape(toString(key))).append("\":");
-      str.append(unparse(value));
-      str.append(',');
-    }
-    if (!propertyNames.isEmpty()) {
-      str.setLength(str.length() - 1);
-    }
-    return str.append('}').toString();
-  }
-
-  private String unparseArray(Object array) {
-    StringBuilder str = new StringBuilder("[");
-    List<Object> elements = toList(array);
-    for (Object element : elements) {
-      str.append(unparse(element)).append(',');
-    }
-    if (!elements.isEmpty()) {
-      str.setLength(str.length() - 1);
-
+  @Override
+  @SuppressWarnings("unchecked")
+  public void writeJson(Object value, Appendable output) throws IOException {
+    if (value == null) {
+      output.append("null");
+    } else if (value instanceof String) {
+      JsonStrings.write((String) value, output);
+    } else if (value instanceof Number || value instanceof Boolean) {
+      output.append(value.toString());
+    } else if (value instanceof Map) {
+      output.append('{');
+      boolean first = true;
+      for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+        if (!first) {
+          output.append(',');
+        }
+        JsonStrings.write(toString(entry.getKey()), output);
+        output.append(':');
+        writeJson(entry.getValue(), output);
+        first = false;
+      }
+      output.append('}');
+    } else if (value instanceof Collection) {
+      output.append('[');
+      boolean first = true;
+      for (Object element : (Collection<Object>) value) {
+        if (!first) {
+          output.append(',');
+        }
+        writeJson(element, output);
+        first = false;
+      }
+      output.append(']');
+    } else {
+      super.writeJson(value, output);
     }
-    return str.append(']').toString();
   }
 }
@@ -0,0 +1,22 @@
+package io.burt.jmespath.limits;
+
+/**
+ * Signals to a running search that it should stop.
+ * <p>
+ * Pass a cancellation to {@link LimitedExpression#search(Object, Cancellation)}
+ * and call {@link #cancel} from any thread. The search checks the
+ * cancellation for each element of its projections and selections, and
+ * stops with a {@link SearchCancelledException}.
+ */
+public class Cancellation {
+  private volatile boolean cancelled;
+
+  /** Requests that the searches using this cancellation stop */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+}
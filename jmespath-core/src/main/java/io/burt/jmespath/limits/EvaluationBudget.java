@@ -0,0 +1,140 @@
+package io.burt.jmespath.limits;
+
+/**
+ * Keeps track of the resources used by the search currently running on a
+ * thread, and throws {@link LimitExceededException} when they exceed the
+ * search's {@link EvaluationLimits}.
+ * <p>
+ * Nodes and functions that iterate over arrays and objects charge the budget
+ * once per evaluation with the number of elements they process, not once per
+ * element, which keeps the accounting cost independent of the input size.
+ * Multi-select lists and hashes are charged for their entries. Property
+ * access, indexing, comparisons and the other steps that take constant time
+ * are not charged, since how many of them a search evaluates is bounded by
+ * the size of the expression times the elements charged by the projections
+ * around them. When a search is not limited the only cost is a read of a
+ * thread local.
+ * <p>
+ * A budget can also carry a {@link Cancellation}, which projections and
+ * selections check for each element, so that a cancelled search stops
+ * promptly.
+ */
+public final class EvaluationBudget {
+  private static final ThreadLocal<EvaluationBudget> currentBudget = new ThreadLocal<>();
+
+  private final EvaluationLimits limits;
+  private final Cancellation cancellation;
+  private final EvaluationBudget previous;
+  private final long deadline;
+  private long nodeEvaluations;
+  private long projectedElements;
+  private long resultElements;
+
+  private EvaluationBudget(EvaluationLimits limits, Cancellation cancellation, EvaluationBudget previous) {
+    this.limits = limits;
+    this.cancellation = cancellation;
+    this.previous = previous;
+    this.deadline = limits.maxDurationNanos() == 0 ? 0 : System.nanoTime() + limits.maxDurationNanos();
+  }
+
+  /**
+   * Returns the budget of the search running on the current thread, or null
+   * when the search is not limited.
+   */
+  public static EvaluationBudget current() {
+    return currentBudget.get();
+  }
+
+  /**
+   * Starts a budget for a search on the current thread. Returns null, and
+   * does nothing, when a budget with limits is already active on the thread,
+   * in which case that budget applies. A budget without limits, which only
+   * carries a cancellation, is replaced until the new budget is stopped, and
+   * the new budget inherits its cancellation. Budgets that are started must be
+   * stopped with {@link #stop}.
+   */
+  static EvaluationBudget start(EvaluationLimits limits, Cancellation cancellation) {
+    EvaluationBudget previous = currentBudget.get();
+    if (previous != null) {
+      if (!previous.limits.isUnlimited() || limits.isUnlimited()) {
+        return null;
+      }
+      cancellation = previous.cancellation;
+    }
+    EvaluationBudget budget = new EvaluationBudget(limits, cancellation, previous);
+    currentBudget.set(budget);
+    return budget;
+  }
+
+  void stop() {
+    if (previous == null) {
+      currentBudget.remove();
+    } else {
+      currentBudget.set(previous);
+    }
+  }
+
+  /**
+   * Throws {@link SearchCancelledException} when the search has been
+   * cancelled, and {@link LimitExceededException} when it has run out of time.
+   * Called for each element by projections and selections.
+   */
+  public void checkpoint() {
+    if (cancellation != null && cancellation.isCancelled()) {
+      throw new SearchCancelledException();
+    }
+    checkDeadline();
+  }
+
+  /**
+   * Charges the budget for evaluating a sub-expression for the specified number
+   * of elements.
+   */
+  public void chargeNodeEvaluations(int count) {
+    nodeEvaluations += count;
+    if (limits.maxNodeEvaluations() > 0 && nodeEvaluations > limits.maxNodeEvaluations()) {
+      throw new LimitExceededException(EvaluationLimits.Limit.NODE_EVALUATIONS, limits.maxNodeEvaluations());
+    }
+    checkpoint();
+  }
+
+  /**
+   * Charges the budget for processing the specified number of elements.
+   */
+  public void chargeProjectedElements(int count) {
+    projectedElements += count;
+    if (limits.maxProjectedElements() > 0 && projectedElements > limits.maxProjectedElements()) {
+      throw new LimitExceededException(EvaluationLimits.Limit.PROJECTED_ELEMENTS, limits.maxProjectedElements());
+    }
+    checkpoint();
+  }
+
+  /**
+   * Charges the budget for creating an array or object with the specified
+   * number of elements.
+   */
+  public void chargeResultElements(int count) {
+    resultElements += count;
+    if (limits.maxResultElements() > 0 && resultElements > limits.maxResultElements()) {
+      throw new LimitExceededException(EvaluationLimits.Limit.RESULT_ELEMENTS, limits.maxResultElements());
+    }
+  }
+
+  private void checkDeadline() {
+    if (deadline != 0 && System.nanoTime() - deadline > 0) {
+      throw new LimitExceededException(EvaluationLimits.Limit.DURATION, limits.maxDurationNanos());
+    }
+  }
+
+  public long nodeEvaluations() {
+    return nodeEvaluations;
+  }
+
+  public long projectedElements() {
+    return projectedElements;
+  }
+
+  public long resultElements() {
+    return resultElements;
+  }
+}
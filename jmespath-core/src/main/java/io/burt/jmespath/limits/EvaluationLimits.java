@@ -0,0 +1,123 @@
+package io.burt.jmespath.limits;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on the resources a single search may use.
+ * <p>
+ * Limits can be configured for all expressions compiled by a runtime with
+ * {@link io.burt.jmespath.RuntimeConfiguration.Builder#withEvaluationLimits},
+ * or for a single search with {@link LimitedExpression}. A search that
+ * exceeds a limit is aborted with a {@link LimitExceededException}.
+ * <p>
+ * A limit of zero means that there is no limit.
+ */
+public class EvaluationLimits {
+  /** No limits at all */
+  public static final EvaluationLimits NONE = builder().build();
+
+  /** The resources that can be limited */
+  public enum Limit {
+    /**
+     * The number of times a sub-expression is evaluated for an element of an
+     * array or object, by projections, selections and functions that take
+     * expression references.
+     */
+    NODE_EVALUATIONS,
+
+    /**
+     * The number of elements fed into projections, selections, flattens and
+     * function arguments.
+     */
+    PROJECTED_ELEMENTS,
+
+    /**
+     * The number of elements in all arrays and objects created by
+     * projections, selections, flattens and functions.
+     */
+    RESULT_ELEMENTS,
+
+    /** The wall time of the search, in nanoseconds */
+    DURATION
+  }
+
+  private final long maxNodeEvaluations;
+  private final long maxProjectedElements;
+  private final long maxResultElements;
+  private final long maxDurationNanos;
+
+  private EvaluationLimits(Builder builder) {
+    this.maxNodeEvaluations = builder.maxNodeEvaluations;
+    this.maxProjectedElements = builder.maxProjectedElements;
+    this.maxResultElements = builder.maxResultElements;
+    this.maxDurationNanos = builder.maxDurationNanos;
+  }
+
+  public long maxNodeEvaluations() {
+    return maxNodeEvaluations;
+  }
+
+  public long maxProjectedElements() {
+    return maxProjectedElements;
+  }
+
+  public long maxResultElements() {
+    return maxResultElements;
+  }
+
+  public long maxDurationNanos() {
+    return maxDurationNanos;
+  }
+
+  /** Returns true when no limit is set */
+  public boolean isUnlimited() {
+    return maxNodeEvaluations == 0 && maxProjectedElements == 0 && maxResultElements == 0 && maxDurationNanos == 0;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+    protected long maxNodeEvaluations;
+    protected long maxProjectedElements;
+    protected long maxResultElements;
+    protected long maxDurationNanos;
+
+    public EvaluationLimits build() {
+      return new EvaluationLimits(this);
+    }
+
+    public Builder withMaxNodeEvaluations(long maxNodeEvaluations) {
+      this.maxNodeEvaluations = checkLimit(maxNodeEvaluations);
+      return this;
+    }
+
+    public Builder withMaxProjectedElements(long maxProjectedElements) {
+      this.maxProjectedElements = checkLimit(maxProjectedElements);
+      return this;
+    }
+
+    public Builder withMaxResultElements(long maxResultElements) {
+      this.maxResultElements = checkLimit(maxResultElements);
+      return this;
+    }
+
+    /**
+     * Limits the wall time of a search. The time is checked whenever the
+     * search charges its budget, so the search will be aborted at the next
+     * projection, selection or function call after the time has run out.
+     */
+    public Builder withMaxDuration(long duration, TimeUnit unit) {
+      this.maxDurationNanos = unit.toNanos(checkLimit(duration));
+      return this;
+    }
+
+    private static long checkLimit(long limit) {
+      if (limit < 0) {
+        throw new IllegalArgumentException(String.format("Limits must not be negative, was %d", limit));
+      }
+      return limit;
+    }
+  }
+}
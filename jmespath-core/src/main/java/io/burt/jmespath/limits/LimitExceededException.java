@@ -0,0 +1,28 @@
+package io.burt.jmespath.limits;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown when a search exceeds one of its {@link EvaluationLimits}.
+ */
+@SuppressWarnings("serial")
+public class LimitExceededException extends JmesPathException {
+  private final EvaluationLimits.Limit limit;
+  private final long maxValue;
+
+  public LimitExceededException(EvaluationLimits.Limit limit, long maxValue) {
+    super(String.format("Search exceeded the %s limit of %d", limit.name().toLowerCase().replace('_', ' '), maxValue));
+    this.limit = limit;
+    this.maxValue = maxValue;
+  }
+
+  /** Returns which limit was exceeded */
+  public EvaluationLimits.Limit limit() {
+    return limit;
+  }
+
+  /** Returns the value of the limit that was exceeded */
+  public long maxValue() {
+    return maxValue;
+  }
+}
@@ -0,0 +1,74 @@
+package io.burt.jmespath.limits;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Wraps a compiled expression and enforces {@link EvaluationLimits} on each
+ * of its searches.
+ * <p>
+ * Runtimes configured with limits wrap all compiled expressions, but this
+ * class can also be used to limit a single search:
+ *
+ * <pre>
+ * new LimitedExpression&lt;&gt;(expression, limits).search(input);
+ * </pre>
+ *
+ * When limited searches are nested on the same thread, for example when an
+ * expression compiled by a runtime with limits is wrapped again to give a
+ * particular search other limits, the outermost limits apply. An outer search
+ * without limits, which only carries a cancellation, gives way to an inner one
+ * with limits.
+ */
+public class LimitedExpression<T> implements Expression<T> {
+  private final Expression<T> expression;
+  private final EvaluationLimits limits;
+
+  public LimitedExpression(Expression<T> expression, EvaluationLimits limits) {
+    this.expression = expression;
+    this.limits = limits;
+  }
+
+  /**
+   * Returns the wrapped expression.
+   */
+  public Expression<T> expression() {
+    return expression;
+  }
+
+  public EvaluationLimits limits() {
+    return limits;
+  }
+
+  /**
+   * @throws LimitExceededException when the search exceeds one of the limits
+   */
+  @Override
+  public T search(T input) {
+    return search(input, null);
+  }
+
+  /**
+   * Searches the input, stopping with a {@link SearchCancelledException} when
+   * the cancellation is cancelled. The cancellation only applies when this is
+   * the outermost limited search on the thread.
+   *
+   * @throws LimitExceededException when the search exceeds one of the limits
+   * @throws SearchCancelledException when the search is cancelled
+   */
+  public T search(T input, Cancellation cancellation) {
+    EvaluationBudget budget = EvaluationBudget.start(limits, cancellation);
+    if (budget == null) {
+      return expression.search(input);
+    }
+    try {
+      return expression.search(input);
+    } finally {
+      budget.stop();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+}
@@ -0,0 +1,14 @@
+package io.burt.jmespath.limits;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown when a search is stopped because its {@link Cancellation} was
+ * cancelled.
+ */
+@SuppressWarnings("serial")
+public class SearchCancelledException extends JmesPathException {
+  public SearchCancelledException() {
+    super("Search was cancelled");
+  }
+}
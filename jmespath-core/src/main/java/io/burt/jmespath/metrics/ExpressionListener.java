@@ -0,0 +1,56 @@
+package io.burt.jmespath.metrics;
+
+/**
+ * An expression listener is notified every time an expression compiled by
+ * a runtime configured with the listener is evaluated.
+ * <p>
+ * Implement this interface to bridge expression metrics to a metrics library,
+ * or use {@link MetricsCollector}, which keeps invocation counts and
+ * histograms per expression.
+ * <p>
+ * Listeners are called on the thread that performs the search, directly after
+ * the search has completed, and must be thread safe.
+ *
+ * @see io.burt.jmespath.RuntimeConfiguration.Builder#withExpressionListener
+ */
+public interface ExpressionListener {
+  /**
+   * A listener that does nothing. Runtimes configured with this listener, which
+   * is the default, don't instrument their expressions at all.
+   */
+  public static final ExpressionListener NONE = new ExpressionListener() {
+    @Override
+    public boolean measuresSizes() {
+      return false;
+    }
+
+    @Override
+    public void searchCompleted(String expression, long durationNanos, int inputSize, int outputSize) { }
+
+    @Override
+    public void searchFailed(String expression, long durationNanos, int inputSize, RuntimeException error) { }
+  };
+
+  /**
+   * Returns whether searches measure the sizes of their input and output.
+   * Measuring the size of an object lists its property names, which allocates
+   * with most runtimes, so listeners that don't use the sizes should return
+   * false. The sizes are then passed as -1.
+   */
+  boolean measuresSizes();
+
+  /**
+   * Called when a search completed successfully.
+   * <p>
+   * The sizes are the number of elements of arrays, the number of properties
+   * of objects, the length of strings, zero for null and one for all other
+   * values, or -1 when the listener doesn't measure sizes.
+   */
+  void searchCompleted(String expression, long durationNanos, int inputSize, int outputSize);
+
+  /**
+   * Called when a search failed by throwing an exception. The exception is
+   * rethrown after the listener returns.
+   */
+  void searchFailed(String expression, long durationNanos, int inputSize, RuntimeException error);
+}
@@ -0,0 +1,94 @@
+package io.burt.jmespath.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The metrics recorded by a {@link MetricsCollector} for a single expression.
+ * <p>
+ * All values are live, they change as the expression is evaluated.
+ */
+public class ExpressionMetrics {
+  private final String expression;
+  private final AtomicLong invocations;
+  private final AtomicLong errors;
+  private final Histogram latency;
+  private final Histogram inputSize;
+  private final Histogram outputSize;
+
+  public ExpressionMetrics(String expression) {
+    this.expression = expression;
+    this.invocations = new AtomicLong();
+    this.errors = new AtomicLong();
+    this.latency = new Histogram();
+    this.inputSize = new Histogram();
+    this.outputSize = new Histogram();
+  }
+
+  void recordSuccess(long durationNanos, int inputSize, int outputSize) {
+    invocations.incrementAndGet();
+    this.latency.record(durationNanos);
+    if (inputSize >= 0) {
+      this.inputSize.record(inputSize);
+      this.outputSize.record(outputSize);
+    }
+  }
+
+  void recordFailure(long durationNanos, int inputSize) {
+    invocations.incrementAndGet();
+    errors.incrementAndGet();
+    this.latency.record(durationNanos);
+    if (inputSize >= 0) {
+      this.inputSize.record(inputSize);
+    }
+  }
+
+  /** Returns the expression these metrics were recorded for */
+  public String expression() {
+    return expression;
+  }
+
+  /** Returns the number of times the expression has been evaluated, including failures */
+  public long invocations() {
+    return invocations.get();
+  }
+
+  /** Returns the number of evaluations that failed with an exception */
+  public long errors() {
+    return errors.get();
+  }
+
+  /** Returns the histogram of evaluation durations, in nanoseconds */
+  public Histogram latency() {
+    return latency;
+  }
+
+  /**
+   * Returns the histogram of input sizes, see
+   * {@link ExpressionListener#searchCompleted}, which is empty unless the
+   * collector measures sizes
+   */
+  public Histogram inputSize() {
+    return inputSize;
+  }
+
+  /**
+   * Returns the histogram of output sizes of successful evaluations, which is
+   * empty unless the collector measures sizes
+   */
+  public Histogram outputSize() {
+    return outputSize;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "ExpressionMetrics(%s, invocations=%d, errors=%d, p50=%dns, p99=%dns, max=%dns)",
+      expression,
+      invocations(),
+      errors(),
+      latency.valueAtPercentile(50),
+      latency.valueAtPercentile(99),
+      latency.max()
+    );
+  }
+}
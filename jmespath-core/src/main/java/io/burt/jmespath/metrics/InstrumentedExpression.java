@@ -0,0 +1,77 @@
+package io.burt.jmespath.metrics;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Wraps a compiled expression and reports the duration, input size and output
+ * size of each search to an {@link ExpressionListener}.
+ */
+public class InstrumentedExpression<T> implements Expression<T> {
+  private final Adapter<T> runtime;
+  private final String rawExpression;
+  private final Expression<T> expression;
+  private final ExpressionListener listener;
+  private final boolean measureSizes;
+
+  public InstrumentedExpression(Adapter<T> runtime, String rawExpression, Expression<T> expression, ExpressionListener listener) {
+    this.runtime = runtime;
+    this.rawExpression = rawExpression;
+    this.expression = expression;
+    this.listener = listener;
+    this.measureSizes = listener.measuresSizes();
+  }
+
+  /**
+   * Returns the wrapped expression.
+   */
+  public Expression<T> expression() {
+    return expression;
+  }
+
+  /**
+   * Returns an expression that wraps another expression, but reports to the
+   * same listener under the same expression string as this one.
+   */
+  public InstrumentedExpression<T> withExpression(Expression<T> expression) {
+    return new InstrumentedExpression<>(runtime, rawExpression, expression, listener);
+  }
+
+  @Override
+  public T search(T input) {
+    long start = System.nanoTime();
+    T result;
+    try {
+      result = expression.search(input);
+    } catch (RuntimeException e) {
+      listener.searchFailed(rawExpression, System.nanoTime() - start, sizeOf(input), e);
+      throw e;
+    }
+    long duration = System.nanoTime() - start;
+    listener.searchCompleted(rawExpression, duration, sizeOf(input), sizeOf(result));
+    return result;
+  }
+
+  private int sizeOf(T value) {
+    if (!measureSizes) {
+      return -1;
+    }
+    switch (runtime.typeOf(value)) {
+      case ARRAY:
+        return runtime.toList(value).size();
+      case OBJECT:
+        return runtime.getPropertyNames(value).size();
+      case STRING:
+        return runtime.toString(value).length();
+      case NULL:
+        return 0;
+      default:
+        return 1;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+}
@@ -0,0 +1,79 @@
+package io.burt.jmespath.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An expression listener that keeps invocation counts, error counts and
+ * histograms of latency, input size and output size for each expression.
+ * <p>
+ * The metrics can be read at any time, for example periodically by a reporter
+ * that forwards them to a monitoring system.
+ * <p>
+ * Input and output sizes are only measured when the collector is created with
+ * <code>measureSizes</code>, since measuring the size of an object allocates.
+ */
+public class MetricsCollector implements ExpressionListener {
+  private final ConcurrentMap<String, ExpressionMetrics> metrics;
+  private final boolean measureSizes;
+
+  public MetricsCollector() {
+    this(false);
+  }
+
+  public MetricsCollector(boolean measureSizes) {
+    this.metrics = new ConcurrentHashMap<>();
+    this.measureSizes = measureSizes;
+  }
+
+  @Override
+  public boolean measuresSizes() {
+    return measureSizes;
+  }
+
+  @Override
+  public void searchCompleted(String expression, long durationNanos, int inputSize, int outputSize) {
+    metricsFor(expression).recordSuccess(durationNanos, inputSize, outputSize);
+  }
+
+  @Override
+  public void searchFailed(String expression, long durationNanos, int inputSize, RuntimeException error) {
+    metricsFor(expression).recordFailure(durationNanos, inputSize);
+  }
+
+  private ExpressionMetrics metricsFor(String expression) {
+    ExpressionMetrics m = metrics.get(expression);
+    if (m == null) {
+      ExpressionMetrics newMetrics = new ExpressionMetrics(expression);
+      m = metrics.putIfAbsent(expression, newMetrics);
+      if (m == null) {
+        m = newMetrics;
+      }
+    }
+    return m;
+  }
+
+  /**
+   * Returns the metrics for the specified expression, or null if the expression
+   * has not been evaluated.
+   */
+  public ExpressionMetrics metrics(String expression) {
+    return metrics.get(expression);
+  }
+
+  /**
+   * Returns the metrics of all expressions that have been evaluated.
+   */
+  public Collection<ExpressionMetrics> allMetrics() {
+    return Collections.unmodifiableCollection(metrics.values());
+  }
+
+  /**
+   * Forgets all recorded metrics.
+   */
+  public void reset() {
+    metrics.clear();
+  }
+}
@@ -0,0 +1,119 @@
+package io.burt.jmespath.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.ProfiledNode;
+import io.burt.jmespath.node.ProfilingNodeFactory;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * An expression that records per-node evaluation counts, timings and element
+ * counts for a sample of its evaluations, and can render them as an annotated
+ * tree, similar to the output of <code>EXPLAIN ANALYZE</code> in a database.
+ * <p>
+ * The expression is compiled twice: once as usual, and once with every node
+ * wrapped in a {@link ProfiledNode}. Each evaluation picks the profiled variant
+ * with the configured probability, so with a low sample rate the cost for the
+ * remaining evaluations is a single random number.
+ */
+public class ProfiledExpression<T> implements Expression<T> {
+  private final String rawExpression;
+  private final Expression<T> expression;
+  private final ProfiledNode<T> profiledExpression;
+  private final double sampleRate;
+
+  private ProfiledExpression(String rawExpression, Expression<T> expression, ProfiledNode<T> profiledExpression, double sampleRate) {
+    this.rawExpression = rawExpression;
+    this.expression = expression;
+    this.profiledExpression = profiledExpression;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Compiles an expression that profiles all of its evaluations.
+   */
+  public static <U> ProfiledExpression<U> compile(Adapter<U> runtime, String expression) {
+    return compile(runtime, expression, 1.0);
+  }
+
+  /**
+   * Compiles an expression that profiles the specified fraction, between
+   * zero and one, of its evaluations.
+   */
+  public static <U> ProfiledExpression<U> compile(Adapter<U> runtime, String expression, double sampleRate) {
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new IllegalArgumentException(String.format("Sample rate must be between 0 and 1, was %f", sampleRate));
+    }
+    Expression<U> profiled = ExpressionParser.fromString(runtime, new ProfilingNodeFactory<U>(runtime), expression);
+    ProfiledNode<U> root;
+    if (profiled instanceof ProfiledNode) {
+      root = (ProfiledNode<U>) profiled;
+    } else {
+      root = new ProfiledNode<U>(runtime, "ExpressionReference", (Node<U>) profiled, Collections.<ProfiledNode<U>>emptyList(), false);
+    }
+    return new ProfiledExpression<U>(expression, runtime.compile(expression), root, sampleRate);
+  }
+
+  @Override
+  public T search(T input) {
+    if (sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+      return profiledExpression.search(input);
+    } else {
+      return expression.search(input);
+    }
+  }
+
+  /** Returns the root of the profiled node tree */
+  public ProfiledNode<T> root() {
+    return profiledExpression;
+  }
+
+  /** Returns the number of evaluations that have been profiled */
+  public long sampledInvocations() {
+    return profiledExpression.invocations();
+  }
+
+  /**
+   * Resets the recorded values of all nodes.
+   */
+  public void reset() {
+    profiledExpression.reset();
+  }
+
+  /**
+   * Returns the profiled node tree, one node per line, each annotated with the
+   * number of times it was evaluated, the total time spent evaluating it, the
+   * time spent in the node itself and, for projections, selections and
+   * flattens, the number of elements in and out.
+   */
+  public String explain() {
+    StringBuilder buffer = new StringBuilder(rawExpression).append('\n');
+    appendNode(buffer, profiledExpression, 1);
+    return buffer.toString();
+  }
+
+  private void appendNode(StringBuilder buffer, ProfiledNode<T> node, int depth) {
+    for (int i = 0; i < depth; i++) {
+      buffer.append("  ");
+    }
+    buffer.append(node.label());
+    buffer.append(String.format(Locale.ROOT, " calls=%d total=%.3fms self=%.3fms", node.invocations(), node.totalNanos() / 1e6, node.selfNanos() / 1e6));
+    if (node.countsElements()) {
+      buffer.append(String.format(Locale.ROOT, " in=%d out=%d", node.elementsIn(), node.elementsOut()));
+    }
+    buffer.append('\n');
+    for (ProfiledNode<T> child : node.children()) {
+      appendNode(buffer, child, depth + 1);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+}
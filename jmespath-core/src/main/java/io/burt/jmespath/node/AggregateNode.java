@@ -0,0 +1,80 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.function.AggregateFunction;
+
+/**
+ * A call to an aggregate function like <code>sum</code> or <code>max</code>
+ * whose argument is a projection, e.g. <code>sum(orders[*].amount)</code>.
+ * <p>
+ * Instead of building the projected array and then passing it to the function,
+ * the projected values are accumulated as they are produced. When a value is
+ * encountered that the function does not accept the whole call is evaluated
+ * again the regular way, so that type errors are reported exactly like they
+ * would be for any other function call.
+ */
+public class AggregateNode<T> extends FunctionCallNode<T> {
+  private final AggregateFunction implementation;
+  private final Expression<T> source;
+  private final Expression<T> projection;
+
+  public AggregateNode(Adapter<T> runtime, AggregateFunction implementation, List<? extends Expression<T>> args) {
+    super(runtime, implementation, args);
+    this.implementation = implementation;
+    Expression<T> arg = args.get(0);
+    if (arg instanceof ProjectionNode) {
+      this.source = null;
+      this.projection = ((ProjectionNode<T>) arg).projection();
+    } else {
+      List<Node<T>> nodes = ((SequenceNode<T>) arg).nodes();
+      int last = nodes.size() - 1;
+      this.source = last == 1 ? nodes.get(0) : new SequenceNode<>(runtime, nodes.subList(0, last));
+      this.projection = ((ProjectionNode<T>) nodes.get(last)).projection();
+    }
+  }
+
+  /**
+   * Returns true when the arguments consist of a single projection, or
+   * a single sequence that ends with a projection.
+   */
+  public static <U> boolean isAggregatable(List<? extends Expression<U>> args) {
+    if (args.size() == 1) {
+      Expression<U> arg = args.get(0);
+      if (arg instanceof ProjectionNode) {
+        return true;
+      } else if (arg instanceof SequenceNode) {
+        List<Node<U>> nodes = ((SequenceNode<U>) arg).nodes();
+        return nodes.size() > 1 && nodes.get(nodes.size() - 1) instanceof ProjectionNode;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public T search(T input) {
+    T projected = source == null ? input : source.search(input);
+    if (runtime.typeOf(projected) == JmesPathType.ARRAY) {
+      List<T> elements = runtime.toList(projected);
+      EvaluationBudget budget = EvaluationBudget.current();
+      if (budget != null) {
+        budget.chargeProjectedElements(elements.size());
+        budget.chargeNodeEvaluations(elements.size());
+      }
+      AggregateFunction.Accumulator<T> accumulator = implementation.createAccumulator(runtime);
+      for (T element : elements) {
+        T value = projection.search(element);
+        if (runtime.typeOf(value) != JmesPathType.NULL && !accumulator.accumulate(value)) {
+          return super.search(input);
+        }
+      }
+      return accumulator.result();
+    } else {
+      return super.search(input);
+    }
+  }
+}
@@ -4,20 +4,43 @@ import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
 
+/**
+ * Base class for the comparison operators.
+ * <p>
+ * When one of the operands is a literal it is evaluated once, when the node is
+ * created, and numbers and strings from the other operand are compared with
+ * it as a <code>double</code> or a {@link String}, the same way
+ * {@link io.burt.jmespath.BaseRuntime#compare} would compare them, without
+ * going through the runtime.
+ */
 public abstract class ComparisonNode<T> extends OperatorNode<T> {
+  private final T trueValue;
+  private final T falseValue;
+  private final Expression<T> variableOperand;
+  private final boolean constantOnLeft;
+  private final T constant;
+  private final JmesPathType constantType;
+  private final double constantNumber;
+  private final String constantString;
+
   public static class EqualsNode<T> extends ComparisonNode<T> {
     public EqualsNode(Adapter<T> runtime, Expression<T> left, Expression<T> right) {
       super(runtime, left, right);
     }
 
+    @Override
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult == 0;
+    }
+
     @Override
     protected T compareObjects(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) == 0);
+      return booleanValue(isTrueFor(comparisonResult(leftResult, rightResult)));
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) == 0);
+    protected T compareStrings(String leftResult, String rightResult) {
+      return booleanValue(leftResult.equals(rightResult));
     }
 
     @Override
@@ -31,14 +54,19 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
       super(runtime, left, right);
     }
 
+    @Override
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult != 0;
+    }
+
     @Override
     protected T compareObjects(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) != 0);
+      return booleanValue(isTrueFor(comparisonResult(leftResult, rightResult)));
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) != 0);
+    protected T compareStrings(String leftResult, String rightResult) {
+      return booleanValue(!leftResult.equals(rightResult));
     }
 
     @Override
@@ -53,8 +81,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) > 0);
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult > 0;
     }
 
     @Override
@@ -69,8 +97,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) >= 0);
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult >= 0;
     }
 
     @Override
@@ -85,8 +113,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) < 0);
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult < 0;
     }
 
     @Override
@@ -101,8 +129,8 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     }
 
     @Override
-    protected T compareNumbers(T leftResult, T rightResult) {
-      return runtime.createBoolean(comparisonResult(leftResult, rightResult) <= 0);
+    protected boolean isTrueFor(int comparisonResult) {
+      return comparisonResult <= 0;
     }
 
     @Override
@@ -113,6 +141,41 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
   protected ComparisonNode(Adapter<T> runtime, Expression<T> left, Expression<T> right) {
     super(runtime, left, right);
+    this.trueValue = runtime.createBoolean(true);
+    this.falseValue = runtime.createBoolean(false);
+    Expression<T> constantOperand;
+    if (isLiteral(right)) {
+      this.variableOperand = left;
+      this.constantOnLeft = false;
+      constantOperand = right;
+    } else if (isLiteral(left)) {
+      this.variableOperand = right;
+      this.constantOnLeft = true;
+      constantOperand = left;
+    } else {
+      this.variableOperand = null;
+      this.constantOnLeft = false;
+      constantOperand = null;
+    }
+    if (constantOperand == null) {
+      this.constant = null;
+      this.constantType = null;
+      this.constantNumber = 0;
+      this.constantString = null;
+    } else {
+      this.constant = constantOperand.search(runtime.createNull());
+      this.constantType = runtime.typeOf(constant);
+      this.constantNumber = constantType == JmesPathType.NUMBER ? runtime.toNumber(constant).doubleValue() : 0;
+      this.constantString = constantType == JmesPathType.STRING ? runtime.toString(constant) : null;
+    }
+  }
+
+  /**
+   * Returns true when the expression always evaluates to the same value, no
+   * matter the input.
+   */
+  static boolean isLiteral(Expression<?> expression) {
+    return expression instanceof JsonLiteralNode || expression instanceof StringNode;
   }
 
   public static <U> Node<U> create(Adapter<U> runtime, Operator operator, Expression<U> left, Expression<U> right) {
@@ -136,8 +199,26 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
 
   @Override
   public T search(T input) {
-    T leftResult = operand(0).search(input);
-    T rightResult = operand(1).search(input);
+    if (variableOperand == null) {
+      return compareResults(operand(0).search(input), operand(1).search(input));
+    }
+    T result = variableOperand.search(input);
+    if (constantType == JmesPathType.NUMBER || constantType == JmesPathType.STRING) {
+      JmesPathType type = runtime.typeOf(result);
+      if (type == constantType) {
+        if (type == JmesPathType.NUMBER) {
+          double number = runtime.toNumber(result).doubleValue();
+          return booleanValue(isTrueFor(constantOnLeft ? Double.compare(constantNumber, number) : Double.compare(number, constantNumber)));
+        } else {
+          String string = runtime.toString(result);
+          return constantOnLeft ? compareStrings(constantString, string) : compareStrings(string, constantString);
+        }
+      }
+    }
+    return constantOnLeft ? compareResults(constant, result) : compareResults(result, constant);
+  }
+
+  private T compareResults(T leftResult, T rightResult) {
     JmesPathType leftType = runtime.typeOf(leftResult);
     JmesPathType rightType = runtime.typeOf(rightResult);
     if (leftType == JmesPathType.NUMBER && rightType == JmesPathType.NUMBER) {
@@ -151,11 +232,33 @@ public abstract class ComparisonNode<T> extends OperatorNode<T> {
     return runtime.compare(leftResult, rightResult);
   }
 
+  /**
+   * Returns the boolean value for the result, without creating a new value.
+   */
+  protected T booleanValue(boolean b) {
+    return b ? trueValue : falseValue;
+  }
+
+  /**
+   * Returns whether the operator holds for operands that compare as the
+   * specified result of {@link java.util.Comparator#compare}.
+   */
+  protected abstract boolean isTrueFor(int comparisonResult);
+
   protected T compareObjects(T leftResult, T rightResult) {
     return runtime.createNull();
   }
 
-  protected abstract T compareNumbers(T leftResult, T rightResult);
+  protected T compareNumbers(T leftResult, T rightResult) {
+    return booleanValue(isTrueFor(comparisonResult(leftResult, rightResult)));
+  }
+
+  /**
+   * Compares two strings, which only the equality operators do.
+   */
+  protected T compareStrings(String leftResult, String rightResult) {
+    return runtime.createNull();
+  }
 
   @Override
   protected String internalToString() {
@@ -4,8 +4,10 @@ import java.util.List;
 import java.util.ArrayList;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.limits.EvaluationBudget;
 
 public class CreateArrayNode<T> extends Node<T> {
   private final List<Expression<T>> entries;
@@ -20,11 +22,16 @@ public class CreateArrayNode<T> extends Node<T> {
     if (runtime.typeOf(input) == JmesPathType.NULL) {
       return input;
     } else {
-      List<T> array = new ArrayList<>(entries.size());
+      EvaluationBudget budget = EvaluationBudget.current();
+      if (budget != null) {
+        budget.chargeNodeEvaluations(entries.size());
+        budget.chargeResultElements(entries.size());
+      }
+      ArrayBuilder<T> array = runtime.arrayBuilder(entries.size());
       for (Expression<T> entry : entries) {
         array.add(entry.search(input));
       }
-      return runtime.createArray(array);
+      return array.build();
     }
   }
 
@@ -1,15 +1,17 @@
 package io.burt.jmespath.node;
 
-import java.util.Map;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.ObjectBuilder;
+import io.burt.jmespath.limits.EvaluationBudget;
 
 public class CreateObjectNode<T> extends Node<T> {
   private final List<Entry<T>> entries;
+  private final List<T> keys;
 
   public static class Entry<U> {
     private final String key;
@@ -20,11 +22,11 @@ public class CreateObjectNode<T> extends Node<T> {
       this.value = value;
     }
 
-    protected String key() {
+    public String key() {
       return key;
     }
 
-    protected Expression<U> value() {
+    public Expression<U> value() {
       return value;
     }
 
@@ -52,6 +54,10 @@ public class CreateObjectNode<T> extends Node<T> {
   public CreateObjectNode(Adapter<T> runtime, List<Entry<T>> entries) {
     super(runtime);
     this.entries = entries;
+    this.keys = new ArrayList<>(entries.size());
+    for (Entry<T> entry : entries) {
+      keys.add(runtime.createString(entry.key()));
+    }
   }
 
   @Override
@@ -59,11 +65,28 @@ public class CreateObjectNode<T> extends Node<T> {
     if (runtime.typeOf(input) == JmesPathType.NULL) {
       return input;
     } else {
-      Map<T, T> object = new LinkedHashMap<>();
-      for (Entry<T> entry : entries) {
-        object.put(runtime.createString(entry.key()), entry.value().search(input));
+      chargeBudget();
+      ObjectBuilder<T> object = runtime.objectBuilder(entries.size());
+      for (int i = 0; i < entries.size(); i++) {
+        object.put(keys.get(i), entries.get(i).value().search(input));
       }
-      return runtime.createObject(object);
+      return object.build();
+    }
+  }
+
+  protected List<Entry<T>> entries() {
+    return entries;
+  }
+
+  /**
+   * Charges the budget of the search, if any, for evaluating the entries and
+   * for the entries of the created object.
+   */
+  protected void chargeBudget() {
+    EvaluationBudget budget = EvaluationBudget.current();
+    if (budget != null) {
+      budget.chargeNodeEvaluations(entries.size());
+      budget.chargeResultElements(entries.size());
     }
   }
 
@@ -16,6 +16,10 @@ public class ExpressionReferenceNode<T> extends Node<T> {
     return expression.search(input);
   }
 
+  protected Expression<T> expression() {
+    return expression;
+  }
+
   @Override
   public String toString() {
     return String.format("ExpressionReference(%s)", expression.toString());
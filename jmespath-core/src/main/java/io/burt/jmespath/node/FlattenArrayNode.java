@@ -1,10 +1,13 @@
 package io.burt.jmespath.node;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.LinkedList;
+import java.util.RandomAccess;
 
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.util.ListViews;
 
 public class FlattenArrayNode<T> extends Node<T> {
   public FlattenArrayNode(Adapter<T> runtime) {
@@ -15,13 +18,35 @@ public class FlattenArrayNode<T> extends Node<T> {
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.ARRAY) {
       List<T> elements = runtime.toList(input);
-      List<T> flattened = new LinkedList<>();
+      EvaluationBudget budget = EvaluationBudget.current();
+      if (budget != null) {
+        budget.chargeProjectedElements(elements.size());
+      }
+      if (!(elements instanceof RandomAccess)) {
+        elements = new ArrayList<>(elements);
+      }
+      List<List<T>> segments = new ArrayList<>();
+      int runStart = 0;
+      int i = 0;
       for (T element : elements) {
         if (runtime.typeOf(element) == JmesPathType.ARRAY) {
-          flattened.addAll(runtime.toList(element));
-        } else {
-          flattened.add(element);
+          if (runStart < i) {
+            segments.add(ListViews.slice(elements, runStart, 1, i - runStart));
+          }
+          List<T> nestedElements = runtime.toList(element);
+          if (!nestedElements.isEmpty()) {
+            segments.add(nestedElements);
+          }
+          runStart = i + 1;
         }
+        i++;
+      }
+      if (runStart < elements.size()) {
+        segments.add(ListViews.slice(elements, runStart, 1, elements.size() - runStart));
+      }
+      List<T> flattened = ListViews.concatenate(segments);
+      if (budget != null) {
+        budget.chargeResultElements(flattened.size());
       }
       return runtime.createArray(flattened);
     } else {
@@ -7,6 +7,7 @@ import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.function.Function;
 import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.limits.EvaluationBudget;
 
 public class FunctionCallNode<T> extends Node<T> {
   private final Function implementation;
@@ -28,7 +29,47 @@ public class FunctionCallNode<T> extends Node<T> {
         arguments.add(FunctionArgument.of(arg.search(input)));
       }
     }
-    return implementation.call(runtime, arguments);
+    EvaluationBudget budget = EvaluationBudget.current();
+    if (budget == null) {
+      return implementation.call(runtime, arguments);
+    } else {
+      return limitedCall(arguments, budget);
+    }
+  }
+
+  /**
+   * Charges the budget for the elements of the array and object arguments
+   * before calling the function, since that is what functions iterate over,
+   * and for the elements of the result after.
+   */
+  private T limitedCall(List<FunctionArgument<T>> arguments, EvaluationBudget budget) {
+    int elements = 0;
+    boolean hasExpression = false;
+    for (FunctionArgument<T> argument : arguments) {
+      if (argument.isExpression()) {
+        hasExpression = true;
+      } else {
+        elements += sizeOf(argument.value());
+      }
+    }
+    budget.chargeProjectedElements(elements);
+    if (hasExpression) {
+      budget.chargeNodeEvaluations(elements);
+    }
+    T result = implementation.call(runtime, arguments);
+    budget.chargeResultElements(sizeOf(result));
+    return result;
+  }
+
+  private int sizeOf(T value) {
+    switch (runtime.typeOf(value)) {
+      case ARRAY:
+        return runtime.toList(value).size();
+      case OBJECT:
+        return runtime.getPropertyNames(value).size();
+      default:
+        return 0;
+    }
   }
 
   @Override
@@ -0,0 +1,65 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.util.ValueKey;
+
+/**
+ * A selection whose test is an equality comparison with a literal, e.g.
+ * <code>[?id == 'u-123']</code>, that looks up the matching elements in an
+ * index kept by an {@link IndexCache} instead of testing every element.
+ * <p>
+ * Arrays that the cache declines to index are scanned like in any other
+ * selection.
+ */
+public class IndexedSelectionNode<T> extends SelectionNode<T> {
+  private final IndexCache indexCache;
+  private final Expression<T> keyExpression;
+  private final Expression<T> literal;
+
+  public IndexedSelectionNode(Adapter<T> runtime, Expression<T> test, IndexCache indexCache) {
+    super(runtime, test);
+    this.indexCache = indexCache;
+    ComparisonNode<T> comparison = (ComparisonNode<T>) test;
+    if (ComparisonNode.isLiteral(comparison.operand(1))) {
+      this.keyExpression = comparison.operand(0);
+      this.literal = comparison.operand(1);
+    } else {
+      this.keyExpression = comparison.operand(1);
+      this.literal = comparison.operand(0);
+    }
+  }
+
+  /**
+   * Returns true when the test is an equality comparison between a literal
+   * and something that is not a literal.
+   */
+  public static <U> boolean isIndexable(Expression<U> test) {
+    if (test instanceof ComparisonNode.EqualsNode) {
+      ComparisonNode<U> comparison = (ComparisonNode<U>) test;
+      return ComparisonNode.isLiteral(comparison.operand(0)) != ComparisonNode.isLiteral(comparison.operand(1));
+    }
+    return false;
+  }
+
+  @Override
+  public T search(T input) {
+    if (runtime.typeOf(input) == JmesPathType.ARRAY) {
+      Object key = ValueKey.of(runtime, literal.search(input));
+      List<T> selectedElements = indexCache.lookup(runtime, input, keyExpression, key);
+      if (selectedElements != null) {
+        EvaluationBudget budget = EvaluationBudget.current();
+        if (budget != null) {
+          budget.chargeResultElements(selectedElements.size());
+        }
+        return runtime.createArray(selectedElements);
+      }
+    }
+    return super.search(input);
+  }
+}
@@ -1,15 +1,44 @@
 package io.burt.jmespath.node;
 
+import java.io.IOException;
+
 import io.burt.jmespath.Adapter;
 
 public class JsonLiteralNode<T> extends Node<T> {
-  private final String rawValue;
+  private String rawValue;
   private final T value;
 
   public JsonLiteralNode(Adapter<T> runtime, String rawValue) {
+    this(runtime, rawValue, runtime.parseString(rawValue));
+  }
+
+  private JsonLiteralNode(Adapter<T> runtime, String rawValue, T value) {
     super(runtime);
     this.rawValue = rawValue;
-    this.value = runtime.parseString(rawValue);
+    this.value = value;
+  }
+
+  /**
+   * Creates a literal of a value that is already parsed, for example the
+   * result of a call that was evaluated when the expression was compiled. The
+   * JSON text of the value is only produced if the node is printed or
+   * compared.
+   */
+  public static <U> JsonLiteralNode<U> of(Adapter<U> runtime, U value) {
+    return new JsonLiteralNode<>(runtime, null, value);
+  }
+
+  private String rawValue() {
+    if (rawValue == null) {
+      StringBuilder json = new StringBuilder();
+      try {
+        runtime.writeJson(value, json);
+      } catch (IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+      rawValue = json.toString();
+    }
+    return rawValue;
   }
 
   @Override
@@ -19,17 +48,17 @@ public class JsonLiteralNode<T> extends Node<T> {
 
   @Override
   protected String internalToString() {
-    return rawValue;
+    return rawValue();
   }
 
   @Override
   protected boolean internalEquals(Object o) {
     JsonLiteralNode<?> other = (JsonLiteralNode<?>) o;
-    return rawValue.equals(other.rawValue);
+    return rawValue().equals(other.rawValue());
   }
 
   @Override
   protected int internalHashCode() {
-    return rawValue.hashCode();
+    return rawValue().hashCode();
   }
 }
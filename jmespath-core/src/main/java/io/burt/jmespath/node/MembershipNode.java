@@ -0,0 +1,62 @@
+package io.burt.jmespath.node;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.util.ValueKey;
+
+/**
+ * A call to <code>contains</code> whose first argument is a literal array, e.g.
+ * <code>contains(`["us-east-1", "eu-west-1"]`, region)</code>.
+ * <p>
+ * The elements of the array are converted to {@link ValueKey}s once, when the
+ * node is created, so that looking up the second argument is a hash lookup
+ * that uses JMESPath equality, instead of a scan of the array.
+ * <p>
+ * When the search has an evaluation budget each lookup is charged as one node
+ * evaluation, which also checks whether the search has been cancelled.
+ */
+public class MembershipNode<T> extends FunctionCallNode<T> {
+  private final Set<Object> keys;
+  private final Expression<T> needle;
+  private final T trueValue;
+  private final T falseValue;
+
+  public MembershipNode(Adapter<T> runtime, Function implementation, List<? extends Expression<T>> args) {
+    super(runtime, implementation, args);
+    List<T> elements = runtime.toList(args.get(0).search(runtime.createNull()));
+    this.keys = new HashSet<>(elements.size() * 2);
+    for (T element : elements) {
+      keys.add(ValueKey.of(runtime, element));
+    }
+    this.needle = args.get(1);
+    this.trueValue = runtime.createBoolean(true);
+    this.falseValue = runtime.createBoolean(false);
+  }
+
+  /**
+   * Returns true when the first of the arguments to <code>contains</code> is
+   * a literal array and the second is not an expression reference.
+   */
+  public static <U> boolean isApplicable(Adapter<U> runtime, List<? extends Expression<U>> args) {
+    return args.size() == 2
+      && args.get(0) instanceof JsonLiteralNode
+      && runtime.typeOf(args.get(0).search(runtime.createNull())) == JmesPathType.ARRAY
+      && !(args.get(1) instanceof ExpressionReferenceNode);
+  }
+
+  @Override
+  public T search(T input) {
+    EvaluationBudget budget = EvaluationBudget.current();
+    if (budget != null) {
+      budget.chargeNodeEvaluations(1);
+    }
+    return keys.contains(ValueKey.of(runtime, needle.search(input))) ? trueValue : falseValue;
+  }
+}
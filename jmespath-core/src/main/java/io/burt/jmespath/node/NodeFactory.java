@@ -47,5 +47,7 @@ public interface NodeFactory<T> {
 
   Node<T> createJsonLiteral(String json);
 
+  Node<T> createVariable(String name);
+
   Node<T> createSequence(List<Node<T>> nodes);
 }
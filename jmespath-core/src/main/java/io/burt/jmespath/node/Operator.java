@@ -1,12 +1,26 @@
 package io.burt.jmespath.node;
 
 public enum Operator {
-  EQUALS,
-  NOT_EQUALS,
-  GREATER_THAN,
-  GREATER_THAN_OR_EQUALS,
-  LESS_THAN,
-  LESS_THAN_OR_EQUALS;
+  EQUALS("=="),
+  NOT_EQUALS("!="),
+  GREATER_THAN(">"),
+  GREATER_THAN_OR_EQUALS(">="),
+  LESS_THAN("<"),
+  LESS_THAN_OR_EQUALS("<=");
+
+  private final String token;
+
+  private Operator(String token) {
+    this.token = token;
+  }
+
+  /**
+   * Returns the operator as it is written in expressions, the inverse of
+   * {@link #fromString}.
+   */
+  public String token() {
+    return token;
+  }
 
   public static Operator fromString(String str) {
     if ("==".equals(str)) {
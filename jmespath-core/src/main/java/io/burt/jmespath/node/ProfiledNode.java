@@ -0,0 +1,179 @@
+package io.burt.jmespath.node;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * Wraps another node and records how many times it is evaluated and how much
+ * time is spent evaluating it, both in total and in the node itself, excluding
+ * the time spent in its (profiled) children.
+ * <p>
+ * Nodes that iterate over arrays or objects, like projections and selections,
+ * also record the number of elements of the arrays they receive and produce.
+ * Objects are not counted, since listing their values copies them with some
+ * runtimes.
+ * <p>
+ * Profiled nodes are created by {@link ProfilingNodeFactory}, and are safe to
+ * evaluate from multiple threads at the same time.
+ */
+public class ProfiledNode<T> extends Node<T> {
+  private static final ThreadLocal<ChildTimes> childTimes = new ThreadLocal<ChildTimes>() {
+    @Override
+    protected ChildTimes initialValue() {
+      return new ChildTimes();
+    }
+  };
+
+  private final String label;
+  private final Node<T> node;
+  private final List<ProfiledNode<T>> children;
+  private final boolean countsElements;
+  private final AtomicLong invocations;
+  private final AtomicLong totalNanos;
+  private final AtomicLong selfNanos;
+  private final AtomicLong elementsIn;
+  private final AtomicLong elementsOut;
+
+  public ProfiledNode(Adapter<T> runtime, String label, Node<T> node, List<ProfiledNode<T>> children, boolean countsElements) {
+    super(runtime);
+    this.label = label;
+    this.node = node;
+    this.children = children;
+    this.countsElements = countsElements;
+    this.invocations = new AtomicLong();
+    this.totalNanos = new AtomicLong();
+    this.selfNanos = new AtomicLong();
+    this.elementsIn = new AtomicLong();
+    this.elementsOut = new AtomicLong();
+  }
+
+  @Override
+  public T search(T input) {
+    ChildTimes times = childTimes.get();
+    int depth = times.enter();
+    long start = System.nanoTime();
+    T result;
+    try {
+      result = node.search(input);
+    } finally {
+      long duration = System.nanoTime() - start;
+      long childDuration = times.exit(depth, duration);
+      invocations.incrementAndGet();
+      totalNanos.addAndGet(duration);
+      selfNanos.addAndGet(duration - childDuration);
+    }
+    if (countsElements) {
+      elementsIn.addAndGet(size(input));
+      elementsOut.addAndGet(size(result));
+    }
+    return result;
+  }
+
+  private int size(T value) {
+    if (runtime.typeOf(value) == JmesPathType.ARRAY) {
+      return runtime.toList(value).size();
+    } else {
+      return 0;
+    }
+  }
+
+  /** Returns a short description of the wrapped node, without its children */
+  public String label() {
+    return label;
+  }
+
+  /** Returns the wrapped node */
+  public Node<T> node() {
+    return node;
+  }
+
+  /** Returns the profiled nodes directly below this node */
+  public List<ProfiledNode<T>> children() {
+    return children;
+  }
+
+  /** Returns true when this node records the number of elements in and out */
+  public boolean countsElements() {
+    return countsElements;
+  }
+
+  public long invocations() {
+    return invocations.get();
+  }
+
+  public long totalNanos() {
+    return totalNanos.get();
+  }
+
+  public long selfNanos() {
+    return selfNanos.get();
+  }
+
+  public long elementsIn() {
+    return elementsIn.get();
+  }
+
+  public long elementsOut() {
+    return elementsOut.get();
+  }
+
+  /**
+   * Resets the recorded values of this node and all of its children.
+   */
+  public void reset() {
+    invocations.set(0);
+    totalNanos.set(0);
+    selfNanos.set(0);
+    elementsIn.set(0);
+    elementsOut.set(0);
+    for (ProfiledNode<T> child : children) {
+      child.reset();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return node.toString();
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    ProfiledNode<?> other = (ProfiledNode<?>) o;
+    return node.equals(other.node);
+  }
+
+  @Override
+  protected int internalHashCode() {
+    return node.hashCode();
+  }
+
+  /**
+   * Keeps track of the time spent in children, per nesting level, for the
+   * profiled nodes currently being evaluated on a thread.
+   */
+  private static class ChildTimes {
+    private long[] times = new long[16];
+    private int depth = 0;
+
+    public int enter() {
+      if (depth == times.length) {
+        long[] newTimes = new long[times.length * 2];
+        System.arraycopy(times, 0, newTimes, 0, times.length);
+        times = newTimes;
+      }
+      times[depth] = 0;
+      return depth++;
+    }
+
+    public long exit(int level, long duration) {
+      depth = level;
+      if (level > 0) {
+        times[level - 1] += duration;
+      }
+      return times[level];
+    }
+  }
+}
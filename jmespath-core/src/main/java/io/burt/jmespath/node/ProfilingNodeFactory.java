@@ -0,0 +1,176 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+
+/**
+ * A node factory that wraps every node created by another factory in a
+ * {@link ProfiledNode}, producing an expression that records evaluation counts,
+ * timings and element counts for each of its nodes.
+ * <p>
+ * Expression references are not wrapped, since functions like
+ * <code>sort_by</code> need to see them as they are, but the nodes of the
+ * referenced expression are.
+ * <p>
+ * Optimizations that look at the types of the nodes they are given are not
+ * applied to profiled expressions, since those nodes are all profiled nodes.
+ * This includes fusing aggregate functions with projections, index lookups
+ * for equality filters, comparisons against literal operands, hashed
+ * <code>contains</code> lookups and functions specializing their calls, so
+ * the timings show the unoptimized evaluation.
+ */
+public class ProfilingNodeFactory<T> implements NodeFactory<T> {
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> delegate;
+
+  public ProfilingNodeFactory(Adapter<T> runtime) {
+    this(runtime, runtime.nodeFactory());
+  }
+
+  public ProfilingNodeFactory(Adapter<T> runtime, NodeFactory<T> delegate) {
+    this.runtime = runtime;
+    this.delegate = delegate;
+  }
+
+  private Node<T> profile(String label, Node<T> node, List<? extends Expression<T>> children, boolean countsElements) {
+    List<ProfiledNode<T>> profiledChildren = new ArrayList<>(children.size());
+    for (Expression<T> child : children) {
+      addProfiledNode(child, profiledChildren);
+    }
+    return new ProfiledNode<T>(runtime, label, node, Collections.unmodifiableList(profiledChildren), countsElements);
+  }
+
+  private Node<T> profile(String label, Node<T> node) {
+    return profile(label, node, Collections.<Expression<T>>emptyList(), false);
+  }
+
+  private List<Expression<T>> pair(Expression<T> left, Expression<T> right) {
+    List<Expression<T>> pair = new ArrayList<>(2);
+    pair.add(left);
+    pair.add(right);
+    return pair;
+  }
+
+  private void addProfiledNode(Expression<T> expression, List<ProfiledNode<T>> profiledNodes) {
+    if (expression instanceof ProfiledNode) {
+      profiledNodes.add((ProfiledNode<T>) expression);
+    } else if (expression instanceof ExpressionReferenceNode) {
+      addProfiledNode(((ExpressionReferenceNode<T>) expression).expression(), profiledNodes);
+    }
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return profile("Current", delegate.createCurrent());
+  }
+
+  @Override
+  public Node<T> createProperty(String name) {
+    return profile(String.format("Property(%s)", name), delegate.createProperty(name));
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return profile(String.format("Index(%d)", index), delegate.createIndex(index));
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return profile(String.format("Slice(%s, %s, %s)", start, stop, step), delegate.createSlice(start, stop, step));
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return profile("Projection", delegate.createProjection(expression), Collections.singletonList(expression), true);
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return profile("FlattenArray", delegate.createFlattenArray(), Collections.<Expression<T>>emptyList(), true);
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return profile("FlattenObject", delegate.createFlattenObject(), Collections.<Expression<T>>emptyList(), true);
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return profile("Selection", delegate.createSelection(test), Collections.singletonList(test), true);
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return profile(String.format("Comparison(%s)", operator), delegate.createComparison(operator, left, right), pair(left, right), false);
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return profile("Or", delegate.createOr(left, right), pair(left, right), false);
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return profile("And", delegate.createAnd(left, right), pair(left, right), false);
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    return profile(String.format("FunctionCall(%s)", functionName), delegate.createFunctionCall(functionName, args), args, false);
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    String name = function == null ? null : function.name();
+    return profile(String.format("FunctionCall(%s)", name), delegate.createFunctionCall(function, args), args, false);
+  }
+
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return delegate.createExpressionReference(expression);
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return profile(String.format("String(%s)", str), delegate.createString(str));
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return profile("Negate", delegate.createNegate(negated), Collections.singletonList(negated), false);
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    List<Expression<T>> values = new ArrayList<>(entries.size());
+    for (CreateObjectNode.Entry<T> entry : entries) {
+      values.add(entry.value());
+    }
+    return profile("CreateObject", delegate.createCreateObject(entries), values, false);
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> entries) {
+    return profile("CreateArray", delegate.createCreateArray(entries), entries, false);
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return profile(String.format("JsonLiteral(%s)", json), delegate.createJsonLiteral(json));
+  }
+
+  @Override
+  public Node<T> createVariable(String name) {
+    return profile(String.format("Variable($%s)", name), delegate.createVariable(name));
+  }
+
+  @Override
+  public Node<T> createSequence(List<Node<T>> nodes) {
+    return profile("Sequence", delegate.createSequence(nodes), nodes, false);
+  }
+}
@@ -1,11 +1,12 @@
 package io.burt.jmespath.node;
 
 import java.util.List;
-import java.util.ArrayList;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.limits.EvaluationBudget;
 
 public class ProjectionNode<T> extends Node<T> {
   private final Expression<T> projection;
@@ -19,20 +20,57 @@ public class ProjectionNode<T> extends Node<T> {
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.ARRAY) {
       List<T> inputList = runtime.toList(input);
-      List<T> results = new ArrayList<>(inputList.size());
+      EvaluationBudget budget = chargeProjection(inputList.size());
+      ArrayBuilder<T> results = runtime.arrayBuilder(inputList.size());
+      int resultCount = 0;
       for (T inputItem : inputList) {
+        checkpoint(budget);
         T result = projection.search(inputItem);
         JmesPathType type = runtime.typeOf(result);
         if (type != JmesPathType.NULL) {
           results.add(result);
+          resultCount++;
         }
       }
-      return runtime.createArray(results);
+      chargeResults(budget, resultCount);
+      return results.build();
     } else {
       return runtime.createNull();
     }
   }
 
+  protected Expression<T> projection() {
+    return projection;
+  }
+
+  /**
+   * Charges the budget of the current search, if there is one, for projecting
+   * an array with the specified number of elements, and returns the budget,
+   * or null. Subclasses that iterate over the elements themselves pass it to
+   * {@link #checkpoint} before each element and to {@link #chargeResults}
+   * when they are done.
+   */
+  protected static EvaluationBudget chargeProjection(int size) {
+    EvaluationBudget budget = EvaluationBudget.current();
+    if (budget != null) {
+      budget.chargeProjectedElements(size);
+      budget.chargeNodeEvaluations(size);
+    }
+    return budget;
+  }
+
+  protected static void checkpoint(EvaluationBudget budget) {
+    if (budget != null) {
+      budget.checkpoint();
+    }
+  }
+
+  protected static void chargeResults(EvaluationBudget budget, int resultCount) {
+    if (budget != null) {
+      budget.chargeResultElements(resultCount);
+    }
+  }
+
   @Override
   protected String internalToString() {
     return projection.toString();
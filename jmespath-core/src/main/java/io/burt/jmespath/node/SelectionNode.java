@@ -1,11 +1,12 @@
 package io.burt.jmespath.node;
 
 import java.util.List;
-import java.util.LinkedList;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.limits.EvaluationBudget;
 
 public class SelectionNode<T> extends Node<T> {
   private final Expression<T> test;
@@ -18,14 +19,28 @@ public class SelectionNode<T> extends Node<T> {
   @Override
   public T search(T input) {
     if (runtime.typeOf(input) == JmesPathType.ARRAY) {
-      List<T> selectedElements = new LinkedList<>();
-      for (T element : runtime.toList(input)) {
+      List<T> elements = runtime.toList(input);
+      EvaluationBudget budget = EvaluationBudget.current();
+      if (budget != null) {
+        budget.chargeProjectedElements(elements.size());
+        budget.chargeNodeEvaluations(elements.size());
+      }
+      ArrayBuilder<T> selectedElements = runtime.arrayBuilder(0);
+      int selectedCount = 0;
+      for (T element : elements) {
+        if (budget != null) {
+          budget.checkpoint();
+        }
         T testResult = test.search(element);
         if (runtime.isTruthy(testResult)) {
           selectedElements.add(element);
+          selectedCount++;
         }
       }
-      return runtime.createArray(selectedElements);
+      if (budget != null) {
+        budget.chargeResultElements(selectedCount);
+      }
+      return selectedElements.build();
     } else {
       return runtime.createNull();
     }
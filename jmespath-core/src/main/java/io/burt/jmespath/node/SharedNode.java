@@ -0,0 +1,61 @@
+package io.burt.jmespath.node;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Wraps a node that is shared between the expressions compiled by a
+ * {@link SharingNodeFactory}, and remembers its result for the input of the
+ * current search, so that it is only evaluated once per input.
+ * <p>
+ * Results are only remembered when the node is evaluated with the very input
+ * the search was started with, which is what makes it possible to share the
+ * common prefixes of paths like <code>detail.user.id</code> and
+ * <code>detail.user.roles[*]</code>. Nodes that are never evaluated with that
+ * input, for example because they are part of a projection, don't even look.
+ */
+public class SharedNode<T> extends Node<T> {
+  private final SharingNodeFactory<T> factory;
+  private final Node<T> node;
+  private final int slot;
+  private boolean evaluatedWithSearchInput;
+
+  SharedNode(Adapter<T> runtime, SharingNodeFactory<T> factory, Node<T> node, int slot) {
+    super(runtime);
+    this.factory = factory;
+    this.node = node;
+    this.slot = slot;
+  }
+
+  protected Node<T> node() {
+    return node;
+  }
+
+  void evaluatedWithSearchInput() {
+    evaluatedWithSearchInput = true;
+  }
+
+  @Override
+  public T search(T input) {
+    if (evaluatedWithSearchInput) {
+      return factory.sharedSearch(node, slot, input);
+    } else {
+      return node.search(input);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return node.toString();
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    SharedNode<?> other = (SharedNode<?>) o;
+    return node.equals(other.node);
+  }
+
+  @Override
+  protected int internalHashCode() {
+    return node.hashCode();
+  }
+}
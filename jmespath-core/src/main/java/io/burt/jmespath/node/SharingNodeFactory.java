@@ -0,0 +1,274 @@
+package io.burt.jmespath.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.limits.LimitedExpression;
+import io.burt.jmespath.metrics.InstrumentedExpression;
+
+/**
+ * A node factory for compiling a set of expressions that will be evaluated
+ * against the same inputs, so that they can share the evaluation of their
+ * common parts.
+ * <p>
+ * All nodes are interned, so equal sub-expressions of different expressions
+ * become the same instance. Sequences like <code>a.b.c</code> are built as
+ * nested pairs, <code>((a.b).c)</code>, where each prefix is wrapped in a
+ * {@link SharedNode}. Compiled expressions are passed to {@link #shareRoot},
+ * and searches are wrapped in calls to {@link #beginSearch} and
+ * {@link #endSearch}, during which every shared node evaluated with the
+ * search input is evaluated at most once.
+ */
+public class SharingNodeFactory<T> implements NodeFactory<T> {
+  private static final Object MISSING = new Object();
+
+  private final Adapter<T> runtime;
+  private final NodeFactory<T> delegate;
+  private final Map<Node<T>, Node<T>> internedNodes;
+  private final ThreadLocal<SearchState> searchState;
+  private int sharedNodeCount;
+
+  public SharingNodeFactory(Adapter<T> runtime) {
+    this(runtime, runtime.nodeFactory());
+  }
+
+  public SharingNodeFactory(Adapter<T> runtime, NodeFactory<T> delegate) {
+    this.runtime = runtime;
+    this.delegate = delegate;
+    this.internedNodes = new HashMap<>();
+    this.searchState = new ThreadLocal<>();
+    this.sharedNodeCount = 0;
+  }
+
+  private static class SearchState {
+    final Object input;
+    final Object[] results;
+
+    SearchState(Object input, int size) {
+      this.input = input;
+      this.results = new Object[size];
+      Arrays.fill(results, MISSING);
+    }
+  }
+
+  private Node<T> intern(Node<T> node) {
+    Node<T> internedNode = internedNodes.get(node);
+    if (internedNode == null) {
+      internedNodes.put(node, node);
+      internedNode = node;
+    }
+    return internedNode;
+  }
+
+  private SharedNode<T> share(Node<T> node) {
+    SharedNode<T> sharedNode = new SharedNode<>(runtime, this, node, sharedNodeCount);
+    Node<T> internedNode = internedNodes.get(sharedNode);
+    if (internedNode == null) {
+      internedNodes.put(sharedNode, sharedNode);
+      sharedNodeCount++;
+      return sharedNode;
+    } else {
+      return (SharedNode<T>) internedNode;
+    }
+  }
+
+  /**
+   * Wraps the root node of a compiled expression so that it, and the prefixes
+   * of its paths, are evaluated at most once per search. Expressions that the
+   * runtime wrapped to enforce limits or report metrics keep their wrappers.
+   */
+  public Expression<T> shareRoot(Expression<T> expression) {
+    if (expression instanceof InstrumentedExpression) {
+      InstrumentedExpression<T> instrumentedExpression = (InstrumentedExpression<T>) expression;
+      return instrumentedExpression.withExpression(shareRoot(instrumentedExpression.expression()));
+    }
+    if (expression instanceof LimitedExpression) {
+      LimitedExpression<T> limitedExpression = (LimitedExpression<T>) expression;
+      return new LimitedExpression<>(shareRoot(limitedExpression.expression()), limitedExpression.limits());
+    }
+    if (!(expression instanceof Node)) {
+      return expression;
+    }
+    SharedNode<T> root = share((Node<T>) expression);
+    SharedNode<T> node = root;
+    while (node != null) {
+      node.evaluatedWithSearchInput();
+      Node<T> wrappedNode = node.node();
+      node = null;
+      if (wrappedNode instanceof SequenceNode) {
+        Node<T> prefix = ((SequenceNode<T>) wrappedNode).nodes().get(0);
+        if (prefix instanceof SharedNode) {
+          node = (SharedNode<T>) prefix;
+        }
+      }
+    }
+    return root;
+  }
+
+  /**
+   * Returns the number of distinct shared nodes, which is the upper bound of
+   * the number of results remembered per search.
+   */
+  public int sharedNodeCount() {
+    return sharedNodeCount;
+  }
+
+  /**
+   * Starts a search on the current thread, shared nodes will remember their
+   * results when evaluated with the specified input.
+   */
+  public void beginSearch(T input) {
+    searchState.set(new SearchState(input, sharedNodeCount));
+  }
+
+  /**
+   * Ends the search on the current thread and forgets the remembered results.
+   */
+  public void endSearch() {
+    searchState.remove();
+  }
+
+  @SuppressWarnings("unchecked")
+  T sharedSearch(Node<T> node, int slot, T input) {
+    SearchState state = searchState.get();
+    if (state == null || state.input != input || slot >= state.results.length) {
+      return node.search(input);
+    }
+    Object result = state.results[slot];
+    if (result == MISSING) {
+      result = node.search(input);
+      state.results[slot] = result;
+    }
+    return (T) result;
+  }
+
+  @Override
+  public Node<T> createCurrent() {
+    return intern(delegate.createCurrent());
+  }
+
+  @Override
+  public Node<T> createProperty(String name) {
+    return intern(delegate.createProperty(name));
+  }
+
+  @Override
+  public Node<T> createIndex(int index) {
+    return intern(delegate.createIndex(index));
+  }
+
+  @Override
+  public Node<T> createSlice(Integer start, Integer stop, Integer step) {
+    return intern(delegate.createSlice(start, stop, step));
+  }
+
+  @Override
+  public Node<T> createProjection(Expression<T> expression) {
+    return intern(delegate.createProjection(expression));
+  }
+
+  @Override
+  public Node<T> createFlattenArray() {
+    return intern(delegate.createFlattenArray());
+  }
+
+  @Override
+  public Node<T> createFlattenObject() {
+    return intern(delegate.createFlattenObject());
+  }
+
+  @Override
+  public Node<T> createSelection(Expression<T> test) {
+    return intern(delegate.createSelection(test));
+  }
+
+  @Override
+  public Node<T> createComparison(Operator operator, Expression<T> left, Expression<T> right) {
+    return intern(delegate.createComparison(operator, left, right));
+  }
+
+  @Override
+  public Node<T> createOr(Expression<T> left, Expression<T> right) {
+    return intern(delegate.createOr(left, right));
+  }
+
+  @Override
+  public Node<T> createAnd(Expression<T> left, Expression<T> right) {
+    return intern(delegate.createAnd(left, right));
+  }
+
+  @Override
+  public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
+    return intern(delegate.createFunctionCall(functionName, args));
+  }
+
+  @Override
+  public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    return intern(delegate.createFunctionCall(function, args));
+  }
+
+  @Override
+  public Node<T> createExpressionReference(Expression<T> expression) {
+    return intern(delegate.createExpressionReference(expression));
+  }
+
+  @Override
+  public Node<T> createString(String str) {
+    return intern(delegate.createString(str));
+  }
+
+  @Override
+  public Node<T> createNegate(Expression<T> negated) {
+    return intern(delegate.createNegate(negated));
+  }
+
+  @Override
+  public Node<T> createCreateObject(List<CreateObjectNode.Entry<T>> entries) {
+    return intern(delegate.createCreateObject(entries));
+  }
+
+  @Override
+  public Node<T> createCreateArray(List<? extends Expression<T>> entries) {
+    return intern(delegate.createCreateArray(entries));
+  }
+
+  @Override
+  public Node<T> createJsonLiteral(String json) {
+    return intern(delegate.createJsonLiteral(json));
+  }
+
+  @Override
+  public Node<T> createVariable(String name) {
+    return intern(delegate.createVariable(name));
+  }
+
+  /**
+   * Creates a sequence of nested pairs, where the first node of each pair is
+   * a shared node, so that sequences with common prefixes share them.
+   */
+  @Override
+  public Node<T> createSequence(List<Node<T>> nodes) {
+    if (nodes.size() < 2) {
+      return intern(delegate.createSequence(nodes));
+    }
+    Node<T> prefix = share(nodes.get(0));
+    int last = nodes.size() - 1;
+    for (int i = 1; i < last; i++) {
+      prefix = share(intern(delegate.createSequence(pair(prefix, nodes.get(i)))));
+    }
+    return intern(delegate.createSequence(pair(prefix, nodes.get(last))));
+  }
+
+  private List<Node<T>> pair(Node<T> first, Node<T> second) {
+    List<Node<T>> pair = new ArrayList<>(2);
+    pair.add(first);
+    pair.add(second);
+    return pair;
+  }
+}
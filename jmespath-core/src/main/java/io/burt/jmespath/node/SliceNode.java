@@ -1,9 +1,9 @@
 package io.burt.jmespath.node;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.util.ListViews;
 
 public class SliceNode<T> extends Node<T> {
   private final boolean absoluteStart;
@@ -33,11 +33,7 @@ public class SliceNode<T> extends Node<T> {
     int begin = (start < 0) ? Math.max(elements.size() + start, 0) : Math.min(start, elements.size() + limit);
     int end = (stop < 0) ? Math.max(elements.size() + stop, limit) : Math.min(stop, elements.size());
     int steps = Math.max(0, (end - begin + rounding) / step);
-    List<T> output = new ArrayList<>(steps);
-    for (int i = 0, offset = begin; i < steps; i++, offset += step) {
-      output.add(elements.get(offset));
-    }
-    return runtime.createArray(output);
+    return runtime.createArray(ListViews.slice(elements, begin, step, steps));
   }
 
   @Override
@@ -5,15 +5,27 @@ import java.util.List;
 import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.function.Function;
+import io.burt.jmespath.function.SpecializableFunction;
+import io.burt.jmespath.index.IndexCache;
 
 /**
  * This node factory creates instances of the standard node classes.
  */
 public class StandardNodeFactory<T> implements NodeFactory<T> {
   private final Adapter<T> runtime;
+  private final IndexCache indexCache;
 
   public StandardNodeFactory(Adapter<T> runtime) {
+    this(runtime, null);
+  }
+
+  /**
+   * Creates a node factory whose selections use indexes from the specified
+   * cache when their test is an equality comparison with a literal.
+   */
+  public StandardNodeFactory(Adapter<T> runtime, IndexCache indexCache) {
     this.runtime = runtime;
+    this.indexCache = indexCache;
   }
 
   @Override
@@ -58,7 +70,11 @@ public class StandardNodeFactory<T> implements NodeFactory<T> {
 
   @Override
   public Node<T> createSelection(Expression<T> test) {
-    return new SelectionNode<>(runtime, test);
+    if (indexCache != null && IndexedSelectionNode.isIndexable(test)) {
+      return new IndexedSelectionNode<>(runtime, test, indexCache);
+    } else {
+      return new SelectionNode<>(runtime, test);
+    }
   }
 
   @Override
@@ -78,14 +94,50 @@ public class StandardNodeFactory<T> implements NodeFactory<T> {
 
   @Override
   public Node<T> createFunctionCall(String functionName, List<? extends Expression<T>> args) {
-    return new FunctionCallNode<>(runtime, runtime.functionRegistry().getFunction(functionName), args);
+    return createFunctionCall(runtime.functionRegistry().getFunction(functionName), args);
   }
 
+  /**
+   * Lets functions that implement {@link SpecializableFunction} replace the
+   * call node, and evaluates calls to pure functions whose arguments are all
+   * literals once, replacing them with a literal of the result. Calls that
+   * fail are left to fail when they are evaluated.
+   */
   @Override
   public Node<T> createFunctionCall(Function function, List<? extends Expression<T>> args) {
+    if (function instanceof SpecializableFunction) {
+      SpecializableFunction specializable = (SpecializableFunction) function;
+      Node<T> specialized = specializable.specialize(runtime, args);
+      if (specialized != null) {
+        return specialized;
+      }
+      if (specializable.isPure() && allLiterals(args)) {
+        Node<T> folded = foldedCall(function, args);
+        if (folded != null) {
+          return folded;
+        }
+      }
+    }
     return new FunctionCallNode<>(runtime, function, args);
   }
 
+  private boolean allLiterals(List<? extends Expression<T>> args) {
+    for (Expression<T> arg : args) {
+      if (!ComparisonNode.isLiteral(arg)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Node<T> foldedCall(Function function, List<? extends Expression<T>> args) {
+    try {
+      return JsonLiteralNode.of(runtime, new FunctionCallNode<>(runtime, function, args).search(runtime.createNull()));
+    } catch (RuntimeException re) {
+      return null;
+    }
+  }
+
   @Override
   public Node<T> createExpressionReference(Expression<T> expression) {
     return new ExpressionReferenceNode<>(runtime, expression);
@@ -115,4 +167,9 @@ public class StandardNodeFactory<T> implements NodeFactory<T> {
   public Node<T> createJsonLiteral(String json) {
     return new JsonLiteralNode<>(runtime, json);
   }
+
+  @Override
+  public Node<T> createVariable(String name) {
+    return new VariableNode<>(runtime, name);
+  }
 }
@@ -0,0 +1,42 @@
+package io.burt.jmespath.node;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.variables.Bindings;
+
+/**
+ * Evaluates to the value bound to a variable, like <code>$owner</code>, in the
+ * {@link Bindings} of the current search.
+ */
+public class VariableNode<T> extends Node<T> {
+  private final String name;
+
+  public VariableNode(Adapter<T> runtime, String name) {
+    super(runtime);
+    this.name = name;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public T search(T input) {
+    return Bindings.<T>currentValue(name);
+  }
+
+  @Override
+  protected String internalToString() {
+    return "$" + name;
+  }
+
+  @Override
+  protected boolean internalEquals(Object o) {
+    VariableNode<?> other = (VariableNode<?>) o;
+    return name.equals(other.name);
+  }
+
+  @Override
+  protected int internalHashCode() {
+    return name.hashCode();
+  }
+}
@@ -51,12 +51,20 @@ public class ExpressionParser<T> extends JmesPathBaseVisitor<Node<T>> {
   private Node<T> chainedNode;
 
   public static <U> Expression<U> fromString(Adapter<U> runtime, String rawExpression) {
+    return fromString(runtime, runtime.nodeFactory(), rawExpression);
+  }
+
+  /**
+   * Compiles an expression using the specified node factory instead of the
+   * runtime's own, for example to decorate the nodes.
+   */
+  public static <U> Expression<U> fromString(Adapter<U> runtime, NodeFactory<U> nodeFactory, String rawExpression) {
     ParseErrorAccumulator errors = new ParseErrorAccumulator();
     JmesPathParser parser = AntlrHelper.createParser(rawExpression, errors);
     ParseTree tree = parser.jmesPathExpression();
     Expression<U> expression = null;
     if (errors.isEmpty()) {
-      ExpressionParser<U> visitor = new ExpressionParser<>(runtime, tree, errors);
+      ExpressionParser<U> visitor = new ExpressionParser<>(runtime, nodeFactory, tree, errors);
       expression = visitor.expression();
     }
     if (!errors.isEmpty()) {
@@ -65,9 +73,9 @@ public class ExpressionParser<T> extends JmesPathBaseVisitor<Node<T>> {
     return expression;
   }
 
-  private ExpressionParser(Adapter<T> runtime, ParseTree tree, ParseErrorAccumulator errors) {
+  private ExpressionParser(Adapter<T> runtime, NodeFactory<T> nodeFactory, ParseTree tree, ParseErrorAccumulator errors) {
     this.runtime = runtime;
-    this.nodeFactory = runtime.nodeFactory();
+    this.nodeFactory = nodeFactory;
     this.tree = tree;
     this.errors = errors;
   }
@@ -155,6 +163,11 @@ public class ExpressionParser<T> extends JmesPathBaseVisitor<Node<T>> {
     return nodeFactory.createString(unquotedString);
   }
 
+  @Override
+  public Node<T> visitVariableExpression(JmesPathParser.VariableExpressionContext ctx) {
+    return nodeFactory.createVariable(ctx.VARIABLE().getText().substring(1));
+  }
+
   @Override
   public Node<T> visitComparisonExpression(JmesPathParser.ComparisonExpressionContext ctx) {
     Operator operator = Operator.fromString(ctx.COMPARATOR().getText());
@@ -0,0 +1,699 @@
+package io.burt.jmespath.plan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.BaseRuntime;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Operator;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * Writes compiled expressions in a compact binary format, and loads them
+ * again without parsing them, so that a large number of expressions can be
+ * compiled once, for example in a build step or by a control plane, and
+ * loaded quickly where they are used.
+ * <p>
+ * A plan records the calls the parser makes to the {@link NodeFactory} when it
+ * compiles each expression. Loading a plan replays the calls against the
+ * node factory of the loading runtime, so the loaded expressions are made of
+ * the same nodes as if they had been compiled by it, and are wrapped the same
+ * way as by {@link BaseRuntime#compile}. Functions are recorded by name and
+ * looked up in the function registry of the loading runtime.
+ * <p>
+ * A plan starts with a magic number and the version of the format, followed
+ * by the length and a CRC32 checksum of the rest of the plan. Plans with
+ * another version, and plans that don't match their checksum, are rejected.
+ */
+public final class ExpressionPlans {
+  static final int MAGIC = 0x4a4d5050;
+  static final int VERSION = 2;
+
+  /** The size of the chunks the body is read in, so that a corrupt length can't make it allocate more than is there */
+  private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+  private static final int CURRENT = 1;
+  private static final int PROPERTY = 2;
+  private static final int INDEX = 3;
+  private static final int SLICE = 4;
+  private static final int PROJECTION = 5;
+  private static final int FLATTEN_ARRAY = 6;
+  private static final int FLATTEN_OBJECT = 7;
+  private static final int SELECTION = 8;
+  private static final int COMPARISON = 9;
+  private static final int OR = 10;
+  private static final int AND = 11;
+  private static final int FUNCTION_CALL = 12;
+  private static final int EXPRESSION_REFERENCE = 13;
+  private static final int STRING = 14;
+  private static final int NEGATE = 15;
+  private static final int CREATE_OBJECT = 16;
+  private static final int CREATE_ARRAY = 17;
+  private static final int JSON_LITERAL = 18;
+  private static final int SEQUENCE = 19;
+  private static final int VARIABLE = 20;
+
+  private ExpressionPlans() { }
+
+  /**
+   * Compiles the expressions and writes them as a plan to the output, which
+   * is flushed but not closed.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when one of the strings is not a valid JMESPath expression
+   */
+  public static <U> void write(Adapter<U> runtime, List<String> rawExpressions, OutputStream output) throws IOException {
+    PlanEncoder encoder = new PlanEncoder();
+    for (String rawExpression : rawExpressions) {
+      RecordingNodeFactory<U> nodeFactory = new RecordingNodeFactory<>(runtime.nodeFactory());
+      Expression<U> expression = ExpressionParser.fromString(runtime, nodeFactory, rawExpression);
+      encoder.writeExpression(rawExpression, nodeFactory.operationsOf(expression));
+    }
+    byte[] body = encoder.toByteArray();
+    CRC32 checksum = new CRC32();
+    checksum.update(body);
+    DataOutputStream dataOutput = new DataOutputStream(output);
+    dataOutput.writeInt(MAGIC);
+    dataOutput.writeShort(VERSION);
+    dataOutput.writeInt(body.length);
+    dataOutput.writeInt((int) checksum.getValue());
+    dataOutput.write(body);
+    dataOutput.flush();
+  }
+
+  /**
+   * Loads the expressions of a plan with the runtime's node factory. The
+   * input is read to the end of the plan, but is not closed.
+   *
+   * @return the loaded expressions by the expression strings they were
+   *   compiled from, in the order they were written
+   * @throws PlanFormatException when the input is not a valid plan
+   */
+  public static <U> Map<String, Expression<U>> read(Adapter<U> runtime, InputStream input) throws IOException {
+    DataInputStream dataInput = new DataInputStream(input);
+    byte[] body;
+    try {
+      if (dataInput.readInt() != MAGIC) {
+        throw new PlanFormatException("Input is not an expression plan");
+      }
+      int version = dataInput.readUnsignedShort();
+      if (version != VERSION) {
+        throw new PlanFormatException(String.format("Unsupported plan version %d (expected %d)", version, VERSION));
+      }
+      int length = dataInput.readInt();
+      int expectedChecksum = dataInput.readInt();
+      if (length < 0) {
+        throw new PlanFormatException("Plan is corrupt");
+      }
+      body = readBody(dataInput, length);
+      CRC32 checksum = new CRC32();
+      checksum.update(body);
+      if ((int) checksum.getValue() != expectedChecksum) {
+        throw new PlanFormatException("Plan does not match its checksum");
+      }
+    } catch (EOFException eofe) {
+      throw new PlanFormatException("Plan is truncated", eofe);
+    }
+    return new PlanDecoder<>(runtime, body).readExpressions();
+  }
+
+  private static byte[] readBody(DataInputStream dataInput, int length) throws IOException {
+    if (length <= READ_CHUNK_SIZE) {
+      byte[] body = new byte[length];
+      dataInput.readFully(body);
+      return body;
+    }
+    ByteArrayOutputStream body = new ByteArrayOutputStream(READ_CHUNK_SIZE);
+    byte[] chunk = new byte[READ_CHUNK_SIZE];
+    int remaining = length;
+    while (remaining > 0) {
+      int chunkLength = Math.min(remaining, chunk.length);
+      dataInput.readFully(chunk, 0, chunkLength);
+      body.write(chunk, 0, chunkLength);
+      remaining -= chunkLength;
+    }
+    return body.toByteArray();
+  }
+
+  /**
+   * A call to a node factory method, with its arguments. Expression arguments
+   * are represented by the calls that created them.
+   */
+  private static class Operation {
+    final int code;
+    final String name;
+    final Integer[] numbers;
+    final List<String> keys;
+    final List<Operation> children;
+
+    Operation(int code, String name, Integer[] numbers, List<String> keys, List<Operation> children) {
+      this.code = code;
+      this.name = name;
+      this.numbers = numbers;
+      this.keys = keys;
+      this.children = children;
+    }
+  }
+
+  /**
+   * Creates nodes with another factory, and remembers the call that created
+   * each of them.
+   */
+  private static class RecordingNodeFactory<U> implements NodeFactory<U> {
+    private final NodeFactory<U> delegate;
+    private final Map<Expression<U>, Operation> operations;
+
+    RecordingNodeFactory(NodeFactory<U> delegate) {
+      this.delegate = delegate;
+      this.operations = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns the calls needed to create the expression, in an order where
+     * the arguments of each call are created before it. Nodes that the parser
+     * created but didn't use are left out.
+     */
+    List<Operation> operationsOf(Expression<U> expression) {
+      List<Operation> ordered = new ArrayList<>();
+      addOperations(operation(expression), ordered, new IdentityHashMap<Operation, Boolean>());
+      return ordered;
+    }
+
+    private void addOperations(Operation operation, List<Operation> ordered, Map<Operation, Boolean> added) {
+      if (added.containsKey(operation)) {
+        return;
+      }
+      for (Operation child : operation.children) {
+        if (child == null) {
+          throw new IllegalStateException("Expression contains nodes that were not created by the recording node factory");
+        }
+        addOperations(child, ordered, added);
+      }
+      added.put(operation, Boolean.TRUE);
+      ordered.add(operation);
+    }
+
+    private Operation operation(Expression<U> expression) {
+      Operation operation = operations.get(expression);
+      if (operation == null) {
+        throw new IllegalStateException(String.format("Expression %s was not created by the recording node factory", expression));
+      }
+      return operation;
+    }
+
+    private Node<U> record(Node<U> node, int code, String name, Integer[] numbers, List<String> keys, List<? extends Expression<U>> children) {
+      List<Operation> childOperations = new ArrayList<>(children.size());
+      for (Expression<U> child : children) {
+        childOperations.add(operations.get(child));
+      }
+      operations.put(node, new Operation(code, name, numbers, keys, childOperations));
+      return node;
+    }
+
+    private Node<U> record(Node<U> node, int code) {
+      return record(node, code, null, null, null, Collections.<Expression<U>>emptyList());
+    }
+
+    private Node<U> record(Node<U> node, int code, String name) {
+      return record(node, code, name, null, null, Collections.<Expression<U>>emptyList());
+    }
+
+    private Node<U> record(Node<U> node, int code, List<? extends Expression<U>> children) {
+      return record(node, code, null, null, null, children);
+    }
+
+    @Override
+    public Node<U> createCurrent() {
+      return record(delegate.createCurrent(), CURRENT);
+    }
+
+    @Override
+    public Node<U> createProperty(String name) {
+      return record(delegate.createProperty(name), PROPERTY, name);
+    }
+
+    @Override
+    public Node<U> createIndex(int index) {
+      return record(delegate.createIndex(index), INDEX, null, new Integer[] {index}, null, Collections.<Expression<U>>emptyList());
+    }
+
+    @Override
+    public Node<U> createSlice(Integer start, Integer stop, Integer step) {
+      return record(delegate.createSlice(start, stop, step), SLICE, null, new Integer[] {start, stop, step}, null, Collections.<Expression<U>>emptyList());
+    }
+
+    @Override
+    public Node<U> createProjection(Expression<U> expression) {
+      return record(delegate.createProjection(expression), PROJECTION, Collections.singletonList(expression));
+    }
+
+    @Override
+    public Node<U> createFlattenArray() {
+      return record(delegate.createFlattenArray(), FLATTEN_ARRAY);
+    }
+
+    @Override
+    public Node<U> createFlattenObject() {
+      return record(delegate.createFlattenObject(), FLATTEN_OBJECT);
+    }
+
+    @Override
+    public Node<U> createSelection(Expression<U> test) {
+      return record(delegate.createSelection(test), SELECTION, Collections.singletonList(test));
+    }
+
+    @Override
+    public Node<U> createComparison(Operator operator, Expression<U> left, Expression<U> right) {
+      return record(delegate.createComparison(operator, left, right), COMPARISON, operator.token(), null, null, Arrays.asList(left, right));
+    }
+
+    @Override
+    public Node<U> createOr(Expression<U> left, Expression<U> right) {
+      return record(delegate.createOr(left, right), OR, Arrays.asList(left, right));
+    }
+
+    @Override
+    public Node<U> createAnd(Expression<U> left, Expression<U> right) {
+      return record(delegate.createAnd(left, right), AND, Arrays.asList(left, right));
+    }
+
+    @Override
+    public Node<U> createFunctionCall(String functionName, List<? extends Expression<U>> args) {
+      return record(delegate.createFunctionCall(functionName, args), FUNCTION_CALL, functionName, null, null, args);
+    }
+
+    @Override
+    public Node<U> createFunctionCall(Function function, List<? extends Expression<U>> args) {
+      return record(delegate.createFunctionCall(function, args), FUNCTION_CALL, function == null ? null : function.name(), null, null, args);
+    }
+
+    @Override
+    public Node<U> createExpressionReference(Expression<U> expression) {
+      return record(delegate.createExpressionReference(expression), EXPRESSION_REFERENCE, Collections.singletonList(expression));
+    }
+
+    @Override
+    public Node<U> createString(String str) {
+      return record(delegate.createString(str), STRING, str);
+    }
+
+    @Override
+    public Node<U> createNegate(Expression<U> negated) {
+      return record(delegate.createNegate(negated), NEGATE, Collections.singletonList(negated));
+    }
+
+    @Override
+    public Node<U> createCreateObject(List<CreateObjectNode.Entry<U>> entries) {
+      List<String> keys = new ArrayList<>(entries.size());
+      List<Expression<U>> values = new ArrayList<>(entries.size());
+      for (CreateObjectNode.Entry<U> entry : entries) {
+        keys.add(entry.key());
+        values.add(entry.value());
+      }
+      return record(delegate.createCreateObject(entries), CREATE_OBJECT, null, null, keys, values);
+    }
+
+    @Override
+    public Node<U> createCreateArray(List<? extends Expression<U>> entries) {
+      return record(delegate.createCreateArray(entries), CREATE_ARRAY, entries);
+    }
+
+    @Override
+    public Node<U> createJsonLiteral(String json) {
+      return record(delegate.createJsonLiteral(json), JSON_LITERAL, json);
+    }
+
+    @Override
+    public Node<U> createSequence(List<Node<U>> nodes) {
+      return record(delegate.createSequence(nodes), SEQUENCE, nodes);
+    }
+
+    @Override
+    public Node<U> createVariable(String name) {
+      return record(delegate.createVariable(name), VARIABLE, name);
+    }
+  }
+
+  /**
+   * Encodes expressions as a table of all strings, followed by the operations
+   * of each expression. Operations refer to the nodes created by earlier
+   * operations of the same expression by their position, and to strings by
+   * their position in the table.
+   */
+  private static class PlanEncoder {
+    private final Map<String, Integer> stringIds;
+    private final List<String> strings;
+    private final ByteArrayOutputStream expressions;
+    private int expressionCount;
+
+    PlanEncoder() {
+      this.stringIds = new HashMap<>();
+      this.strings = new ArrayList<>();
+      this.expressions = new ByteArrayOutputStream();
+      this.expressionCount = 0;
+    }
+
+    void writeExpression(String rawExpression, List<Operation> operations) {
+      Map<Operation, Integer> operationIds = new IdentityHashMap<>();
+      writeString(rawExpression);
+      writeUnsigned(operations.size());
+      for (Operation operation : operations) {
+        expressions.write(operation.code);
+        switch (operation.code) {
+          case PROPERTY:
+          case FUNCTION_CALL:
+          case STRING:
+          case JSON_LITERAL:
+          case VARIABLE:
+          case COMPARISON:
+            writeString(operation.name);
+            break;
+          case INDEX:
+            writeSigned(operation.numbers[0]);
+            break;
+          case SLICE:
+            int present = 0;
+            for (int i = 0; i < 3; i++) {
+              if (operation.numbers[i] != null) {
+                present |= 1 << i;
+              }
+            }
+            expressions.write(present);
+            for (int i = 0; i < 3; i++) {
+              if (operation.numbers[i] != null) {
+                writeSigned(operation.numbers[i]);
+              }
+            }
+            break;
+          default:
+            break;
+        }
+        writeUnsigned(operation.children.size());
+        for (int i = 0; i < operation.children.size(); i++) {
+          if (operation.keys != null) {
+            writeString(operation.keys.get(i));
+          }
+          writeUnsigned(operationIds.get(operation.children.get(i)));
+        }
+        operationIds.put(operation, operationIds.size());
+      }
+      expressionCount++;
+    }
+
+    private void writeString(String str) {
+      Integer id = stringIds.get(str);
+      if (id == null) {
+        id = strings.size();
+        stringIds.put(str, id);
+        strings.add(str);
+      }
+      writeUnsigned(id);
+    }
+
+    private void writeUnsigned(int n) {
+      writeVarint(expressions, n);
+    }
+
+    private void writeSigned(int n) {
+      writeVarint(expressions, (n << 1) ^ (n >> 31));
+    }
+
+    byte[] toByteArray() {
+      ByteArrayOutputStream body = new ByteArrayOutputStream(expressions.size() + strings.size() * 8);
+      writeVarint(body, strings.size());
+      for (String str : strings) {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarint(body, bytes.length);
+        body.write(bytes, 0, bytes.length);
+      }
+      writeVarint(body, expressionCount);
+      body.write(expressions.toByteArray(), 0, expressions.size());
+      return body.toByteArray();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream output, int n) {
+      while ((n & ~0x7f) != 0) {
+        output.write((n & 0x7f) | 0x80);
+        n >>>= 7;
+      }
+      output.write(n);
+    }
+  }
+
+  /**
+   * Replays the operations of a plan against the node factory of a runtime.
+   */
+  private static class PlanDecoder<U> {
+    private final Adapter<U> runtime;
+    private final NodeFactory<U> nodeFactory;
+    private final byte[] body;
+    private int offset;
+    private String[] strings;
+
+    PlanDecoder(Adapter<U> runtime, byte[] body) {
+      this.runtime = runtime;
+      this.nodeFactory = runtime.nodeFactory();
+      this.body = body;
+      this.offset = 0;
+    }
+
+    Map<String, Expression<U>> readExpressions() {
+      int stringCount = readUnsigned();
+      if (stringCount > body.length) {
+        throw corrupt();
+      }
+      strings = new String[stringCount];
+      for (int i = 0; i < strings.length; i++) {
+        int length = readUnsigned();
+        if (length > body.length - offset) {
+          throw corrupt();
+        }
+        strings[i] = new String(body, offset, length, StandardCharsets.UTF_8);
+        offset += length;
+      }
+      int expressionCount = readUnsigned();
+      Map<String, Expression<U>> expressions = new LinkedHashMap<>();
+      for (int i = 0; i < expressionCount; i++) {
+        String rawExpression = readString();
+        Expression<U> expression = readExpression();
+        if (runtime instanceof BaseRuntime) {
+          expression = ((BaseRuntime<U>) runtime).wrapCompiledExpression(rawExpression, expression);
+        }
+        expressions.put(rawExpression, expression);
+      }
+      if (offset != body.length) {
+        throw corrupt();
+      }
+      return expressions;
+    }
+
+    private Node<U> readExpression() {
+      int operationCount = readUnsigned();
+      if (operationCount == 0 || operationCount > body.length) {
+        throw corrupt();
+      }
+      List<Node<U>> nodes = new ArrayList<>(operationCount);
+      for (int i = 0; i < operationCount; i++) {
+        nodes.add(readOperation(nodes));
+      }
+      return nodes.get(operationCount - 1);
+    }
+
+    private Node<U> readOperation(List<Node<U>> nodes) {
+      int code = readByte();
+      String name = null;
+      Integer[] numbers = null;
+      switch (code) {
+        case PROPERTY:
+        case FUNCTION_CALL:
+        case STRING:
+        case JSON_LITERAL:
+        case VARIABLE:
+        case COMPARISON:
+          name = readString();
+          break;
+        case INDEX:
+          numbers = new Integer[] {readSigned()};
+          break;
+        case SLICE:
+          int present = readByte();
+          numbers = new Integer[3];
+          for (int i = 0; i < 3; i++) {
+            if ((present & (1 << i)) != 0) {
+              numbers[i] = readSigned();
+            }
+          }
+          break;
+        default:
+          break;
+      }
+      int childCount = readUnsigned();
+      if (childCount > nodes.size()) {
+        throw corrupt();
+      }
+      List<String> keys = new ArrayList<>(childCount);
+      List<Node<U>> children = new ArrayList<>(childCount);
+      for (int i = 0; i < childCount; i++) {
+        if (code == CREATE_OBJECT) {
+          keys.add(readString());
+        }
+        int id = readUnsigned();
+        if (id >= nodes.size()) {
+          throw corrupt();
+        }
+        children.add(nodes.get(id));
+      }
+      return createNode(code, name, numbers, keys, children);
+    }
+
+    private Node<U> createNode(int code, String name, Integer[] numbers, List<String> keys, List<Node<U>> children) {
+      switch (code) {
+        case CURRENT:
+          expectChildren(children, 0);
+          return nodeFactory.createCurrent();
+        case PROPERTY:
+          expectChildren(children, 0);
+          return nodeFactory.createProperty(name);
+        case INDEX:
+          expectChildren(children, 0);
+          return nodeFactory.createIndex(numbers[0]);
+        case SLICE:
+          expectChildren(children, 0);
+          return nodeFactory.createSlice(numbers[0], numbers[1], numbers[2]);
+        case PROJECTION:
+          expectChildren(children, 1);
+          return nodeFactory.createProjection(children.get(0));
+        case FLATTEN_ARRAY:
+          expectChildren(children, 0);
+          return nodeFactory.createFlattenArray();
+        case FLATTEN_OBJECT:
+          expectChildren(children, 0);
+          return nodeFactory.createFlattenObject();
+        case SELECTION:
+          expectChildren(children, 1);
+          return nodeFactory.createSelection(children.get(0));
+        case COMPARISON:
+          expectChildren(children, 2);
+          Operator operator;
+          try {
+            operator = Operator.fromString(name);
+          } catch (IllegalArgumentException iae) {
+            throw corrupt();
+          }
+          return nodeFactory.createComparison(operator, children.get(0), children.get(1));
+        case OR:
+          expectChildren(children, 2);
+          return nodeFactory.createOr(children.get(0), children.get(1));
+        case AND:
+          expectChildren(children, 2);
+          return nodeFactory.createAnd(children.get(0), children.get(1));
+        case FUNCTION_CALL:
+          Function function = runtime.functionRegistry().getFunction(name);
+          if (function == null) {
+            throw new PlanFormatException(String.format("Plan calls unknown function \"%s\"", name));
+          }
+          return nodeFactory.createFunctionCall(function, children);
+        case EXPRESSION_REFERENCE:
+          expectChildren(children, 1);
+          return nodeFactory.createExpressionReference(children.get(0));
+        case STRING:
+          expectChildren(children, 0);
+          return nodeFactory.createString(name);
+        case NEGATE:
+          expectChildren(children, 1);
+          return nodeFactory.createNegate(children.get(0));
+        case CREATE_OBJECT:
+          List<CreateObjectNode.Entry<U>> entries = new ArrayList<>(children.size());
+          for (int i = 0; i < children.size(); i++) {
+            entries.add(new CreateObjectNode.Entry<U>(keys.get(i), children.get(i)));
+          }
+          return nodeFactory.createCreateObject(entries);
+        case CREATE_ARRAY:
+          return nodeFactory.createCreateArray(children);
+        case JSON_LITERAL:
+          expectChildren(children, 0);
+          return nodeFactory.createJsonLiteral(name);
+        case SEQUENCE:
+          return nodeFactory.createSequence(children);
+        case VARIABLE:
+          expectChildren(children, 0);
+          return nodeFactory.createVariable(name);
+        default:
+          throw new PlanFormatException(String.format("Plan contains unknown operation %d", code));
+      }
+    }
+
+    private void expectChildren(List<Node<U>> children, int count) {
+      if (children.size() != count) {
+        throw corrupt();
+      }
+    }
+
+    private String readString() {
+      int id = readUnsigned();
+      if (id >= strings.length) {
+        throw corrupt();
+      }
+      return strings[id];
+    }
+
+    private int readByte() {
+      if (offset >= body.length) {
+        throw corrupt();
+      }
+      return body[offset++] & 0xff;
+    }
+
+    /**
+     * Reads a count or an id, which the writer never makes negative, so a
+     * varint with the sign bit set means that the plan is corrupt.
+     */
+    private int readUnsigned() {
+      int n = readVarint();
+      if (n < 0) {
+        throw corrupt();
+      }
+      return n;
+    }
+
+    private int readVarint() {
+      int n = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        int b = readByte();
+        n |= (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          return n;
+        }
+      }
+      throw corrupt();
+    }
+
+    private int readSigned() {
+      int n = readVarint();
+      return (n >>> 1) ^ -(n & 1);
+    }
+
+    private PlanFormatException corrupt() {
+      return new PlanFormatException("Plan is corrupt");
+    }
+  }
+}
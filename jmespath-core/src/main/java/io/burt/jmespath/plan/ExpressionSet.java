@@ -0,0 +1,81 @@
+package io.burt.jmespath.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.node.SharingNodeFactory;
+import io.burt.jmespath.parser.ExpressionParser;
+
+/**
+ * A set of expressions that are evaluated together against the same input,
+ * returning all of their results at once.
+ * <p>
+ * The expressions are compiled into one plan where equal sub-expressions are
+ * shared, and common path prefixes, like <code>detail.user</code> in
+ * <code>detail.user.id</code> and <code>detail.user.roles[*]</code>, are
+ * evaluated only once per input. Sharing is based on the
+ * {@link Object#equals} and {@link Object#hashCode} of the nodes, and relies
+ * on expressions being free of side effects, which all built in functions are.
+ * <p>
+ * The set is thread safe. Expressions in the set are not wrapped by the
+ * runtime, so listeners and limits configured in the runtime do not apply.
+ */
+public class ExpressionSet<T> {
+  private final SharingNodeFactory<T> nodeFactory;
+  private final List<String> rawExpressions;
+  private final List<Expression<T>> expressions;
+
+  private ExpressionSet(SharingNodeFactory<T> nodeFactory, List<String> rawExpressions, List<Expression<T>> expressions) {
+    this.nodeFactory = nodeFactory;
+    this.rawExpressions = rawExpressions;
+    this.expressions = expressions;
+  }
+
+  /**
+   * Compiles the expressions into a set.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when one of the strings is not a valid JMESPath expression
+   */
+  public static <U> ExpressionSet<U> compile(Adapter<U> runtime, List<String> rawExpressions) {
+    SharingNodeFactory<U> nodeFactory = new SharingNodeFactory<>(runtime);
+    List<Expression<U>> expressions = new ArrayList<>(rawExpressions.size());
+    for (String rawExpression : rawExpressions) {
+      expressions.add(nodeFactory.shareRoot(ExpressionParser.fromString(runtime, nodeFactory, rawExpression)));
+    }
+    List<String> rawExpressionsCopy = Collections.unmodifiableList(new ArrayList<>(rawExpressions));
+    return new ExpressionSet<>(nodeFactory, rawExpressionsCopy, Collections.unmodifiableList(expressions));
+  }
+
+  /** Returns the expressions of the set, in the order they were given */
+  public List<String> expressions() {
+    return rawExpressions;
+  }
+
+  /**
+   * Returns the number of distinct sub-expressions whose results are shared
+   * between the expressions.
+   */
+  public int sharedExpressionCount() {
+    return nodeFactory.sharedNodeCount();
+  }
+
+  /**
+   * Evaluates all expressions against the input and returns their results, in
+   * the same order as the expressions.
+   */
+  public List<T> search(T input) {
+    List<T> results = new ArrayList<>(expressions.size());
+    nodeFactory.beginSearch(input);
+    try {
+      for (Expression<T> expression : expressions) {
+        results.add(expression.search(input));
+      }
+    } finally {
+      nodeFactory.endSearch();
+    }
+    return results;
+  }
+}
@@ -0,0 +1,19 @@
+package io.burt.jmespath.plan;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown by {@link ExpressionPlans#read} when the input is not a plan, was
+ * written by an unsupported version of the format, is corrupt, or refers to
+ * functions that the runtime doesn't have.
+ */
+@SuppressWarnings("serial")
+public class PlanFormatException extends JmesPathException {
+  public PlanFormatException(String message) {
+    super(message);
+  }
+
+  public PlanFormatException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,355 @@
+package io.burt.jmespath.plan;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.function.Function;
+import io.burt.jmespath.node.CreateObjectNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.node.Operator;
+import io.burt.jmespath.parser.ExpressionParser;
+import io.burt.jmespath.util.ValueKey;
+
+/**
+ * Matches inputs against a large number of boolean expressions, like the
+ * rules of an event router, without evaluating every expression for every
+ * input.
+ * <p>
+ * Expressions built from <code>&amp;&amp;</code>, <code>||</code> and
+ * <code>==</code> comparisons between a path, like
+ * <code>detail.type</code>, and a string, number, boolean or null literal
+ * are indexable. For each indexable expression a set of (path, literal) pairs
+ * is derived, at least one of which must hold for the expression to be
+ * truthy. The pairs are kept in an inverted index, and for each input only the
+ * expressions found by looking up the values of the indexed paths are
+ * evaluated, along with all expressions that are not indexable.
+ * <p>
+ * An <code>&amp;&amp;</code> only needs one of its operands to be indexable,
+ * so <code>source == 'x' &amp;&amp; size &gt; `3`</code> is indexed on
+ * <code>source</code>, while both operands of an <code>||</code> must be.
+ */
+public class PredicateMatcher<T> {
+  private final Adapter<T> runtime;
+  private final List<String> rawExpressions;
+  private final List<Expression<T>> expressions;
+  private final List<IndexedPath<T>> index;
+  private final BitSet unindexedExpressions;
+
+  private PredicateMatcher(Adapter<T> runtime, List<String> rawExpressions, List<Expression<T>> expressions, List<IndexedPath<T>> index, BitSet unindexedExpressions) {
+    this.runtime = runtime;
+    this.rawExpressions = rawExpressions;
+    this.expressions = expressions;
+    this.index = index;
+    this.unindexedExpressions = unindexedExpressions;
+  }
+
+  private static class IndexedPath<T> {
+    final Expression<T> path;
+    final Map<Object, BitSet> expressionsByValue;
+
+    IndexedPath(Expression<T> path) {
+      this.path = path;
+      this.expressionsByValue = new HashMap<>();
+    }
+  }
+
+  /**
+   * Compiles the expressions and indexes those that can be indexed.
+   *
+   * @throws io.burt.jmespath.parser.ParseException when one of the strings is not a valid JMESPath expression
+   */
+  public static <U> PredicateMatcher<U> compile(Adapter<U> runtime, List<String> rawExpressions) {
+    AnalyzingNodeFactory<U> nodeFactory = new AnalyzingNodeFactory<>(runtime, runtime.nodeFactory());
+    List<Expression<U>> expressions = new ArrayList<>(rawExpressions.size());
+    Map<List<String>, IndexedPath<U>> index = new LinkedHashMap<>();
+    BitSet unindexedExpressions = new BitSet(rawExpressions.size());
+    for (int i = 0; i < rawExpressions.size(); i++) {
+      Expression<U> expression = ExpressionParser.fromString(runtime, nodeFactory, rawExpressions.get(i));
+      expressions.add(expression);
+      Set<Term<U>> terms = nodeFactory.termsOf(expression);
+      if (terms == null) {
+        unindexedExpressions.set(i);
+      } else {
+        for (Term<U> term : terms) {
+          IndexedPath<U> indexedPath = index.get(term.path);
+          if (indexedPath == null) {
+            indexedPath = new IndexedPath<>(term.pathExpression);
+            index.put(term.path, indexedPath);
+          }
+          BitSet matches = indexedPath.expressionsByValue.get(term.value);
+          if (matches == null) {
+            matches = new BitSet();
+            indexedPath.expressionsByValue.put(term.value, matches);
+          }
+          matches.set(i);
+        }
+      }
+    }
+    return new PredicateMatcher<>(
+      runtime,
+      Collections.unmodifiableList(new ArrayList<>(rawExpressions)),
+      expressions,
+      new ArrayList<>(index.values()),
+      unindexedExpressions
+    );
+  }
+
+  /** Returns the expressions of the matcher, in the order they were given */
+  public List<String> expressions() {
+    return rawExpressions;
+  }
+
+  /** Returns the number of expressions that could not be indexed */
+  public int unindexedExpressionCount() {
+    return unindexedExpressions.cardinality();
+  }
+
+  /**
+   * Returns the positions of the expressions that evaluate to a truthy value
+   * for the input, in ascending order.
+   */
+  public List<Integer> match(T input) {
+    BitSet candidates = (BitSet) unindexedExpressions.clone();
+    for (IndexedPath<T> indexedPath : index) {
+      T value = indexedPath.path.search(input);
+      JmesPathType type = runtime.typeOf(value);
+      if (type != JmesPathType.ARRAY && type != JmesPathType.OBJECT) {
+        BitSet matches = indexedPath.expressionsByValue.get(ValueKey.of(runtime, value));
+        if (matches != null) {
+          candidates.or(matches);
+        }
+      }
+    }
+    List<Integer> matches = new ArrayList<>();
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (runtime.isTruthy(expressions.get(i).search(input))) {
+        matches.add(i);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * A path compared with a literal value.
+   */
+  private static class Term<U> {
+    final List<String> path;
+    final Expression<U> pathExpression;
+    final Object value;
+
+    Term(List<String> path, Expression<U> pathExpression, Object value) {
+      this.path = path;
+      this.pathExpression = pathExpression;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Term)) {
+        return false;
+      }
+      Term<?> other = (Term<?>) o;
+      return path.equals(other.path) && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return path.hashCode() * 31 + value.hashCode();
+    }
+  }
+
+  /**
+   * Creates nodes with another factory, and keeps track of which of them are
+   * paths, scalar literals and indexable predicates.
+   */
+  private static class AnalyzingNodeFactory<U> implements NodeFactory<U> {
+    private final Adapter<U> runtime;
+    private final NodeFactory<U> delegate;
+    private final Map<Expression<U>, List<String>> paths;
+    private final Map<Expression<U>, Object> literals;
+    private final Map<Expression<U>, Set<Term<U>>> terms;
+
+    AnalyzingNodeFactory(Adapter<U> runtime, NodeFactory<U> delegate) {
+      this.runtime = runtime;
+      this.delegate = delegate;
+      this.paths = new IdentityHashMap<>();
+      this.literals = new IdentityHashMap<>();
+      this.terms = new IdentityHashMap<>();
+    }
+
+    /**
+     * Returns the terms of which at least one must hold for the expression to
+     * be truthy, or null if the expression is not indexable.
+     */
+    Set<Term<U>> termsOf(Expression<U> expression) {
+      return terms.get(expression);
+    }
+
+    private Node<U> path(Node<U> node, List<String> path) {
+      paths.put(node, path);
+      return node;
+    }
+
+    private Node<U> literal(Node<U> node, U value) {
+      JmesPathType type = runtime.typeOf(value);
+      if (type != JmesPathType.ARRAY && type != JmesPathType.OBJECT) {
+        literals.put(node, ValueKey.of(runtime, value));
+      }
+      return node;
+    }
+
+    @Override
+    public Node<U> createCurrent() {
+      return path(delegate.createCurrent(), Collections.<String>emptyList());
+    }
+
+    @Override
+    public Node<U> createProperty(String name) {
+      return path(delegate.createProperty(name), Collections.singletonList(name));
+    }
+
+    @Override
+    public Node<U> createSequence(List<Node<U>> nodes) {
+      Node<U> sequence = delegate.createSequence(nodes);
+      List<String> path = new ArrayList<>();
+      for (Node<U> node : nodes) {
+        List<String> part = paths.get(node);
+        if (part == null) {
+          return sequence;
+        }
+        path.addAll(part);
+      }
+      return path(sequence, path);
+    }
+
+    @Override
+    public Node<U> createString(String str) {
+      return literal(delegate.createString(str), runtime.createString(str));
+    }
+
+    @Override
+    public Node<U> createJsonLiteral(String json) {
+      return literal(delegate.createJsonLiteral(json), runtime.parseString(json));
+    }
+
+    @Override
+    public Node<U> createComparison(Operator operator, Expression<U> left, Expression<U> right) {
+      Node<U> node = delegate.createComparison(operator, left, right);
+      if (operator == Operator.EQUALS) {
+        Term<U> term = null;
+        if (paths.containsKey(left) && literals.containsKey(right)) {
+          term = new Term<>(paths.get(left), left, literals.get(right));
+        } else if (paths.containsKey(right) && literals.containsKey(left)) {
+          term = new Term<>(paths.get(right), right, literals.get(left));
+        }
+        if (term != null) {
+          terms.put(node, Collections.singleton(term));
+        }
+      }
+      return node;
+    }
+
+    @Override
+    public Node<U> createAnd(Expression<U> left, Expression<U> right) {
+      Node<U> node = delegate.createAnd(left, right);
+      Set<Term<U>> leftTerms = terms.get(left);
+      Set<Term<U>> rightTerms = terms.get(right);
+      if (leftTerms != null && (rightTerms == null || leftTerms.size() <= rightTerms.size())) {
+        terms.put(node, leftTerms);
+      } else if (rightTerms != null) {
+        terms.put(node, rightTerms);
+      }
+      return node;
+    }
+
+    @Override
+    public Node<U> createOr(Expression<U> left, Expression<U> right) {
+      Node<U> node = delegate.createOr(left, right);
+      Set<Term<U>> leftTerms = terms.get(left);
+      Set<Term<U>> rightTerms = terms.get(right);
+      if (leftTerms != null && rightTerms != null) {
+        Set<Term<U>> union = new HashSet<>(leftTerms);
+        union.addAll(rightTerms);
+        terms.put(node, union);
+      }
+      return node;
+    }
+
+    @Override
+    public Node<U> createIndex(int index) {
+      return delegate.createIndex(index);
+    }
+
+    @Override
+    public Node<U> createSlice(Integer start, Integer stop, Integer step) {
+      return delegate.createSlice(start, stop, step);
+    }
+
+    @Override
+    public Node<U> createProjection(Expression<U> expression) {
+      return delegate.createProjection(expression);
+    }
+
+    @Override
+    public Node<U> createFlattenArray() {
+      return delegate.createFlattenArray();
+    }
+
+    @Override
+    public Node<U> createFlattenObject() {
+      return delegate.createFlattenObject();
+    }
+
+    @Override
+    public Node<U> createSelection(Expression<U> test) {
+      return delegate.createSelection(test);
+    }
+
+    @Override
+    public Node<U> createFunctionCall(String functionName, List<? extends Expression<U>> args) {
+      return delegate.createFunctionCall(functionName, args);
+    }
+
+    @Override
+    public Node<U> createFunctionCall(Function function, List<? extends Expression<U>> args) {
+      return delegate.createFunctionCall(function, args);
+    }
+
+    @Override
+    public Node<U> createExpressionReference(Expression<U> expression) {
+      return delegate.createExpressionReference(expression);
+    }
+
+    @Override
+    public Node<U> createNegate(Expression<U> negated) {
+      return delegate.createNegate(negated);
+    }
+
+    @Override
+    public Node<U> createCreateObject(List<CreateObjectNode.Entry<U>> entries) {
+      return delegate.createCreateObject(entries);
+    }
+
+    @Override
+    public Node<U> createCreateArray(List<? extends Expression<U>> entries) {
+      return delegate.createCreateArray(entries);
+    }
+
+    @Override
+    public Node<U> createVariable(String name) {
+      return delegate.createVariable(name);
+    }
+  }
+}
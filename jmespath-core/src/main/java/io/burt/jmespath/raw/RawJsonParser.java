@@ -0,0 +1,270 @@
+package io.burt.jmespath.raw;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * A JSON parser that reads UTF-8 encoded bytes and builds the same structures
+ * as {@link io.burt.jmespath.jcf.JcfRuntime}, except that objects and arrays
+ * remember where in the input they came from.
+ */
+class RawJsonParser {
+  private final ByteBuffer source;
+  private final int limit;
+  private int offset;
+
+  private RawJsonParser(ByteBuffer source) {
+    this.source = source;
+    this.limit = source.limit();
+    this.offset = source.position();
+  }
+
+  static Object parse(ByteBuffer source) {
+    RawJsonParser parser = new RawJsonParser(source);
+    parser.skipWhitespace();
+    Object value = parser.parseValue();
+    parser.skipWhitespace();
+    if (parser.offset < parser.limit) {
+      throw parser.unexpected();
+    }
+    return value;
+  }
+
+  private Object parseValue() {
+    if (offset >= limit) {
+      throw new JmesPathException("Unexpected end of JSON input");
+    }
+    switch (source.get(offset)) {
+      case '{':
+        return parseObject();
+      case '[':
+        return parseArray();
+      case '"':
+        return parseString();
+      case 't':
+        expectLiteral("true");
+        return Boolean.TRUE;
+      case 'f':
+        expectLiteral("false");
+        return Boolean.FALSE;
+      case 'n':
+        expectLiteral("null");
+        return null;
+      default:
+        return parseNumber();
+    }
+  }
+
+  private RawObject parseObject() {
+    int start = offset++;
+    RawObject object = new RawObject();
+    skipWhitespace();
+    if (peek() == '}') {
+      offset++;
+    } else {
+      while (true) {
+        skipWhitespace();
+        if (peek() != '"') {
+          throw unexpected();
+        }
+        String key = parseString();
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        object.put(key, parseValue());
+        skipWhitespace();
+        if (peek() == ',') {
+          offset++;
+        } else {
+          expect('}');
+          break;
+        }
+      }
+    }
+    object.setSource(source, start, offset);
+    return object;
+  }
+
+  private RawArray parseArray() {
+    int start = offset++;
+    RawArray array = new RawArray();
+    skipWhitespace();
+    if (peek() == ']') {
+      offset++;
+    } else {
+      while (true) {
+        skipWhitespace();
+        array.add(parseValue());
+        skipWhitespace();
+        if (peek() == ',') {
+          offset++;
+        } else {
+          expect(']');
+          break;
+        }
+      }
+    }
+    array.setSource(source, start, offset);
+    return array;
+  }
+
+  private String parseString() {
+    int start = ++offset;
+    boolean escaped = false;
+    while (true) {
+      byte b = peek();
+      if (b == '"') {
+        break;
+      } else if (b == '\\') {
+        escaped = true;
+        offset++;
+      } else if (b >= 0 && b < 0x20) {
+        throw unexpected();
+      }
+      offset++;
+    }
+    byte[] bytes = new byte[offset - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = source.get(start + i);
+    }
+    offset++;
+    String str = new String(bytes, StandardCharsets.UTF_8);
+    return escaped ? unescape(str, start) : str;
+  }
+
+  private String unescape(String str, int start) {
+    StringBuilder unescaped = new StringBuilder(str.length());
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c != '\\') {
+        unescaped.append(c);
+        continue;
+      }
+      char e = str.charAt(++i);
+      switch (e) {
+        case '"': unescaped.append('"'); break;
+        case '\\': unescaped.append('\\'); break;
+        case '/': unescaped.append('/'); break;
+        case 'b': unescaped.append('\b'); break;
+        case 'f': unescaped.append('\f'); break;
+        case 'n': unescaped.append('\n'); break;
+        case 'r': unescaped.append('\r'); break;
+        case 't': unescaped.append('\t'); break;
+        case 'u':
+          if (i + 4 >= str.length()) {
+            throw new JmesPathException(String.format("Invalid unicode escape in string starting at offset %d", start));
+          }
+          try {
+            unescaped.append((char) Integer.parseInt(str.substring(i + 1, i + 5), 16));
+          } catch (NumberFormatException nfe) {
+            throw new JmesPathException(String.format("Invalid unicode escape in string starting at offset %d", start));
+          }
+          i += 4;
+          break;
+        default:
+          throw new JmesPathException(String.format("Invalid escape \"\\%s\" in string starting at offset %d", e, start));
+      }
+    }
+    return unescaped.toString();
+  }
+
+  private Object parseNumber() {
+    int start = offset;
+    boolean real = false;
+    if (peekOrZero() == '-') {
+      offset++;
+    }
+    int integerStart = offset;
+    while (isDigit(peekOrZero())) {
+      offset++;
+    }
+    if (offset == integerStart) {
+      throw unexpected();
+    }
+    if (peekOrZero() == '.') {
+      real = true;
+      offset++;
+      int fractionStart = offset;
+      while (isDigit(peekOrZero())) {
+        offset++;
+      }
+      if (offset == fractionStart) {
+        throw unexpected();
+      }
+    }
+    byte b = peekOrZero();
+    if (b == 'e' || b == 'E') {
+      real = true;
+      offset++;
+      b = peekOrZero();
+      if (b == '+' || b == '-') {
+        offset++;
+      }
+      int exponentStart = offset;
+      while (isDigit(peekOrZero())) {
+        offset++;
+      }
+      if (offset == exponentStart) {
+        throw unexpected();
+      }
+    }
+    StringBuilder number = new StringBuilder(offset - start);
+    for (int i = start; i < offset; i++) {
+      number.append((char) source.get(i));
+    }
+    if (real) {
+      return Double.parseDouble(number.toString());
+    } else {
+      return Long.parseLong(number.toString());
+    }
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private void expectLiteral(String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      expect(literal.charAt(i));
+    }
+  }
+
+  private void expect(char c) {
+    if (peek() != c) {
+      throw unexpected();
+    }
+    offset++;
+  }
+
+  private byte peek() {
+    if (offset >= limit) {
+      throw new JmesPathException("Unexpected end of JSON input");
+    }
+    return source.get(offset);
+  }
+
+  private byte peekOrZero() {
+    return offset < limit ? source.get(offset) : 0;
+  }
+
+  private void skipWhitespace() {
+    while (offset < limit) {
+      byte b = source.get(offset);
+      if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+        offset++;
+      } else {
+        break;
+      }
+    }
+  }
+
+  private JmesPathException unexpected() {
+    if (offset >= limit) {
+      return new JmesPathException("Unexpected end of JSON input");
+    } else {
+      return new JmesPathException(String.format("Unexpected character '%s' in JSON input at offset %d", (char) (source.get(offset) & 0xff), offset));
+    }
+  }
+}
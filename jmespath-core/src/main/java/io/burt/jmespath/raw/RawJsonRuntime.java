@@ -0,0 +1,150 @@
+package io.burt.jmespath.raw;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfNodeFactory;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.NodeFactory;
+import io.burt.jmespath.util.JsonStrings;
+
+/**
+ * A runtime for searching UTF-8 encoded JSON held in a {@link ByteBuffer},
+ * where results that are objects or arrays of the input, returned as they
+ * are, can be written out as the original bytes instead of being encoded
+ * again.
+ * <p>
+ * Values are represented the same way as in {@link JcfRuntime}, but objects
+ * and arrays parsed by this runtime remember the part of the input they were
+ * parsed from. {@link #rawSlice} returns those bytes, and
+ * {@link #writeJson(Object, OutputStream)} writes them directly, also when
+ * they are nested in objects and arrays created by the search, like in
+ * <code>{user: detail.user, request: requestParameters}</code>.
+ * <p>
+ * The slices share memory with the input, so the buffer must not be modified
+ * while results are in use, and neither must the parsed values.
+ */
+public class RawJsonRuntime extends JcfRuntime {
+  public RawJsonRuntime() {
+  }
+
+  public RawJsonRuntime(RuntimeConfiguration configuration) {
+    super(configuration);
+  }
+
+  /**
+   * Creates a {@link JcfNodeFactory}, since the parsed values are maps and
+   * lists too. Subclasses get the node factory of {@link JcfRuntime}'s
+   * subclasses.
+   */
+  @Override
+  protected NodeFactory<Object> createNodeFactory(RuntimeConfiguration configuration) {
+    if (getClass() == RawJsonRuntime.class) {
+      return new JcfNodeFactory(this, configuration.indexCache());
+    } else {
+      return super.createNodeFactory(configuration);
+    }
+  }
+
+  /**
+   * Parses the UTF-8 encoded JSON between the position and the limit of the
+   * buffer. The position of the buffer is not changed.
+   */
+  public Object parseBytes(ByteBuffer json) {
+    return RawJsonParser.parse(json.duplicate());
+  }
+
+  @Override
+  public Object parseString(String json) {
+    return parseBytes(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Returns a read only buffer with the bytes an object or array was parsed
+   * from, sharing memory with the input, or null when the value was not
+   * parsed by this runtime, for example because it was created by a
+   * projection or function.
+   */
+  public ByteBuffer rawSlice(Object value) {
+    ByteBuffer slice = writableSlice(value);
+    return slice == null ? null : slice.asReadOnlyBuffer();
+  }
+
+  private ByteBuffer writableSlice(Object value) {
+    if (value instanceof RawObject) {
+      return ((RawObject) value).slice();
+    } else if (value instanceof RawArray) {
+      return ((RawArray) value).slice();
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the value as UTF-8 encoded JSON, copying the bytes of objects and
+   * arrays that were parsed by this runtime straight from the input.
+   */
+  @Override
+  public void writeJson(Object value, OutputStream output) throws IOException {
+    BufferedOutputStream bufferedOutput = new BufferedOutputStream(output);
+    writeRawJson(value, bufferedOutput, new StringBuilder());
+    bufferedOutput.flush();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeRawJson(Object value, OutputStream output, StringBuilder scratch) throws IOException {
+    ByteBuffer slice = writableSlice(value);
+    if (slice != null) {
+      writeBytes(slice, output);
+    } else if (value instanceof Map) {
+      output.write('{');
+      boolean first = true;
+      for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+        scratch.setLength(0);
+        if (!first) {
+          scratch.append(',');
+        }
+        JsonStrings.write(toString(entry.getKey()), scratch);
+        scratch.append(':');
+        writeChars(scratch, output);
+        writeRawJson(entry.getValue(), output, scratch);
+        first = false;
+      }
+      output.write('}');
+    } else if (value instanceof Collection) {
+      output.write('[');
+      boolean first = true;
+      for (Object element : (Collection<Object>) value) {
+        if (!first) {
+          output.write(',');
+        }
+        writeRawJson(element, output, scratch);
+        first = false;
+      }
+      output.write(']');
+    } else {
+      scratch.setLength(0);
+      writeJson(value, scratch);
+      writeChars(scratch, output);
+    }
+  }
+
+  private void writeBytes(ByteBuffer bytes, OutputStream output) throws IOException {
+    if (bytes.hasArray()) {
+      output.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    } else {
+      Channels.newChannel(output).write(bytes);
+    }
+  }
+
+  private void writeChars(CharSequence chars, OutputStream output) throws IOException {
+    output.write(chars.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
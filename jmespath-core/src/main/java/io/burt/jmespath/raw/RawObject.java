@@ -0,0 +1,20 @@
+package io.burt.jmespath.raw;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+
+/**
+ * An object parsed by {@link RawJsonParser}.
+ */
+@SuppressWarnings("serial")
+class RawObject extends LinkedHashMap<Object, Object> {
+  private final transient RawValue raw = new RawValue();
+
+  void setSource(ByteBuffer source, int start, int end) {
+    raw.setSource(source, start, end);
+  }
+
+  ByteBuffer slice() {
+    return raw.slice();
+  }
+}
@@ -0,0 +1,31 @@
+package io.burt.jmespath.raw;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * The part of the input an object or array was parsed from.
+ */
+class RawValue {
+  private ByteBuffer source;
+  private int start;
+  private int end;
+
+  void setSource(ByteBuffer source, int start, int end) {
+    this.source = source;
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns a buffer sharing the bytes of the source between the start and
+   * end of the value.
+   */
+  ByteBuffer slice() {
+    ByteBuffer slice = source.duplicate();
+    // the casts make this work when compiled on newer JDKs and run on older
+    ((Buffer) slice).limit(end);
+    ((Buffer) slice).position(start);
+    return slice.slice();
+  }
+}
@@ -0,0 +1,44 @@
+package io.burt.jmespath.util;
+
+import java.io.IOException;
+
+/**
+ * Helpers for writing JSON strings.
+ */
+public class JsonStrings {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private JsonStrings() {}
+
+  /**
+   * Writes the string quoted and escaped as a JSON string. Quotes, backslashes
+   * and control characters are escaped, everything else is written as it is.
+   */
+  public static void write(CharSequence str, Appendable output) throws IOException {
+    output.append('"');
+    int offset = 0;
+    int length = str.length();
+    for (int i = 0; i < length; i++) {
+      char c = str.charAt(i);
+      if (c < 0x20 || c == '"' || c == '\\') {
+        output.append(str, offset, i);
+        output.append('\\');
+        switch (c) {
+          case '"': output.append('"'); break;
+          case '\\': output.append('\\'); break;
+          case '\b': output.append('b'); break;
+          case '\t': output.append('t'); break;
+          case '\n': output.append('n'); break;
+          case '\f': output.append('f'); break;
+          case '\r': output.append('r'); break;
+          default:
+            output.append("u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+            break;
+        }
+        offset = i + 1;
+      }
+    }
+    output.append(str, offset, length);
+    output.append('"');
+  }
+}
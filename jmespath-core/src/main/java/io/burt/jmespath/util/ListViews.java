@@ -0,0 +1,174 @@
+package io.burt.jmespath.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable views of lists that select, reverse or concatenate their
+ * elements without copying them. A view is never the list it was created
+ * from, keeps that list reachable, and reflects changes made to it.
+ * <p>
+ * Runtimes copy the views into their own arrays in
+ * {@link io.burt.jmespath.Adapter#createArray}. Runtimes whose arrays are
+ * lists, like <code>JcfRuntime</code>, only return the views as they are
+ * when {@link io.burt.jmespath.RuntimeConfiguration.Builder#withListViews}
+ * is set.
+ */
+public class ListViews {
+  private ListViews() { }
+
+  /**
+   * Returns a view of <code>count</code> elements of the list, starting at
+   * <code>start</code> and taking every <code>step</code>:th element. The step
+   * may be negative.
+   */
+  public static <T> List<T> slice(List<T> list, int start, int step, int count) {
+    if (count == 0) {
+      return new SlicedList<>(Collections.<T>emptyList(), 0, 1, 0);
+    }
+    if (list instanceof SlicedList) {
+      SlicedList<T> sliced = (SlicedList<T>) list;
+      return slice(sliced.list, sliced.start + start * sliced.step, sliced.step * step, count);
+    }
+    if (!(list instanceof RandomAccess)) {
+      list = new ArrayList<>(list);
+    }
+    return new SlicedList<>(list, start, step, count);
+  }
+
+  /**
+   * Returns a view of the list with the elements in reverse order.
+   */
+  public static <T> List<T> reverse(List<T> list) {
+    return slice(list, list.size() - 1, -1, list.size());
+  }
+
+  /**
+   * Returns a view of the elements of all of the lists, one list after the
+   * other.
+   */
+  public static <T> List<T> concatenate(List<List<T>> lists) {
+    if (lists.isEmpty()) {
+      return slice(Collections.<T>emptyList(), 0, 1, 0);
+    } else if (lists.size() == 1) {
+      return slice(lists.get(0), 0, 1, lists.get(0).size());
+    } else {
+      return new ConcatenatedList<>(lists);
+    }
+  }
+
+  /**
+   * Returns true when the collection is a view created by this class.
+   */
+  public static boolean isView(Collection<?> collection) {
+    return collection instanceof SlicedList || collection instanceof ConcatenatedList;
+  }
+
+  private static class SlicedList<T> extends AbstractList<T> implements RandomAccess {
+    private final List<T> list;
+    private final int start;
+    private final int step;
+    private final int size;
+
+    SlicedList(List<T> list, int start, int step, int size) {
+      this.list = list;
+      this.start = start;
+      this.step = step;
+      this.size = size;
+    }
+
+    @Override
+    public T get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+      }
+      return list.get(start + index * step);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static class ConcatenatedList<T> extends AbstractList<T> implements RandomAccess {
+    private final List<List<T>> lists;
+    private final int[] ends;
+
+    ConcatenatedList(List<List<T>> lists) {
+      this.lists = new ArrayList<>(lists.size());
+      this.ends = new int[lists.size()];
+      int end = 0;
+      for (List<T> list : lists) {
+        if (!(list instanceof RandomAccess)) {
+          list = new ArrayList<>(list);
+        }
+        end += list.size();
+        ends[this.lists.size()] = end;
+        this.lists.add(list);
+      }
+    }
+
+    @Override
+    public T get(int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size()));
+      }
+      int low = 0;
+      int high = ends.length - 1;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (ends[middle] <= index) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      int offset = low == 0 ? 0 : ends[low - 1];
+      return lists.get(low).get(index - offset);
+    }
+
+    @Override
+    public int size() {
+      return ends[ends.length - 1];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private final Iterator<List<T>> remainingLists = lists.iterator();
+        private Iterator<T> elements = Collections.<T>emptyList().iterator();
+
+        @Override
+        public boolean hasNext() {
+          while (!elements.hasNext()) {
+            if (!remainingLists.hasNext()) {
+              return false;
+            }
+            elements = remainingLists.next().iterator();
+          }
+          return true;
+        }
+
+        @Override
+        public T next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return elements.next();
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+}
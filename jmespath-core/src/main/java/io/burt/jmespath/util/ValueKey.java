@@ -0,0 +1,56 @@
+package io.burt.jmespath.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+
+/**
+ * Converts values to keys that are equal, and have the same hash code, exactly
+ * when the values are equal according to JMESPath, so that values of any
+ * runtime can be used in hash based collections.
+ * <p>
+ * Numbers become {@link Double}, strings {@link String}, booleans
+ * {@link Boolean}, arrays lists of keys, objects maps from property name to
+ * key, and null a special marker object.
+ */
+public class ValueKey {
+  private static final Object NULL_KEY = new Object() {
+    @Override
+    public String toString() {
+      return "null";
+    }
+  };
+
+  private ValueKey() { }
+
+  public static <T> Object of(Adapter<T> runtime, T value) {
+    switch (runtime.typeOf(value)) {
+      case NULL:
+        return NULL_KEY;
+      case BOOLEAN:
+        return runtime.isTruthy(value);
+      case NUMBER:
+        return runtime.toNumber(value).doubleValue();
+      case STRING:
+        return runtime.toString(value);
+      case ARRAY:
+        List<T> elements = runtime.toList(value);
+        List<Object> elementKeys = new ArrayList<>(elements.size());
+        for (T element : elements) {
+          elementKeys.add(of(runtime, element));
+        }
+        return elementKeys;
+      case OBJECT:
+        Map<String, Object> propertyKeys = new HashMap<>();
+        for (T name : runtime.getPropertyNames(value)) {
+          propertyKeys.put(runtime.toString(name), of(runtime, runtime.getProperty(value, name)));
+        }
+        return propertyKeys;
+      default:
+        throw new IllegalStateException(String.format("Unknown value type encountered: %s", value.getClass().getName()));
+    }
+  }
+}
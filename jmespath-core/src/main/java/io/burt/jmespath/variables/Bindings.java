@@ -0,0 +1,170 @@
+package io.burt.jmespath.variables;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+
+/**
+ * Values for the variables, like <code>$owner</code>, of parameterised
+ * expressions.
+ * <p>
+ * The values are converted to the runtime's representation when the bindings
+ * are built, so a set of bindings can be reused for many searches, and each
+ * variable is converted once no matter how many times the expression evaluates
+ * it, for example once per element in a selection.
+ * <p>
+ * Bindings apply to the searches run with {@link #search} on the current
+ * thread, and are immutable.
+ */
+public class Bindings<T> {
+  private static final ThreadLocal<Bindings<?>> currentBindings = new ThreadLocal<>();
+
+  private final Map<String, T> values;
+
+  private Bindings(Map<String, T> values) {
+    this.values = values;
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime) {
+    return new Builder<>(runtime);
+  }
+
+  /**
+   * Creates bindings from a map of Java values, see
+   * {@link Builder#withValue}.
+   */
+  public static <U> Bindings<U> of(Adapter<U> runtime, Map<String, ?> values) {
+    Builder<U> builder = builder(runtime);
+    for (Map.Entry<String, ?> entry : values.entrySet()) {
+      builder.withValue(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns the names of the bound variables, without the leading "$".
+   */
+  public Collection<String> names() {
+    return Collections.unmodifiableSet(values.keySet());
+  }
+
+  public boolean isBound(String name) {
+    return values.containsKey(name);
+  }
+
+  /**
+   * Searches the input with the expression, with the variables it refers to
+   * bound to these values. Searches can be nested, in which case the
+   * innermost bindings apply until it returns.
+   */
+  public T search(Expression<T> expression, T input) {
+    Bindings<?> previous = currentBindings.get();
+    currentBindings.set(this);
+    try {
+      return expression.search(input);
+    } finally {
+      if (previous == null) {
+        currentBindings.remove();
+      } else {
+        currentBindings.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Returns the value bound to the variable in the search running on the
+   * current thread.
+   *
+   * @throws UnboundVariableException when the variable is not bound, or when
+   *   the search was not started with bindings
+   */
+  @SuppressWarnings("unchecked")
+  public static <U> U currentValue(String name) {
+    Bindings<?> bindings = currentBindings.get();
+    if (bindings != null) {
+      Object value = bindings.values.get(name);
+      if (value != null || bindings.values.containsKey(name)) {
+        return (U) value;
+      }
+    }
+    throw new UnboundVariableException(name);
+  }
+
+  public static class Builder<T> {
+    protected final Adapter<T> runtime;
+    protected final Map<String, T> values;
+
+    public Builder(Adapter<T> runtime) {
+      this.runtime = runtime;
+      this.values = new HashMap<>();
+    }
+
+    public Bindings<T> build() {
+      return new Bindings<>(new HashMap<>(values));
+    }
+
+    /**
+     * Binds a variable to a Java value, which is converted to the runtime's
+     * representation. Strings, numbers, booleans, null, maps, collections and
+     * arrays of these are supported.
+     *
+     * @throws IllegalArgumentException when the value can't be converted
+     */
+    public Builder<T> withValue(String name, Object value) {
+      values.put(name, convert(value));
+      return this;
+    }
+
+    /**
+     * Binds a variable to a value that already is in the runtime's
+     * representation, for example a value returned by another search.
+     */
+    public Builder<T> withRuntimeValue(String name, T value) {
+      values.put(name, value);
+      return this;
+    }
+
+    private T convert(Object value) {
+      if (value == null) {
+        return runtime.createNull();
+      } else if (value instanceof CharSequence || value instanceof Character) {
+        return runtime.createString(value.toString());
+      } else if (value instanceof Boolean) {
+        return runtime.createBoolean((Boolean) value);
+      } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+        return runtime.createNumber(((Number) value).longValue());
+      } else if (value instanceof Number) {
+        return runtime.createNumber(((Number) value).doubleValue());
+      } else if (value instanceof Map) {
+        Map<T, T> object = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          object.put(runtime.createString(String.valueOf(entry.getKey())), convert(entry.getValue()));
+        }
+        return runtime.createObject(object);
+      } else if (value instanceof Collection) {
+        List<T> array = new ArrayList<>(((Collection<?>) value).size());
+        for (Object element : (Collection<?>) value) {
+          array.add(convert(element));
+        }
+        return runtime.createArray(array);
+      } else if (value.getClass().isArray()) {
+        int length = Array.getLength(value);
+        List<T> array = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+          array.add(convert(Array.get(value, i)));
+        }
+        return runtime.createArray(array);
+      } else {
+        throw new IllegalArgumentException(String.format("Cannot bind a value of type %s", value.getClass().getName()));
+      }
+    }
+  }
+}
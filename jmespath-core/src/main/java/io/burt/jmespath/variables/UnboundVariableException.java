@@ -0,0 +1,22 @@
+package io.burt.jmespath.variables;
+
+import io.burt.jmespath.JmesPathException;
+
+/**
+ * Thrown when an expression refers to a variable that has no value in the
+ * bindings of the search.
+ */
+@SuppressWarnings("serial")
+public class UnboundVariableException extends JmesPathException {
+  private final String name;
+
+  public UnboundVariableException(String name) {
+    super(String.format("Variable $%s is not bound", name));
+    this.name = name;
+  }
+
+  /** Returns the name of the variable, without the leading "$" */
+  public String name() {
+    return name;
+  }
+}
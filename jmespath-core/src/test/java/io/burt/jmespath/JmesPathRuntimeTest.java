@@ -7,18 +7,30 @@ import org.hamcrest.Matcher;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.parser.ParseException;
 import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.limits.LimitExceededException;
+import io.burt.jmespath.limits.LimitedExpression;
+import io.burt.jmespath.variables.Bindings;
+import io.burt.jmespath.variables.UnboundVariableException;
 
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -499,6 +511,29 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonArrayOfStrings("Alice", "Bob")));
   }
 
+  @Test
+  public void withAnIndexCacheEqualityFiltersSelectTheSameElements() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withIndexCache(new IndexCache(1000)).build());
+    T input = parse("[{\"id\":\"a\",\"n\":0},{\"id\":1,\"n\":1},{\"n\":2},{\"id\":\"b\",\"n\":3},{\"id\":\"a\",\"n\":4},{\"id\":1.0,\"n\":5},{\"id\":[1],\"n\":6},{\"id\":null,\"n\":7},{\"id\":true,\"n\":8}]");
+    List<String> expressions = Arrays.asList("[?id == 'a'].n", "[?id == `1`].n", "[?id == null].n", "[?'b' == id].n", "[?id == `true`].n", "[?id == 'c'].n", "[?id == `[1]`].n");
+    for (String expression : expressions) {
+      assertThat(rt.compile(expression).search(input), is(search(expression, input)));
+    }
+    assertThat(rt.compile("[?id == 'a'].n").search(input), is(parse("[0, 4]")));
+  }
+
+  @Test
+  public void withAnIndexCacheRepeatedEqualityFiltersOfTheSameArrayUseTheIndex() {
+    IndexCache indexCache = new IndexCache(1000);
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withIndexCache(indexCache).build());
+    T input = parse("[{\"id\":\"a\"},{\"id\":\"b\"},{\"id\":\"c\"},{\"id\":\"d\"},{\"id\":\"e\"},{\"id\":\"f\"},{\"id\":\"g\"},{\"id\":\"h\"}]");
+    assertThat(rt.compile("[?id == 'c']").search(input), is(parse("[{\"id\":\"c\"}]")));
+    assertThat(rt.compile("[?id == 'h']").search(input), is(parse("[{\"id\":\"h\"}]")));
+    assertThat(rt.compile("[?id == 'a']").search(input), is(parse("[{\"id\":\"a\"}]")));
+    assertThat(indexCache.size(), is(1));
+    assertThat(indexCache.hits(), is(1L));
+  }
+
   @Test
   public void compareEqualityWhenEqualProducesTrue() {
     T result = search("Records[0].userIdentity.userName == Records[2].userIdentity.userName", cloudtrail);
@@ -607,6 +642,24 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonBoolean(true)));
   }
 
+  @Test
+  public void comparisonsWithALiteralOnEitherSideCompareInTheSameDirection() {
+    T input = parse("[{\"n\":1},{\"n\":2.5},{\"n\":3},{\"n\":\"3\"},{}]");
+    assertThat(search("[?n > `2`].n", input), is(parse("[2.5, 3]")));
+    assertThat(search("[?`2` > n].n", input), is(parse("[1]")));
+    assertThat(search("[?n <= `3.0`].n", input), is(parse("[1, 2.5, 3]")));
+    assertThat(search("[?`3` == n].n", input), is(parse("[3]")));
+    assertThat(search("[?n != `3`].n", input), is(parse("[1, 2.5, \"3\"]")));
+  }
+
+  @Test
+  public void comparisonsWithAStringLiteralOnlyCompareEquality() {
+    T input = parse("[{\"s\":\"a\"},{\"s\":\"b\"},{\"s\":1}]");
+    assertThat(search("[?s == 'a'].s", input), is(parse("[\"a\"]")));
+    assertThat(search("[?'b' != s].s", input), is(parse("[\"a\", 1]")));
+    assertThat(search("[0].s > 'a'", input), is(jsonNull()));
+  }
+
   @Test
   public void compareGtWithNonNumberProducesNull() {
     T result = search("Records[1].responseElements.instancesSet.items[0] | previousState > currentState", cloudtrail);
@@ -956,6 +1009,12 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonNumber(2.1)));
   }
 
+  @Test
+  public void avgOfAProjectionReturnsTheAverageOfTheProjectedNumbers() {
+    T result = search("avg(foo[].bar)", parse("{\"foo\":[[{\"bar\":1}],[{\"bar\":2},{\"bar\":6}]]}"));
+    assertThat(result, is(jsonNumber(3)));
+  }
+
   @Test
   public void avgReturnsNullWhenGivenAnEmptyArray() {
     T result = search("avg(`[]`)", parse("{}"));
@@ -1010,6 +1069,19 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonBoolean(false)));
   }
 
+  @Test
+  public void containsUsesJmesPathEqualityForNumbers() {
+    T result = search("contains(@, `2`)", parse("[1, 2.0, 3]"));
+    assertThat(result, is(jsonBoolean(true)));
+  }
+
+  @Test
+  public void containsLooksUpValuesInLiteralArrays() {
+    String expression = "[?contains(`[\"us-east-1\", 2, {\"a\": [1]}, null]`, @)]";
+    T result = search(expression, parse("[\"us-east-1\", \"eu-west-1\", 2.0, {\"a\": [1.0]}, {\"a\": [2]}, null, \"2\"]"));
+    assertThat(result, is(parse("[\"us-east-1\", 2.0, {\"a\": [1.0]}, null]")));
+  }
+
   @Test
   public void containsSearchesInStrings() {
     T result = search("contains('hello', 'hell')", parse("{}"));
@@ -1499,6 +1571,12 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result, is(jsonString("d")));
   }
 
+  @Test
+  public void maxOfAProjectionReturnsTheGreatestProjectedValue() {
+    T result = search("max(foo[*].bar)", parse("{\"foo\":[{\"bar\":\"b\"},{\"bar\":\"c\"},{\"bar\":\"a\"}]}"));
+    assertThat(result, is(jsonString("c")));
+  }
+
   @Test
   public void maxReturnsNullWhenGivenAnEmptyArray() {
     T result = search("max(`[]`)", parse("{}"));
@@ -1729,6 +1807,16 @@ public abstract class JmesPathRuntimeTest<T> {
     }
   }
 
+  @Test
+  public void minOfAProjectionRequiresTheElementsToBeOfTheSameType() {
+    try {
+      search("min(foo[*].bar)", parse("{\"foo\":[{\"bar\":\"a\"},{\"bar\":1}]}"));
+      fail("Expected ArgumentTypeException to have been thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), containsString("expected array of number or string but was array containing string and number"));
+    }
+  }
+
   @Test
   public void minRequiresExactlyOneArgument() {
     try {
@@ -2226,6 +2314,51 @@ public abstract class JmesPathRuntimeTest<T> {
     }
   }
 
+  @Test
+  public void sumUsesCompensatedSummation() {
+    T result = search("sum(`[0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1]`)", parse("{}"));
+    assertThat(result, is(jsonNumber(1.0)));
+  }
+
+  @Test
+  public void sumOfAProjectionSkipsNullValues() {
+    T result = search("sum(foo[*].bar)", parse("{\"foo\":[{\"bar\":1},{\"baz\":2},{\"bar\":3.5}]}"));
+    assertThat(result, is(jsonNumber(4.5)));
+  }
+
+  @Test
+  public void sumOfAProjectionOfAnEmptyArrayIsZero() {
+    T result = search("sum(foo[*].bar)", parse("{\"foo\":[]}"));
+    assertThat(result, is(jsonNumber(0)));
+  }
+
+  @Test
+  public void sumOfAProjectionRequiresAnArrayOfNumbers() {
+    try {
+      search("sum(foo[*].bar)", parse("{\"foo\":[{\"bar\":1},{\"bar\":\"2\"},{\"bar\":3}]}"));
+      fail("Expected ArgumentTypeException to have been thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), containsString("expected array of number but was array containing number and string"));
+    }
+  }
+
+  @Test
+  public void sumOfAProjectionOfANonArrayRequiresAnArray() {
+    try {
+      search("sum(foo[*].bar)", parse("{\"foo\":{\"bar\":1}}"));
+      fail("Expected ArgumentTypeException to have been thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), containsString("expected array of number but was null"));
+    }
+  }
+
+  @Test
+  public void withSilentTypeErrorsTheWrongTypeOfArgumentMakesAggregatesOfProjectionsReturnNull() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withSilentTypeErrors(true).build());
+    T result = rt.compile("max(foo[*].bar)").search(parse("{\"foo\":[{\"bar\":1},{\"bar\":\"2\"}]}"));
+    assertThat(result, is(jsonNull()));
+  }
+
   @Test
   public void toArrayReturnsASingletonArrayWithTheArgument() {
     T result = search("to_array(`34`)", parse("{}"));
@@ -2509,6 +2642,142 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(search("join('', c) == 'foo'", input), is(jsonBoolean(true)));
   }
 
+  @Test
+  public void searchesWithinTheEvaluationLimitsReturnTheResult() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxProjectedElements(8).withMaxResultElements(8).build()).build());
+    T result = rt.compile("[*][*].a").search(parse("[[{\"a\":1},{\"a\":2},{\"a\":3}],[{\"a\":4},{\"a\":5},{\"a\":6}]]"));
+    assertThat(result, is(parse("[[1,2,3],[4,5,6]]")));
+  }
+
+  @Test
+  public void projectionsThatExceedTheProjectedElementsLimitAreAborted() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxProjectedElements(7).build()).build());
+    try {
+      rt.compile("[*][*].a").search(parse("[[{\"a\":1},{\"a\":2},{\"a\":3}],[{\"a\":4},{\"a\":5},{\"a\":6}]]"));
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.PROJECTED_ELEMENTS));
+      assertThat(lee.getMessage(), containsString("exceeded the projected elements limit of 7"));
+    }
+  }
+
+  @Test
+  public void selectionsThatExceedTheNodeEvaluationsLimitAreAborted() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxNodeEvaluations(3).build()).build());
+    try {
+      rt.compile("[?a > `1`]").search(parse("[{\"a\":1},{\"a\":2},{\"a\":3},{\"a\":4}]"));
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.NODE_EVALUATIONS));
+    }
+  }
+
+  @Test
+  public void functionsWithExpressionReferencesAreChargedForTheElementsOfTheirArguments() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxNodeEvaluations(3).build()).build());
+    T input = parse("[{\"a\":4},{\"a\":2},{\"a\":3},{\"a\":1}]");
+    assertThat(rt.compile("length(@)").search(input), is(jsonNumber(4)));
+    try {
+      rt.compile("sort_by(@, &a)").search(input);
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.NODE_EVALUATIONS));
+    }
+  }
+
+  @Test
+  public void containsWithALiteralArrayIsChargedForEachLookup() {
+    String expression = "[contains(`[1, 2]`, a), contains(`[1, 2]`, b)]";
+    T input = parse("{\"a\":2,\"b\":3}");
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxNodeEvaluations(4).build()).build());
+    assertThat(rt.compile(expression).search(input), is(parse("[true, false]")));
+    rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxNodeEvaluations(3).build()).build());
+    try {
+      rt.compile(expression).search(input);
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.NODE_EVALUATIONS));
+    }
+  }
+
+  @Test
+  public void multiSelectsAreChargedForTheirEntries() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxResultElements(3).build()).build());
+    T input = parse("{\"a\":1,\"b\":2}");
+    assertThat(rt.compile("[a, b, a]").search(input), is(parse("[1, 2, 1]")));
+    for (String expression : Arrays.asList("[a, b, a, b]", "{a: a, b: b, c: a, d: b}", "[[a, b], {a: a}]")) {
+      try {
+        rt.compile(expression).search(input);
+        fail("Expected LimitExceededException to have been thrown");
+      } catch (LimitExceededException lee) {
+        assertThat(lee.limit(), is(EvaluationLimits.Limit.RESULT_ELEMENTS));
+      }
+    }
+  }
+
+  @Test
+  public void flattensThatExceedTheResultElementsLimitAreAborted() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxResultElements(3).build()).build());
+    try {
+      rt.compile("[]").search(parse("[[1,2],[3,4]]"));
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.RESULT_ELEMENTS));
+    }
+  }
+
+  @Test
+  public void searchesThatExceedTheMaxDurationAreAborted() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxDuration(1, TimeUnit.NANOSECONDS).build()).build());
+    try {
+      rt.compile("[*].a").search(parse("[{\"a\":1}]"));
+      fail("Expected LimitExceededException to have been thrown");
+    } catch (LimitExceededException lee) {
+      assertThat(lee.limit(), is(EvaluationLimits.Limit.DURATION));
+    }
+  }
+
+  @Test
+  public void limitsForASingleSearchOverrideTheLimitsOfTheRuntime() {
+    Adapter<T> rt = createRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxProjectedElements(1).build()).build());
+    EvaluationLimits limits = EvaluationLimits.builder().withMaxProjectedElements(2).build();
+    T result = new LimitedExpression<>(rt.compile("[*].a"), limits).search(parse("[{\"a\":1},{\"a\":2}]"));
+    assertThat(result, is(parse("[1,2]")));
+  }
+
+  @Test
+  public void variablesAreBoundForEachSearch() {
+    Expression<T> expression = runtime().compile("items[?owner == $owner && price > $minPrice].id");
+    T input = parse("{\"items\":[{\"id\":1,\"owner\":\"acme\",\"price\":150},{\"id\":2,\"owner\":\"acme\",\"price\":50},{\"id\":3,\"owner\":\"initech\",\"price\":200}]}");
+    Map<String, Object> values = new HashMap<>();
+    values.put("owner", "acme");
+    values.put("minPrice", 100);
+    assertThat(Bindings.of(runtime(), values).search(expression, input), is(parse("[1]")));
+    Bindings<T> bindings = Bindings.builder(runtime()).withValue("owner", "initech").withValue("minPrice", 100.5).build();
+    assertThat(bindings.search(expression, input), is(parse("[3]")));
+  }
+
+  @Test
+  public void variablesCanBeBoundToObjectsAndArrays() {
+    Map<String, Object> user = new HashMap<>();
+    user.put("name", "alice");
+    user.put("roles", Arrays.asList("admin", null, true));
+    Bindings<T> bindings = Bindings.builder(runtime()).withValue("user", user).withRuntimeValue("limit", parse("2")).build();
+    assertThat(bindings.search(runtime().compile("[$user.name, $user.roles, $limit]"), parse("{}")), is(parse("[\"alice\", [\"admin\", null, true], 2]")));
+  }
+
+  @Test
+  public void searchingWithAnUnboundVariableThrowsUnboundVariableException() {
+    Expression<T> expression = runtime().compile("[?owner == $owner]");
+    try {
+      expression.search(parse("[{\"owner\":\"acme\"}]"));
+      fail("Expected UnboundVariableException to have been thrown");
+    } catch (UnboundVariableException uve) {
+      assertThat(uve.name(), is("owner"));
+      assertThat(uve.getMessage(), containsString("$owner"));
+    }
+  }
+
   @Test
   public void toListReturnsAListWhenGivenAnArray() {
     List<T> list = runtime().toList(parse("[1, 2, 3]"));
@@ -2559,4 +2828,52 @@ public abstract class JmesPathRuntimeTest<T> {
     assertThat(result1, is(not(0)));
     assertThat(result2, is(not(0)));
   }
+
+  @Test
+  public void writeJsonWritesTheSameJsonAsToString() throws IOException {
+    T value = parse("{\"foo\": [1, 2.5, [\"bar\"], false, {}], \"bar\": null, \"baz\": {\"a\\nb\": \"\\\"c\\\"\"}}");
+    StringWriter writer = new StringWriter();
+    runtime().writeJson(value, writer);
+    assertThat(writer.toString(), is(runtime().toString(value)));
+    StringBuilder builder = new StringBuilder();
+    runtime().writeJson(value, builder);
+    assertThat(builder.toString(), is(runtime().toString(value)));
+  }
+
+  @Test
+  public void writeJsonQuotesStrings() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    runtime().writeJson(runtime().createString("\"Hello\"\nwo\r\\ld\t"), builder);
+    assertThat(builder.toString(), is("\"\\\"Hello\\\"\\nwo\\r\\\\ld\\t\""));
+  }
+
+  @Test
+  public void writeJsonWritesUtf8ToAStream() throws IOException {
+    T value = parse("[\"h\u00e9llo \u2603\", 3]");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    runtime().writeJson(value, output);
+    assertThat(parse(new String(output.toByteArray(), StandardCharsets.UTF_8)), is(value));
+    assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8), containsString("h\u00e9llo \u2603"));
+  }
+
+  @Test
+  public void arrayBuilderBuildsAnArrayOfTheAddedElements() {
+    ArrayBuilder<T> builder = runtime().arrayBuilder(1);
+    builder.add(parse("1"));
+    builder.add(parse("\"two\""));
+    builder.add(parse("[3]"));
+    assertThat(builder.build(), is(parse("[1, \"two\", [3]]")));
+    assertThat(runtime().arrayBuilder(0).build(), is(parse("[]")));
+  }
+
+  @Test
+  public void objectBuilderKeepsThePositionOfPropertiesThatAreSetAgain() {
+    ObjectBuilder<T> builder = runtime().objectBuilder(2);
+    builder.put(runtime().createString("one"), parse("1"));
+    builder.put(runtime().createString("two"), parse("2"));
+    builder.put(runtime().createString("one"), parse("3"));
+    T object = builder.build();
+    assertThat(object, is(parse("{\"one\": 3, \"two\": 2}")));
+    assertThat(runtime().toList(object), is(Arrays.asList(parse("3"), parse("2"))));
+  }
 }
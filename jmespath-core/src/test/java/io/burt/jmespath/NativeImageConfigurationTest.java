@@ -0,0 +1,71 @@
+package io.burt.jmespath;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertNotNull;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.startsWith;
+
+public class NativeImageConfigurationTest {
+  private static final String CONFIGURATION_PATH = "META-INF/native-image/io.burt/jmespath-core/";
+
+  private InputStream resource(String name) {
+    InputStream stream = getClass().getClassLoader().getResourceAsStream(CONFIGURATION_PATH + name);
+    assertNotNull(String.format("Expected %s%s to exist", CONFIGURATION_PATH, name), stream);
+    return stream;
+  }
+
+  private void assertClassOrPackageExists(String name) {
+    // The ANTLR runtime is only relocated when the jar is packaged
+    name = name.replace("io.burt.jmespath.antlr.", "org.antlr.");
+    try {
+      Class.forName(name, false, getClass().getClassLoader());
+    } catch (ClassNotFoundException cnfe) {
+      assertNotNull(String.format("Expected %s to be a class or package", name), getClass().getClassLoader().getResource(name.replace('.', '/')));
+    }
+  }
+
+  @Test
+  public void classesInitializedAtBuildTimeExist() throws IOException {
+    Properties properties = new Properties();
+    try (InputStream stream = resource("native-image.properties")) {
+      properties.load(stream);
+    }
+    String args = properties.getProperty("Args");
+    assertThat(args, startsWith("--initialize-at-build-time="));
+    for (String name : args.substring(args.indexOf('=') + 1).split(",")) {
+      assertClassOrPackageExists(name.trim());
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void classesRegisteredForReflectionExist() throws IOException {
+    StringBuilder json = new StringBuilder();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource("reflect-config.json"), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        json.append(line);
+      }
+    }
+    Adapter<Object> runtime = new JcfRuntime();
+    List<Object> names = (List<Object>) runtime.compile("[*].name").search(runtime.parseString(json.toString()));
+    assertThat(names, is(not(empty())));
+    for (Object name : names) {
+      assertClassOrPackageExists((String) name);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package io.burt.jmespath.async;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.limits.LimitExceededException;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class AsyncExpressionTest {
+  private final BlockingFunction blockingFunction = new BlockingFunction();
+  private final FunctionRegistry functionRegistry = FunctionRegistry.defaultRegistry().extend(blockingFunction);
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(functionRegistry).build());
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Object input = runtime.parseString("{\"foo\":[1,2,3,4,5,6,7,8,9,10]}");
+
+  private static class BlockingFunction extends BaseFunction {
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch released = new CountDownLatch(1);
+
+    public BlockingFunction() {
+      super("blocking", ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      calls.incrementAndGet();
+      started.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+      return arguments.get(0).value();
+    }
+  }
+
+  private static class RecordingCallback implements SearchCallback<Object> {
+    final CountDownLatch done = new CountDownLatch(1);
+    final AtomicReference<Object> result = new AtomicReference<>();
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    @Override
+    public void onSuccess(Object r) {
+      result.set(r);
+      done.countDown();
+    }
+
+    @Override
+    public void onFailure(Throwable e) {
+      error.set(e);
+      done.countDown();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    blockingFunction.released.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void returnsAFutureForTheResult() throws Exception {
+    AsyncExpression<Object> expression = new AsyncExpression<>(runtime.compile("foo[?@ > `8`]"), executor);
+    assertThat(expression.search(input).get(), is(runtime.parseString("[9,10]")));
+  }
+
+  @Test
+  public void reportsTheResultToTheCallback() throws Exception {
+    AsyncExpression<Object> expression = new AsyncExpression<>(runtime.compile("max(foo)"), executor);
+    RecordingCallback callback = new RecordingCallback();
+    expression.search(input, callback);
+    assertThat(callback.done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(callback.result.get(), is(runtime.parseString("10")));
+  }
+
+  @Test
+  public void reportsErrorsToTheCallbackAndTheFuture() throws Exception {
+    AsyncExpression<Object> expression = new AsyncExpression<>(runtime.compile("abs(@)"), executor);
+    RecordingCallback callback = new RecordingCallback();
+    Future<Object> future = expression.search(input, callback);
+    try {
+      future.get();
+      fail("Expected ExecutionException to have been thrown");
+    } catch (ExecutionException ee) {
+      assertThat(ee.getCause(), is(instanceOf(ArgumentTypeException.class)));
+    }
+    assertThat(callback.done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(callback.error.get(), is(instanceOf(ArgumentTypeException.class)));
+  }
+
+  @Test
+  public void cancellingTheFutureStopsTheRunningSearch() throws Exception {
+    AsyncExpression<Object> expression = new AsyncExpression<>(runtime.compile("foo[*].blocking(@)"), executor);
+    RecordingCallback callback = new RecordingCallback();
+    Future<Object> future = expression.search(input, callback);
+    assertThat(blockingFunction.started.await(10, TimeUnit.SECONDS), is(true));
+    future.cancel(false);
+    blockingFunction.released.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+    assertThat(blockingFunction.calls.get(), is(1));
+    assertThat(future.isCancelled(), is(true));
+    assertThat(callback.error.get(), is(instanceOf(CancellationException.class)));
+  }
+
+  @Test
+  public void theLimitsOfTheRuntimeStillApply() throws Exception {
+    Adapter<Object> limitedRuntime = new JcfRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxProjectedElements(5).build()).build());
+    AsyncExpression<Object> expression = new AsyncExpression<>(limitedRuntime.compile("foo[*]"), executor);
+    try {
+      expression.search(input).get();
+      fail("Expected ExecutionException to have been thrown");
+    } catch (ExecutionException ee) {
+      assertThat(ee.getCause(), is(instanceOf(LimitExceededException.class)));
+    }
+  }
+}
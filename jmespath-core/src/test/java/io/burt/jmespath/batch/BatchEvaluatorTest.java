@@ -0,0 +1,151 @@
+package io.burt.jmespath.batch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class BatchEvaluatorTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final Expression<Object> expression = runtime.compile("user.name");
+
+  private Callable<Object> loader(final String json) {
+    return new Callable<Object>() {
+      @Override
+      public Object call() {
+        return runtime.parseString(json);
+      }
+    };
+  }
+
+  private List<Callable<Object>> loaders(int count) {
+    List<Callable<Object>> loaders = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      loaders.add(loader(String.format("{\"user\":{\"name\":\"user-%d\"}}", i)));
+    }
+    return loaders;
+  }
+
+  @Test
+  public void returnsTheResultsInTheOrderOfTheInput() throws Exception {
+    List<BatchResult<Object>> results = BatchEvaluator.builder(expression).build().load(loaders(500));
+    assertThat(results.size(), is(500));
+    for (int i = 0; i < results.size(); i++) {
+      assertThat(results.get(i).index(), is(i));
+      assertThat(results.get(i).isSuccess(), is(true));
+      assertThat(results.get(i).value(), is((Object) String.format("user-%d", i)));
+    }
+  }
+
+  @Test
+  public void searchesDocumentsThatAreAlreadyLoaded() throws Exception {
+    List<Object> inputs = Arrays.asList(runtime.parseString("{\"user\":{\"name\":\"a\"}}"), runtime.parseString("{\"user\":{\"name\":\"b\"}}"));
+    List<BatchResult<Object>> results = BatchEvaluator.builder(expression).build().search(inputs);
+    assertThat(results.get(0).value(), is((Object) "a"));
+    assertThat(results.get(1).value(), is((Object) "b"));
+  }
+
+  @Test
+  public void capturesErrorsForEachDocument() throws Exception {
+    List<Callable<Object>> loaders = loaders(3);
+    loaders.add(1, new Callable<Object>() {
+      @Override
+      public Object call() throws IOException {
+        throw new IOException("No such file");
+      }
+    });
+    loaders.add(3, loader("{\"user\":{\"name\":\"x\"}"));
+    List<BatchResult<Object>> results = BatchEvaluator.builder(runtime.compile("abs(user.name)")).build().load(loaders);
+    assertThat(results.size(), is(5));
+    assertThat(results.get(1).error(), is(instanceOf(IOException.class)));
+    assertThat(results.get(3).isSuccess(), is(false));
+    assertThat(results.get(4).error(), is(instanceOf(ArgumentTypeException.class)));
+    try {
+      results.get(1).value();
+      fail("Expected BatchItemException to have been thrown");
+    } catch (BatchItemException bie) {
+      assertThat(bie.index(), is(1));
+      assertThat(bie.getMessage(), containsString("No such file"));
+      assertThat(bie.getCause(), is(instanceOf(IOException.class)));
+    }
+  }
+
+  @Test
+  public void loadsDocumentsConcurrently() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(4);
+    List<Callable<Object>> loaders = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      loaders.add(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          latch.countDown();
+          if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Documents were not loaded concurrently");
+          }
+          return runtime.parseString("{\"user\":{\"name\":\"concurrent\"}}");
+        }
+      });
+    }
+    List<BatchResult<Object>> results = BatchEvaluator.builder(expression).withMaxConcurrency(4).build().load(loaders);
+    for (BatchResult<Object> result : results) {
+      assertThat(result.value(), is((Object) "concurrent"));
+    }
+  }
+
+  @Test
+  public void limitsTheNumberOfConcurrentDocuments() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable<Object>> loaders = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      loaders.add(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          int current = running.incrementAndGet();
+          int max;
+          while ((max = maxRunning.get()) < current && !maxRunning.compareAndSet(max, current)) { }
+          Thread.sleep(2);
+          running.decrementAndGet();
+          return runtime.parseString("{}");
+        }
+      });
+    }
+    BatchEvaluator.builder(expression).withMaxConcurrency(3).build().load(loaders);
+    assertThat(maxRunning.get(), is(lessThanOrEqualTo(3)));
+  }
+
+  @Test
+  public void usesTheGivenExecutorWithoutShuttingItDown() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      BatchEvaluator<Object> evaluator = BatchEvaluator.builder(expression).withExecutor(executor).build();
+      List<BatchResult<Object>> results1 = evaluator.load(loaders(2));
+      List<BatchResult<Object>> results2 = evaluator.load(loaders(1));
+      assertThat(results1.get(1).value(), is((Object) "user-1"));
+      assertThat(results2.get(0).value(), is((Object) "user-0"));
+      assertThat(executor.isShutdown(), is(false));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
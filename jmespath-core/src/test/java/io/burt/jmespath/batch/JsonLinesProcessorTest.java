@@ -0,0 +1,156 @@
+package io.burt.jmespath.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class JsonLinesProcessorTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final Expression<Object> expression = runtime.compile("user.name");
+
+  private String lines(int count) {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 1; i <= count; i++) {
+      if (i % 7 == 0) {
+        lines.append("{\"user\":{}}\n");
+      } else {
+        lines.append(String.format("{\"user\":{\"name\":\"user-%d\"}}\n", i));
+      }
+    }
+    return lines.toString();
+  }
+
+  private InputStream stream(String str) {
+    return new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<Long> lineNumbers(long count) {
+    List<Long> lineNumbers = new ArrayList<>();
+    for (long i = 1; i <= count; i++) {
+      lineNumbers.add(i);
+    }
+    return lineNumbers;
+  }
+
+  private static class CollectingSink implements ResultSink<Object> {
+    final List<Long> lineNumbers = new ArrayList<>();
+    final List<Object> results = new ArrayList<>();
+
+    @Override
+    public void accept(long lineNumber, Object result) {
+      lineNumbers.add(lineNumber);
+      results.add(result);
+    }
+  }
+
+  @Test
+  public void passesTheResultsToTheSinkInTheOrderOfTheInput() throws IOException {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, expression).withThreads(4).withChunkSize(3).withMaxChunksInFlight(5).build();
+    CollectingSink sink = new CollectingSink();
+    long count = processor.process(stream(lines(1000)), sink);
+    assertThat(count, is(1000L));
+    assertThat(sink.lineNumbers, is(lineNumbers(1000)));
+    assertThat(sink.results.get(0), is((Object) "user-1"));
+    assertThat(sink.results.get(6), is(runtime.createNull()));
+    assertThat(sink.results.get(999), is((Object) "user-1000"));
+  }
+
+  @Test
+  public void passesAllResultsToTheSinkWhenOutputIsUnordered() throws IOException {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, expression).withThreads(4).withChunkSize(3).withUnorderedOutput().build();
+    CollectingSink sink = new CollectingSink();
+    processor.process(stream(lines(1000)), sink);
+    List<Long> lineNumbers = new ArrayList<>(sink.lineNumbers);
+    Collections.sort(lineNumbers);
+    assertThat(lineNumbers, is(lineNumbers(1000)));
+  }
+
+  @Test
+  public void skipsEmptyLinesAndOptionallyNullResults() throws IOException {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, expression).withChunkSize(2).withNullResultsSkipped().build();
+    CollectingSink sink = new CollectingSink();
+    processor.process(stream("{\"user\":{\"name\":\"a\"}}\n\n{}\n  \n{\"user\":{\"name\":\"b\"}}"), sink);
+    assertThat(sink.lineNumbers, is(Arrays.asList(1L, 5L)));
+    assertThat(sink.results, is(Arrays.<Object>asList("a", "b")));
+  }
+
+  @Test
+  public void reportsTheLineNumberOfLinesThatCannotBeParsed() throws IOException {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, expression).withThreads(2).withChunkSize(10).build();
+    try {
+      processor.process(stream(lines(100) + "{\"user\":\n" + lines(100)), new CollectingSink());
+      fail("Expected JsonLinesException to have been thrown");
+    } catch (JsonLinesException jle) {
+      assertThat(jle.lineNumber(), is(101L));
+      assertThat(jle.getMessage(), containsString("line 101"));
+    }
+  }
+
+  @Test
+  public void stopsWhenTheSinkFails() {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, expression).withChunkSize(10).build();
+    final List<Long> lineNumbers = new ArrayList<>();
+    try {
+      processor.process(stream(lines(1000)), new ResultSink<Object>() {
+        @Override
+        public void accept(long lineNumber, Object result) throws IOException {
+          if (lineNumber == 42) {
+            throw new IOException("Disk full");
+          }
+          lineNumbers.add(lineNumber);
+        }
+      });
+      fail("Expected IOException to have been thrown");
+    } catch (IOException ioe) {
+      assertThat(ioe.getMessage(), is("Disk full"));
+      assertThat(lineNumbers, is(lineNumbers(41)));
+    }
+  }
+
+  @Test
+  public void writesTheResultsOfAFileAsJsonLines() throws IOException {
+    Path path = Files.createTempFile("jmespath", ".ndjson");
+    try {
+      Files.write(path, "{\"user\":{\"name\":\"a\\\"b\"}}\n{\"user\":{\"name\":[1,{\"x\":true}]}}\n{}\n".getBytes(StandardCharsets.UTF_8));
+      StringWriter writer = new StringWriter();
+      long count = JsonLinesProcessor.builder(runtime, expression).build().process(path, new JsonLinesWriter<>(runtime, writer));
+      assertThat(count, is(3L));
+      assertThat(writer.toString(), is("\"a\\\"b\"\n[1,{\"x\":true}]\nnull\n"));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void wrapsErrorsFromTheExpression() throws IOException {
+    JsonLinesProcessor<Object> processor = JsonLinesProcessor.builder(runtime, runtime.compile("abs(user)")).build();
+    try {
+      processor.process(stream("{\"user\":1}\n{\"user\":\"x\"}\n"), new CollectingSink());
+      fail("Expected JsonLinesException to have been thrown");
+    } catch (JsonLinesException jle) {
+      assertThat(jle.lineNumber(), is(2L));
+      assertThat(jle.getCause(), is(instanceOf(ArgumentTypeException.class)));
+    }
+  }
+}
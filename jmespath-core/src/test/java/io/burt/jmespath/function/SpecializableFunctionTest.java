@@ -0,0 +1,120 @@
+package io.burt.jmespath.function;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.FunctionCallNode;
+import io.burt.jmespath.node.JsonLiteralNode;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.PropertyNode;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class SpecializableFunctionTest {
+  private final CountingFunction countingFunction = new CountingFunction("counting", false);
+  private final CountingFunction pureCountingFunction = new CountingFunction("pure_counting", true);
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder()
+    .withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(countingFunction, pureCountingFunction, new IdentityFunction()))
+    .build());
+
+  private static class CountingFunction extends BaseFunction {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public CountingFunction(String name, boolean pure) {
+      super(name, ArgumentConstraints.anyValue(), pure);
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      calls.incrementAndGet();
+      return arguments.get(0).value();
+    }
+  }
+
+  private static class DoubleFunction extends MathFunction {
+    @Override
+    protected double performMathOperation(double n) {
+      return n * 2;
+    }
+  }
+
+  private static class IdentityFunction extends BaseFunction {
+    public IdentityFunction() {
+      super(ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Node<T> specialize(Adapter<T> runtime, List<? extends Expression<T>> arguments) {
+      if (arguments.get(0) instanceof PropertyNode) {
+        return (Node<T>) arguments.get(0);
+      } else {
+        return null;
+      }
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      return arguments.get(0).value();
+    }
+  }
+
+  @Test
+  public void callsToPureFunctionsWithLiteralArgumentsAreEvaluatedWhenCompiled() {
+    Expression<Object> expression = runtime.compile("length('hello')");
+    assertThat(expression, is(instanceOf(JsonLiteralNode.class)));
+    assertThat(expression.search(null), is((Object) 5L));
+    assertThat(expression, is(runtime.compile("`5`")));
+    assertThat(expression.toString(), is("JsonLiteral(5)"));
+  }
+
+  @Test
+  public void callsWithArgumentsThatAreNotLiteralsAreNotEvaluatedWhenCompiled() {
+    assertThat(runtime.compile("length(@)"), is(instanceOf(FunctionCallNode.class)));
+  }
+
+  @Test
+  public void callsThatFailFailWhenTheyAreEvaluated() {
+    Expression<Object> expression = runtime.compile("abs('hello')");
+    try {
+      expression.search(null);
+      fail("Expected ArgumentTypeException to have been thrown");
+    } catch (ArgumentTypeException ate) {
+      assertThat(ate.getMessage(), is("Invalid argument type calling \"abs\": expected number but was string"));
+    }
+  }
+
+  @Test
+  public void functionsAreNotPureUnlessTheySayTheyAre() {
+    Expression<Object> impure = runtime.compile("counting('hello')");
+    Expression<Object> pure = runtime.compile("pure_counting('hello')");
+    impure.search(null);
+    impure.search(null);
+    pure.search(null);
+    pure.search(null);
+    assertThat(countingFunction.calls.get(), is(2));
+    assertThat(pureCountingFunction.calls.get(), is(1));
+  }
+
+  @Test
+  public void subclassesOfBuiltInBaseClassesAreNotPure() {
+    assertThat(new DoubleFunction().isPure(), is(false));
+    assertThat(new AbsFunction().isPure(), is(true));
+    assertThat(new MaxByFunction().isPure(), is(true));
+  }
+
+  @Test
+  public void functionsCanReplaceTheirCalls() {
+    assertThat(runtime.compile("identity(foo)"), is(instanceOf(PropertyNode.class)));
+    assertThat(runtime.compile("identity(@)"), is(instanceOf(FunctionCallNode.class)));
+  }
+}
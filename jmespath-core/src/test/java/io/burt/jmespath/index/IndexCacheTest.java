@@ -0,0 +1,140 @@
+package io.burt.jmespath.index;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.IndexedSelectionNode;
+import io.burt.jmespath.util.ValueKey;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
+public class IndexCacheTest {
+  private final IndexCache indexCache = new IndexCache(20);
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withIndexCache(indexCache).build());
+
+  private Object users(int count) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      json.append(String.format("{\"id\":\"u-%d\",\"name\":\"User %d\"},", i, i));
+    }
+    json.setLength(json.length() - 1);
+    return runtime.parseString(json.append(']').toString());
+  }
+
+  @Test
+  public void onlyEqualityFiltersWithALiteralAreIndexed() {
+    assertThat(runtime.compile("[?id == 'u-1']"), is(instanceOf(IndexedSelectionNode.class)));
+    assertThat(runtime.compile("[?`1` == id]"), is(instanceOf(IndexedSelectionNode.class)));
+    assertThat(runtime.compile("[?id == name]"), is(not(instanceOf(IndexedSelectionNode.class))));
+    assertThat(runtime.compile("[?id != 'u-1']"), is(not(instanceOf(IndexedSelectionNode.class))));
+    assertThat(new JcfRuntime().compile("[?id == 'u-1']"), is(not(instanceOf(IndexedSelectionNode.class))));
+  }
+
+  @Test
+  public void arraysAreIndexedTheSecondTimeTheyAreLookedUp() {
+    Expression<Object> expression = runtime.compile("[?id == 'u-1'].name");
+    Object input = users(8);
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(indexCache.size(), is(0));
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(indexCache.size(), is(1));
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(indexCache.hits(), is(1L));
+  }
+
+  @Test
+  public void arraysCreatedDuringTheSearchAreNotIndexed() {
+    Expression<Object> expression = runtime.compile("[0:8] | [?id == 'u-1'].name");
+    Object input = users(10);
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(indexCache.size(), is(0));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  @SuppressWarnings("unchecked")
+  public void lookupsReturnUnmodifiableViewsOfTheIndex() {
+    Expression<Object> keyExpression = runtime.compile("id");
+    Object input = users(8);
+    indexCache.lookup(runtime, input, keyExpression, ValueKey.of(runtime, "u-1"));
+    List<Object> matches = indexCache.lookup(runtime, input, keyExpression, ValueKey.of(runtime, "u-1"));
+    assertThat(matches, is(runtime.parseString("[{\"id\":\"u-1\",\"name\":\"User 1\"}]")));
+    assertThat(indexCache.size(), is(1));
+    matches.clear();
+  }
+
+  @Test
+  public void smallArraysAreNotIndexed() {
+    Object input = users(IndexCache.MIN_INDEXED_SIZE - 1);
+    assertThat(runtime.compile("[?id == 'u-1'].name").search(input), is(runtime.parseString("[\"User 1\"]")));
+    assertThat(indexCache.size(), is(0));
+  }
+
+  @Test
+  public void indexesAreKeyedByArrayAndKeyExpression() {
+    Object input1 = users(8);
+    Object input2 = users(8);
+    runtime.compile("[?id == 'u-1']").search(input1);
+    runtime.compile("[?id == 'u-2']").search(input1);
+    runtime.compile("[?id == 'u-3']").search(input1);
+    runtime.compile("[?name == 'User 2']").search(input1);
+    runtime.compile("[?name == 'User 3']").search(input1);
+    runtime.compile("[?name == 'User 4']").search(input1);
+    runtime.compile("[?id == 'u-1']").search(input2);
+    runtime.compile("[?id == 'u-1']").search(input2);
+    assertThat(indexCache.hits(), is(2L));
+    assertThat(indexCache.misses(), is(6L));
+    assertThat(indexCache.size(), is(2));
+  }
+
+  @Test
+  public void theLeastRecentlyUsedIndexesAreEvictedToStayWithinTheBound() {
+    Expression<Object> expression = runtime.compile("[?id == 'u-1']");
+    Object input1 = users(8);
+    Object input2 = users(8);
+    Object input3 = users(8);
+    expression.search(input1);
+    expression.search(input1);
+    expression.search(input2);
+    expression.search(input2);
+    expression.search(input1);
+    expression.search(input3);
+    expression.search(input3);
+    assertThat(indexCache.size(), is(2));
+    assertThat(indexCache.indexedElements(), is(16L));
+    expression.search(input1);
+    assertThat(indexCache.hits(), is(2L));
+  }
+
+  @Test
+  public void arraysLargerThanTheBoundAreNotIndexed() {
+    Object input = users(21);
+    assertThat(runtime.compile("[?id == 'u-20'].name").search(input), is(runtime.parseString("[\"User 20\"]")));
+    assertThat(indexCache.size(), is(0));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void invalidatedIndexesAreRebuilt() {
+    Expression<Object> expression = runtime.compile("[?id == 'u-100'].name");
+    Object input = users(10);
+    assertThat(expression.search(input), is(runtime.parseString("[]")));
+    assertThat(expression.search(input), is(runtime.parseString("[]")));
+    ((Map<String, Object>) ((List<Object>) input).get(0)).put("id", "u-100");
+    assertThat(expression.search(input), is(runtime.parseString("[]")));
+    indexCache.invalidate(input);
+    assertThat(indexCache.size(), is(0));
+    assertThat(expression.search(input), is(runtime.parseString("[\"User 0\"]")));
+    indexCache.invalidateAll();
+    assertThat(indexCache.indexedElements(), is(0L));
+  }
+}
@@ -0,0 +1,12 @@
+package io.burt.jmespath.jcf;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+
+public class JcfFixedShapeComplianceTest extends JmesPathComplianceTest<Object> {
+  private Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withFixedShapeObjects(true).build());
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
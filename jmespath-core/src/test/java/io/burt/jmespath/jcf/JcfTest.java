@@ -1,6 +1,8 @@
 package io.burt.jmespath.jcf;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -9,9 +11,15 @@ import org.junit.Test;
 import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.node.MembershipNode;
+import io.burt.jmespath.util.ListViews;
 
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class JcfTest extends JmesPathRuntimeTest<Object> {
   @Override
@@ -22,4 +30,80 @@ public class JcfTest extends JmesPathRuntimeTest<Object> {
     List<Object> list = runtime().toList(Collections.singleton(parse("1")));
     assertThat(list, is(Arrays.asList(parse("1"))));
   }
+
+  @Test
+  public void compilesWithTheSpecializedNodeFactory() {
+    assertThat(runtime().nodeFactory(), is(instanceOf(JcfNodeFactory.class)));
+  }
+
+  @Test
+  public void subclassesCompileWithNodesThatUseTheirOverrides() {
+    JcfRuntime upperCaseRuntime = new JcfRuntime() {
+      @Override
+      public Object getProperty(Object value, Object name) {
+        Object property = super.getProperty(value, name);
+        return property instanceof String ? ((String) property).toUpperCase() : property;
+      }
+    };
+    assertThat(upperCaseRuntime.nodeFactory(), is(not(instanceOf(JcfNodeFactory.class))));
+    assertThat(upperCaseRuntime.compile("foo[*].bar").search(parse("{\"foo\":[{\"bar\":\"baz\"}]}")), is(parse("[\"BAZ\"]")));
+  }
+
+  @Test
+  public void projectsCollectionsThatAreNotLists() {
+    Object input = Collections.singleton(parse("{\"a\":[1,2]}"));
+    assertThat((List<?>) runtime().compile("[*].a[-1]").search(input), contains(parse("2")));
+  }
+
+  @Test
+  public void multiSelectHashesCreateFixedShapeMapsWhenEnabled() {
+    JcfRuntime fixedShapeRuntime = new JcfRuntime(RuntimeConfiguration.builder().withFixedShapeObjects(true).build());
+    Object result = fixedShapeRuntime.compile("[*].{b: b, a: a, b: c}").search(parse("[{\"a\":1,\"b\":2,\"c\":3},{\"a\":4}]"));
+    List<?> objects = (List<?>) result;
+    assertThat(objects.get(0), is(instanceOf(FixedShapeMap.class)));
+    Map<Object, Object> expected = new LinkedHashMap<>();
+    expected.put("b", 3L);
+    expected.put("a", 1L);
+    assertThat(objects.get(0), is((Object) expected));
+    assertThat(((Map<?, ?>) objects.get(0)).keySet(), contains((Object) "b", "a"));
+    assertThat(((Map<?, ?>) objects.get(1)).containsKey("b"), is(true));
+    assertThat(((Map<?, ?>) objects.get(1)).get("b"), is((Object) null));
+    assertThat(fixedShapeRuntime.toString(result), is("[{\"b\":3,\"a\":1},{\"b\":null,\"a\":4}]"));
+  }
+
+  @Test
+  public void multiSelectHashesCreateOrdinaryMapsByDefault() {
+    Object result = runtime().compile("{a: a}").search(parse("{\"a\":1}"));
+    assertThat(result, is(not(instanceOf(FixedShapeMap.class))));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void slicesReverseAndFlattenCreateNewListsByDefault() {
+    Object input = parse("{\"foo\":[1,2,3]}");
+    Object foo = ((Map<?, ?>) input).get("foo");
+    for (String expression : Arrays.asList("foo[:]", "foo[]", "reverse(reverse(foo))", "foo[0:2]")) {
+      Object result = runtime().compile(expression).search(input);
+      assertThat(result, is(not(sameInstance(foo))));
+      ((List<Object>) result).add(4L);
+    }
+    assertThat(foo, is(parse("[1,2,3]")));
+  }
+
+  @Test
+  public void slicesReverseAndFlattenCreateViewsWhenEnabled() {
+    JcfRuntime viewsRuntime = new JcfRuntime(RuntimeConfiguration.builder().withListViews(true).build());
+    Object input = parse("{\"foo\":[1,2,3]}");
+    Object result = viewsRuntime.compile("foo[:]").search(input);
+    assertThat(ListViews.isView((List<?>) result), is(true));
+    assertThat(result, is(not(sameInstance(((Map<?, ?>) input).get("foo")))));
+    assertThat(result, is(parse("[1,2,3]")));
+  }
+
+  @Test
+  public void containsWithALiteralArrayIsCompiledToAMembershipNode() {
+    assertThat(runtime().compile("contains(`[1, 2]`, @)"), is(instanceOf(MembershipNode.class)));
+    assertThat(runtime().compile("contains(@, `1`)"), is(not(instanceOf(MembershipNode.class))));
+    assertThat(runtime().compile("contains(`\"ab\"`, @)"), is(not(instanceOf(MembershipNode.class))));
+  }
 }
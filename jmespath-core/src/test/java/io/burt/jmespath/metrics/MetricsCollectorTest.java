@@ -0,0 +1,129 @@
+package io.burt.jmespath.metrics;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.SharedNode;
+import io.burt.jmespath.node.SharingNodeFactory;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.both;
+
+public class MetricsCollectorTest {
+  private final MetricsCollector collector = new MetricsCollector(true);
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withExpressionListener(collector).build());
+
+  @Test
+  public void expressionsAreNotInstrumentedByDefault() {
+    Expression<Object> expression = new JcfRuntime().compile("foo");
+    assertThat(expression, is(instanceOf(Node.class)));
+  }
+
+  @Test
+  public void expressionsAreInstrumentedWhenAListenerIsConfigured() {
+    Expression<Object> expression = runtime.compile("foo");
+    assertThat(expression, is(instanceOf(InstrumentedExpression.class)));
+  }
+
+  @Test
+  public void recordsInvocationsAndSizesPerExpression() {
+    Expression<Object> expression = runtime.compile("foo[*].bar");
+    Object input = runtime.parseString("{\"foo\":[{\"bar\":1},{\"bar\":2},{}],\"baz\":3}");
+    expression.search(input);
+    expression.search(input);
+    runtime.compile("baz").search(input);
+    ExpressionMetrics metrics = collector.metrics("foo[*].bar");
+    assertThat(metrics.invocations(), is(2L));
+    assertThat(metrics.errors(), is(0L));
+    assertThat(metrics.latency().count(), is(2L));
+    assertThat(metrics.inputSize().max(), is(2L));
+    assertThat(metrics.outputSize().max(), is(2L));
+    assertThat(collector.metrics("baz").invocations(), is(1L));
+    assertThat(collector.allMetrics(), hasSize(2));
+  }
+
+  @Test
+  public void sizesAreNotMeasuredByDefault() {
+    MetricsCollector defaultCollector = new MetricsCollector();
+    Adapter<Object> defaultRuntime = new JcfRuntime(RuntimeConfiguration.builder().withExpressionListener(defaultCollector).build());
+    defaultRuntime.compile("foo").search(defaultRuntime.parseString("{\"foo\":[1,2]}"));
+    ExpressionMetrics metrics = defaultCollector.metrics("foo");
+    assertThat(metrics.invocations(), is(1L));
+    assertThat(metrics.inputSize().count(), is(0L));
+    assertThat(metrics.outputSize().count(), is(0L));
+  }
+
+  @Test
+  public void instrumentedExpressionsKeepTheirInstrumentationWhenShared() {
+    SharingNodeFactory<Object> nodeFactory = new SharingNodeFactory<>(runtime);
+    Expression<Object> expression = nodeFactory.shareRoot(runtime.compile("foo"));
+    assertThat(expression, is(instanceOf(InstrumentedExpression.class)));
+    assertThat(((InstrumentedExpression<Object>) expression).expression(), is(instanceOf(SharedNode.class)));
+    Object input = runtime.parseString("{\"foo\":1}");
+    nodeFactory.beginSearch(input);
+    try {
+      assertThat(expression.search(input), is((Object) 1L));
+    } finally {
+      nodeFactory.endSearch();
+    }
+    assertThat(collector.metrics("foo").invocations(), is(1L));
+  }
+
+  @Test
+  public void recordsErrorsAndRethrowsTheException() {
+    Expression<Object> expression = runtime.compile("abs(foo)");
+    try {
+      expression.search(runtime.parseString("{\"foo\":\"bar\"}"));
+      fail("Expected ArgumentTypeException to have been thrown");
+    } catch (ArgumentTypeException ate) {
+      ExpressionMetrics metrics = collector.metrics("abs(foo)");
+      assertThat(metrics.invocations(), is(1L));
+      assertThat(metrics.errors(), is(1L));
+      assertThat(metrics.outputSize().count(), is(0L));
+    }
+  }
+
+  @Test
+  public void resetForgetsAllMetrics() {
+    runtime.compile("foo").search(runtime.parseString("{}"));
+    collector.reset();
+    assertThat(collector.metrics("foo"), is(nullValue()));
+  }
+
+  @Test
+  public void histogramPercentilesAreWithinTheBucketPrecision() {
+    Histogram histogram = new Histogram();
+    for (long i = 1; i <= 10000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertThat(histogram.count(), is(10000L));
+    assertThat(histogram.max(), is(10000000L));
+    assertThat(histogram.valueAtPercentile(50), is(both(greaterThanOrEqualTo(5000000L)).and(lessThanOrEqualTo(5312500L))));
+    assertThat(histogram.valueAtPercentile(99), is(both(greaterThanOrEqualTo(9900000L)).and(lessThanOrEqualTo(10000000L))));
+    assertThat(histogram.valueAtPercentile(100), is(10000000L));
+  }
+
+  @Test
+  public void histogramRecordsSmallValuesExactly() {
+    Histogram histogram = new Histogram();
+    histogram.record(0);
+    histogram.record(3);
+    histogram.record(7);
+    assertThat(histogram.valueAtPercentile(0), is(0L));
+    assertThat(histogram.valueAtPercentile(50), is(3L));
+    assertThat(histogram.valueAtPercentile(100), is(7L));
+    assertThat(histogram.mean(), is(10.0 / 3));
+  }
+}
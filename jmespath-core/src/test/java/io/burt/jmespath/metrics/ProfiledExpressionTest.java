@@ -0,0 +1,119 @@
+package io.burt.jmespath.metrics;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.ProfiledNode;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ProfiledExpressionTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final Object input = runtime.parseString("{\"foo\":[{\"bar\":1,\"baz\":\"a\"},{\"bar\":2,\"baz\":\"b\"},{\"bar\":3,\"baz\":\"c\"}]}");
+
+  @Test
+  public void returnsTheSameResultAsTheUnprofiledExpression() {
+    String expression = "sort_by(foo[?bar > `1`], &bar)[*].baz";
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, expression);
+    assertThat(profiled.search(input), is(runtime.compile(expression).search(input)));
+    assertThat(profiled.toString(), is(runtime.compile(expression).toString()));
+  }
+
+  @Test
+  public void recordsInvocationsAndElementCountsPerNode() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "foo[?bar > `1`].baz");
+    profiled.search(input);
+    profiled.search(input);
+    ProfiledNode<Object> root = profiled.root();
+    assertThat(root.label(), is("Sequence"));
+    assertThat(root.invocations(), is(2L));
+    assertThat(root.children(), hasSize(2));
+    ProfiledNode<Object> selection = root.children().get(1).children().get(0);
+    assertThat(selection.label(), is("Selection"));
+    assertThat(selection.invocations(), is(2L));
+    assertThat(selection.elementsIn(), is(6L));
+    assertThat(selection.elementsOut(), is(4L));
+    ProfiledNode<Object> projection = root.children().get(1).children().get(1);
+    assertThat(projection.label(), is("Projection"));
+    assertThat(projection.elementsIn(), is(4L));
+    assertThat(projection.elementsOut(), is(4L));
+    assertThat(projection.children().get(0).invocations(), is(4L));
+    ProfiledNode<Object> comparison = selection.children().get(0);
+    assertThat(comparison.label(), is("Comparison(GREATER_THAN)"));
+    assertThat(comparison.invocations(), is(6L));
+  }
+
+  @Test
+  public void onlyCountsTheElementsOfArrays() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "*.bar");
+    profiled.search(runtime.parseString("{\"a\":{\"bar\":1},\"b\":{\"bar\":2}}"));
+    ProfiledNode<Object> flatten = profiled.root().children().get(0);
+    assertThat(flatten.label(), is("FlattenObject"));
+    assertThat(flatten.elementsIn(), is(0L));
+    assertThat(flatten.elementsOut(), is(2L));
+  }
+
+  @Test
+  public void selfTimeExcludesTheTimeSpentInChildren() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "foo[*].bar");
+    for (int i = 0; i < 100; i++) {
+      profiled.search(input);
+    }
+    ProfiledNode<Object> root = profiled.root();
+    assertThat(root.totalNanos(), is(greaterThan(0L)));
+    assertThat(root.selfNanos(), is(lessThanOrEqualTo(root.totalNanos())));
+    long childNanos = 0;
+    for (ProfiledNode<Object> child : root.children()) {
+      childNanos += child.totalNanos();
+    }
+    assertThat(root.selfNanos(), is(root.totalNanos() - childNanos));
+  }
+
+  @Test
+  public void profilesExpressionsReferencedByFunctions() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "max_by(foo, &bar)");
+    profiled.search(input);
+    ProfiledNode<Object> function = profiled.root();
+    assertThat(function.label(), is("FunctionCall(max_by)"));
+    assertThat(function.children(), hasSize(2));
+    assertThat(function.children().get(1).label(), is("Property(bar)"));
+    assertThat(function.children().get(1).invocations(), is(3L));
+  }
+
+  @Test
+  public void onlyProfilesTheSampledEvaluations() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "foo", 0.0);
+    for (int i = 0; i < 100; i++) {
+      profiled.search(input);
+    }
+    assertThat(profiled.sampledInvocations(), is(0L));
+    assertThat(profiled.search(input), is(runtime.compile("foo").search(input)));
+  }
+
+  @Test
+  public void explainRendersTheAnnotatedNodeTree() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "foo[*].bar");
+    profiled.search(input);
+    String explanation = profiled.explain();
+    assertThat(explanation, startsWith("foo[*].bar\n  Sequence calls=1 total="));
+    assertThat(explanation, containsString("\n    Projection calls=1 total="));
+    assertThat(explanation, containsString(" in=3 out=3\n"));
+    assertThat(explanation, containsString("\n      Property(bar) calls=3 total="));
+  }
+
+  @Test
+  public void resetForgetsTheRecordedValues() {
+    ProfiledExpression<Object> profiled = ProfiledExpression.compile(runtime, "foo[*].bar");
+    profiled.search(input);
+    profiled.reset();
+    assertThat(profiled.sampledInvocations(), is(0L));
+    assertThat(profiled.root().children().get(1).elementsIn(), is(0L));
+  }
+}
@@ -9,6 +9,7 @@ import io.burt.jmespath.Adapter;
 import io.burt.jmespath.Expression;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.node.AggregateNode;
 import io.burt.jmespath.node.CreateObjectNode;
 import io.burt.jmespath.node.Node;
 import io.burt.jmespath.node.Operator;
@@ -20,6 +21,7 @@ import io.burt.jmespath.function.FunctionArgument;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.containsString;
 
 public class ParserTest {
@@ -101,6 +103,10 @@ public class ParserTest {
     return runtime.nodeFactory().createJsonLiteral(json);
   }
 
+  private Node<Object> Variable(String name) {
+    return runtime.nodeFactory().createVariable(name);
+  }
+
   private Node<Object> Sequence(Node<Object> first, Node<Object> second) {
     return runtime.nodeFactory().createSequence(Arrays.asList(first, second));
   }
@@ -402,6 +408,31 @@ public class ParserTest {
     assertThat(actual, is(expected));
   }
 
+  @Test
+  public void selectionWithVariableExpression() {
+    Expression<Object> expected = Sequence(
+      Property("foo"),
+      Selection(
+        Comparison("==",
+          Property("bar"),
+          Variable("baz")
+        )
+      )
+    );
+    Expression<Object> actual = compile("foo[?bar == $baz]");
+    assertThat(actual, is(expected));
+  }
+
+  @Test
+  public void chainedVariableExpression() {
+    Expression<Object> expected = Sequence(
+      Variable("foo"),
+      Property("bar")
+    );
+    Expression<Object> actual = compile("$foo.bar");
+    assertThat(actual, is(expected));
+  }
+
   @Test
   public void bareSelection() {
     Expression<Object> expected = Selection(
@@ -442,6 +473,21 @@ public class ParserTest {
     assertThat(actual, is(expected));
   }
 
+  @Test
+  public void aggregateFunctionCallWithProjectionExpression() {
+    Expression<Object> expected = FunctionCall("sum",
+      Arrays.asList(
+        Sequence(
+          Property("foo"),
+          Projection(Property("bar"))
+        )
+      )
+    );
+    Expression<Object> actual = compile("sum(foo[*].bar)");
+    assertThat(actual, is(expected));
+    assertThat(actual, is(instanceOf(AggregateNode.class)));
+  }
+
   @Test
   public void chainedFunctionCallExpression() {
     Expression<Object> expected = Sequence(
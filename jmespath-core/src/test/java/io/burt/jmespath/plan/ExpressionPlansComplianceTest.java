@@ -0,0 +1,41 @@
+package io.burt.jmespath.plan;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+public class ExpressionPlansComplianceTest extends JmesPathComplianceTest<Object> {
+  /**
+   * Compiles each expression into a plan and returns the expression loaded
+   * from it, after checking that it is equal to the compiled expression.
+   */
+  private static class PlanRoundTripRuntime extends JcfRuntime {
+    @Override
+    public Expression<Object> compile(String rawExpression) {
+      Expression<Object> compiledExpression = super.compile(rawExpression);
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      Expression<Object> loadedExpression;
+      try {
+        ExpressionPlans.write(this, Collections.singletonList(rawExpression), output);
+        loadedExpression = ExpressionPlans.read(this, new ByteArrayInputStream(output.toByteArray())).get(rawExpression);
+      } catch (IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+      if (!loadedExpression.equals(compiledExpression)) {
+        throw new AssertionError(String.format("Expected <%s> to be loaded as <%s>", loadedExpression, compiledExpression));
+      }
+      return loadedExpression;
+    }
+  }
+
+  private Adapter<Object> runtime = new PlanRoundTripRuntime();
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
@@ -0,0 +1,156 @@
+package io.burt.jmespath.plan;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.limits.EvaluationLimits;
+import io.burt.jmespath.limits.LimitedExpression;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class ExpressionPlansTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final List<String> rawExpressions = Arrays.asList(
+    "detail.user.id",
+    "Records[?eventName == 'PutObject' && size > `100`].{key: s3.key, user: userIdentity.arn}",
+    "sort_by(people, &age)[-1:0:-2].name | [0]",
+    "items[*].tags[] | length(@)",
+    "!(a || b) && c.*.d[0] != `{\"x\": [1, 2]}`",
+    "[?owner == $owner]"
+  );
+
+  private byte[] write(Adapter<Object> rt, List<String> expressions) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ExpressionPlans.write(rt, expressions, output);
+    return output.toByteArray();
+  }
+
+  private Map<String, Expression<Object>> read(Adapter<Object> rt, byte[] plan) throws IOException {
+    return ExpressionPlans.read(rt, new ByteArrayInputStream(plan));
+  }
+
+  @Test
+  public void loadedExpressionsAreEqualToCompiledExpressions() throws IOException {
+    Map<String, Expression<Object>> expressions = read(runtime, write(runtime, rawExpressions));
+    assertThat(expressions.keySet(), contains(rawExpressions.toArray()));
+    for (String rawExpression : rawExpressions) {
+      assertThat(expressions.get(rawExpression), is(runtime.compile(rawExpression)));
+    }
+  }
+
+  @Test
+  public void loadedExpressionsAreWrappedLikeCompiledExpressions() throws IOException {
+    Adapter<Object> limitedRuntime = new JcfRuntime(RuntimeConfiguration.builder().withEvaluationLimits(EvaluationLimits.builder().withMaxProjectedElements(10).build()).build());
+    Expression<Object> expression = read(limitedRuntime, write(runtime, rawExpressions)).get("detail.user.id");
+    assertThat(expression, is(instanceOf(LimitedExpression.class)));
+  }
+
+  @Test
+  public void plansThatDoNotMatchTheirChecksumAreRejected() throws IOException {
+    byte[] plan = write(runtime, rawExpressions);
+    plan[plan.length / 2] ^= 0x10;
+    try {
+      read(runtime, plan);
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("checksum"));
+    }
+  }
+
+  @Test
+  public void plansWithAnotherVersionOrMagicNumberAreRejected() throws IOException {
+    byte[] plan = write(runtime, rawExpressions);
+    plan[5] = (byte) (ExpressionPlans.VERSION + 1);
+    try {
+      read(runtime, plan);
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("Unsupported plan version"));
+    }
+    try {
+      read(runtime, "{\"not\": \"a plan\"}".getBytes("UTF-8"));
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("not an expression plan"));
+    }
+    try {
+      read(runtime, Arrays.copyOf(write(runtime, rawExpressions), 20));
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("truncated"));
+    }
+  }
+
+  @Test
+  public void plansWithALengthLongerThanTheInputAreRejected() throws IOException {
+    byte[] plan = write(runtime, rawExpressions);
+    plan[6] = (byte) 0x7f;
+    plan[7] = (byte) 0xff;
+    plan[8] = (byte) 0xff;
+    plan[9] = (byte) 0xff;
+    try {
+      read(runtime, plan);
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("truncated"));
+    }
+  }
+
+  @Test
+  public void plansThatCallFunctionsTheRuntimeDoesNotHaveAreRejected() throws IOException {
+    Adapter<Object> extendedRuntime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(
+      new BaseFunction("answer", ArgumentConstraints.anyValue()) {
+        protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) { return runtime.createNumber(42L); }
+      }
+    )).build());
+    byte[] plan = write(extendedRuntime, Arrays.asList("answer(@)"));
+    assertThat(read(extendedRuntime, plan).get("answer(@)").search(null), is((Object) 42L));
+    try {
+      read(runtime, plan);
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("unknown function \"answer\""));
+    }
+  }
+
+  @Test
+  public void plansWithCountsThatDoNotFitInAnIntAreRejected() throws IOException {
+    byte[] body = {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f};
+    CRC32 checksum = new CRC32();
+    checksum.update(body);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    DataOutputStream dataOutput = new DataOutputStream(output);
+    dataOutput.writeInt(ExpressionPlans.MAGIC);
+    dataOutput.writeShort(ExpressionPlans.VERSION);
+    dataOutput.writeInt(body.length);
+    dataOutput.writeInt((int) checksum.getValue());
+    dataOutput.write(body);
+    try {
+      read(runtime, output.toByteArray());
+      fail("Expected PlanFormatException to have been thrown");
+    } catch (PlanFormatException pfe) {
+      assertThat(pfe.getMessage(), containsString("corrupt"));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.burt.jmespath.plan;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.function.ArgumentConstraints;
+import io.burt.jmespath.function.BaseFunction;
+import io.burt.jmespath.function.FunctionArgument;
+import io.burt.jmespath.function.FunctionRegistry;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
+
+public class ExpressionSetTest {
+  private final CountingFunction countingFunction = new CountingFunction();
+  private final Adapter<Object> runtime = new JcfRuntime(RuntimeConfiguration.builder().withFunctionRegistry(FunctionRegistry.defaultRegistry().extend(countingFunction)).build());
+  private final Object input = runtime.parseString("{\"detail\":{\"user\":{\"id\":\"u-1\",\"roles\":[\"admin\",\"dev\"]},\"request\":{\"path\":\"/\",\"sizes\":[1,2,3]}}}");
+
+  private static class CountingFunction extends BaseFunction {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public CountingFunction() {
+      super("counting", ArgumentConstraints.anyValue());
+    }
+
+    @Override
+    protected <T> T callFunction(Adapter<T> runtime, List<FunctionArgument<T>> arguments) {
+      calls.incrementAndGet();
+      return arguments.get(0).value();
+    }
+  }
+
+  @Test
+  public void returnsTheResultsOfAllExpressionsInOrder() {
+    List<String> expressions = Arrays.asList(
+      "detail.user.id",
+      "detail.user.roles[*]",
+      "detail.request.path",
+      "detail.user.id",
+      "sum(detail.request.sizes[*])",
+      "length(detail.user.roles) == `2` && detail.user.id == 'u-1'",
+      "detail.*.sizes | [0]",
+      "{id: detail.user.id, roles: sort(detail.user.roles)}",
+      "detail.missing.id"
+    );
+    List<Object> results = ExpressionSet.compile(runtime, expressions).search(input);
+    assertThat(results, hasSize(expressions.size()));
+    for (int i = 0; i < expressions.size(); i++) {
+      assertThat(results.get(i), is(runtime.compile(expressions.get(i)).search(input)));
+    }
+  }
+
+  @Test
+  public void sharesCommonPathPrefixes() {
+    ExpressionSet<Object> expressions = ExpressionSet.compile(runtime, Arrays.asList("detail.user.id", "detail.user.roles[*]", "detail.request.path"));
+    // detail, detail.user, detail.user.roles, detail.request and the three expressions themselves
+    assertThat(expressions.sharedExpressionCount(), is(7));
+  }
+
+  @Test
+  public void evaluatesSharedPrefixesOncePerInput() {
+    ExpressionSet<Object> expressions = ExpressionSet.compile(runtime, Arrays.asList("counting(detail).user.id", "counting(detail).request.path", "counting(detail).user.roles[0]"));
+    assertThat(expressions.search(input), is(Arrays.asList(runtime.parseString("\"u-1\""), runtime.parseString("\"/\""), runtime.parseString("\"admin\""))));
+    assertThat(countingFunction.calls.get(), is(1));
+    expressions.search(input);
+    assertThat(countingFunction.calls.get(), is(2));
+  }
+
+  @Test
+  public void evaluatesEqualExpressionsOncePerInput() {
+    ExpressionSet<Object> expressions = ExpressionSet.compile(runtime, Arrays.asList("counting(detail.user.id)", "counting(detail.user.id)"));
+    expressions.search(input);
+    assertThat(countingFunction.calls.get(), is(1));
+  }
+
+  @Test
+  public void doesNotShareResultsBetweenElementsOfProjections() {
+    ExpressionSet<Object> expressions = ExpressionSet.compile(runtime, Arrays.asList("detail.request.sizes[*].counting(@)", "detail.request.sizes"));
+    List<Object> results = expressions.search(input);
+    assertThat(results.get(0), is(runtime.parseString("[1,2,3]")));
+    assertThat(countingFunction.calls.get(), is(3));
+  }
+}
@@ -0,0 +1,83 @@
+package io.burt.jmespath.plan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.empty;
+
+public class PredicateMatcherTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+
+  private final List<String> rules = Arrays.asList(
+    "source == 'aws.ec2' && detail.type == 'start'",
+    "source == 'aws.ec2' && detail.type == 'stop'",
+    "source == 'aws.s3' || source == 'aws.ec2'",
+    "detail.size == `3` && detail.type != 'start'",
+    "length(detail.tags || `[]`) > `1`",
+    "detail.type == 'start' && contains(detail.tags, 'prod')",
+    "detail.missing == null && source == 'aws.s3'",
+    "'aws.s3' == source"
+  );
+
+  private List<Integer> match(String json) {
+    return PredicateMatcher.compile(runtime, rules).match(runtime.parseString(json));
+  }
+
+  @Test
+  public void returnsTheMatchingExpressionsInOrder() {
+    assertThat(match("{\"source\":\"aws.ec2\",\"detail\":{\"type\":\"start\",\"size\":3,\"tags\":[\"prod\",\"web\"]}}"), is(Arrays.asList(0, 2, 4, 5)));
+    assertThat(match("{\"source\":\"aws.ec2\",\"detail\":{\"type\":\"stop\",\"size\":3.0,\"tags\":[]}}"), is(Arrays.asList(1, 2, 3)));
+    assertThat(match("{\"source\":\"aws.s3\",\"detail\":{}}"), is(Arrays.asList(2, 6, 7)));
+    assertThat(match("{\"source\":\"other\"}"), is(Collections.<Integer>emptyList()));
+  }
+
+  @Test
+  public void returnsTheSameResultsAsEvaluatingEachExpression() {
+    PredicateMatcher<Object> matcher = PredicateMatcher.compile(runtime, rules);
+    List<String> inputs = Arrays.asList(
+      "{\"source\":\"aws.ec2\",\"detail\":{\"type\":\"start\",\"size\":3,\"tags\":[\"prod\"]}}",
+      "{\"source\":[\"aws.ec2\"],\"detail\":{\"type\":{\"a\":1}}}",
+      "{\"source\":3,\"detail\":[]}",
+      "[]",
+      "null"
+    );
+    for (String json : inputs) {
+      Object input = runtime.parseString(json);
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < rules.size(); i++) {
+        if (runtime.isTruthy(runtime.compile(rules.get(i)).search(input))) {
+          expected.add(i);
+        }
+      }
+      assertThat(matcher.match(input), is(expected));
+    }
+  }
+
+  @Test
+  public void expressionsThatCannotBeIndexedAreAlwaysEvaluated() {
+    PredicateMatcher<Object> matcher = PredicateMatcher.compile(runtime, rules);
+    assertThat(matcher.unindexedExpressionCount(), is(1));
+  }
+
+  @Test
+  public void orsAreOnlyIndexedWhenBothOperandsAre() {
+    PredicateMatcher<Object> matcher = PredicateMatcher.compile(runtime, Arrays.asList("a == 'x' || b > `1`", "!(a == 'x')", "a != 'x'"));
+    assertThat(matcher.unindexedExpressionCount(), is(3));
+    assertThat(matcher.match(runtime.parseString("{\"a\":\"y\",\"b\":2}")), is(Arrays.asList(0, 1, 2)));
+  }
+
+  @Test
+  public void anEmptyMatcherMatchesNothing() {
+    PredicateMatcher<Object> matcher = PredicateMatcher.compile(runtime, Collections.<String>emptyList());
+    assertThat(matcher.match(runtime.parseString("{}")), is(empty()));
+  }
+}
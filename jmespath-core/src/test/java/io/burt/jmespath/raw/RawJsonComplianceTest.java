@@ -0,0 +1,11 @@
+package io.burt.jmespath.raw;
+
+import io.burt.jmespath.JmesPathComplianceTest;
+import io.burt.jmespath.Adapter;
+
+public class RawJsonComplianceTest extends JmesPathComplianceTest<Object> {
+  private Adapter<Object> runtime = new RawJsonRuntime();
+
+  @Override
+  protected Adapter<Object> runtime() { return runtime; }
+}
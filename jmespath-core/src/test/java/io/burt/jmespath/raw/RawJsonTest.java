@@ -0,0 +1,96 @@
+package io.burt.jmespath.raw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.JmesPathException;
+import io.burt.jmespath.JmesPathRuntimeTest;
+import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.jcf.JcfNodeFactory;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class RawJsonTest extends JmesPathRuntimeTest<Object> {
+  private static final String CLOUDTRAIL = "{\"Records\": [\n  {\"eventName\": \"PutObject\", \"requestParameters\": {\"bucketName\" : \"logs\",  \"key\": \"a/b\\u00e9\"}},\n  {\"eventName\": \"GetObject\", \"requestParameters\": {\"bucketName\": \"data\", \"key\": [1, 2.5e3]}}\n]}";
+
+  @Override
+  protected Adapter<Object> createRuntime(RuntimeConfiguration configuration) { return new RawJsonRuntime(configuration); }
+
+  private RawJsonRuntime rawRuntime() {
+    return (RawJsonRuntime) runtime();
+  }
+
+  private String utf8(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private String writeJson(Object value) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    rawRuntime().writeJson(value, output);
+    return new String(output.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void compilesWithTheJcfNodeFactory() {
+    assertThat(runtime().nodeFactory(), is(instanceOf(JcfNodeFactory.class)));
+  }
+
+  @Test
+  public void parsesTheSameValuesAsTheJcfRuntime() {
+    assertThat(parse(CLOUDTRAIL), is(new JcfRuntime().parseString(CLOUDTRAIL)));
+    assertThat(parse("[\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\ud83d\\ude00\", -0.5, 12345678901, true, false, null, {}, []]"), is(new JcfRuntime().parseString("[\"\\\"\\\\/\\b\\f\\n\\r\\t\\ud83d\\ude00\", -0.5, 12345678901, true, false, null, {}, []]")));
+  }
+
+  @Test
+  public void subtreesReturnedAsTheyAreHaveRawSlicesOfTheInput() {
+    ByteBuffer input = ByteBuffer.wrap(CLOUDTRAIL.getBytes(StandardCharsets.UTF_8));
+    Object result = rawRuntime().compile("Records[0].requestParameters").search(rawRuntime().parseBytes(input));
+    assertThat(utf8(rawRuntime().rawSlice(result)), is("{\"bucketName\" : \"logs\",  \"key\": \"a/b\\u00e9\"}"));
+    assertThat(rawRuntime().rawSlice(result).isReadOnly(), is(true));
+    assertThat(input.position(), is(0));
+  }
+
+  @Test
+  public void createdValuesHaveNoRawSlices() {
+    Object input = parse(CLOUDTRAIL);
+    assertThat(rawRuntime().rawSlice(search("Records[*].requestParameters", input)), is((ByteBuffer) null));
+    assertThat(rawRuntime().rawSlice(search("Records[0].eventName", input)), is((ByteBuffer) null));
+  }
+
+  @Test
+  public void parsesFromThePositionOfTheBuffer() {
+    ByteBuffer input = ByteBuffer.wrap("xx[1, {\"a\": 2}]yy".getBytes(StandardCharsets.UTF_8));
+    input.position(2);
+    input.limit(input.limit() - 2);
+    Object result = search("[1]", rawRuntime().parseBytes(input));
+    assertThat(utf8(rawRuntime().rawSlice(result)), is("{\"a\": 2}"));
+  }
+
+  @Test
+  public void writeJsonCopiesRawSlicesNestedInCreatedValues() throws IOException {
+    Object input = parse(CLOUDTRAIL);
+    assertThat(writeJson(search("{first: Records[0].requestParameters, names: Records[*].eventName}", input)), is("{\"first\":{\"bucketName\" : \"logs\",  \"key\": \"a/b\\u00e9\"},\"names\":[\"PutObject\",\"GetObject\"]}"));
+    assertThat(writeJson(search("Records[1].requestParameters.key", input)), is("[1, 2.5e3]"));
+    assertThat(writeJson(search("Records[1].requestParameters.key[1]", input)), is("2500.0"));
+  }
+
+  @Test(expected = JmesPathException.class)
+  public void parseBytesThrowsWhenGivenTrailingGarbage() {
+    rawRuntime().parseBytes(ByteBuffer.wrap("{} {}".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test(expected = JmesPathException.class)
+  public void parseBytesThrowsWhenGivenUnterminatedStrings() {
+    rawRuntime().parseBytes(ByteBuffer.wrap("[\"abc".getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,80 @@
+package io.burt.jmespath.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class ListViewsTest {
+  private final List<Integer> numbers = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+  @Test
+  public void sliceSelectsEveryStepElementFromTheStart() {
+    assertThat(ListViews.slice(numbers, 1, 3, 3), contains(1, 4, 7));
+    assertThat(ListViews.slice(numbers, 8, -2, 4), contains(8, 6, 4, 2));
+  }
+
+  @Test
+  public void slicesOfSlicesAreSlicesOfTheOriginalList() {
+    List<Integer> evens = ListViews.slice(numbers, 0, 2, 5);
+    List<Integer> reversedEvens = ListViews.reverse(evens);
+    assertThat(reversedEvens, contains(8, 6, 4, 2, 0));
+    assertThat(ListViews.reverse(ListViews.reverse(numbers)), is(numbers));
+    assertThat(ListViews.reverse(ListViews.reverse(numbers)), is(not(sameInstance(numbers))));
+    assertThat(ListViews.slice(reversedEvens, 1, 2, 2), contains(6, 2));
+  }
+
+  @Test
+  public void slicesOfOtherListsAreEqualToSlicesOfRandomAccessLists() {
+    List<Integer> list = new LinkedList<>(numbers);
+    List<Integer> reversed = ListViews.reverse(numbers);
+    assertThat(ListViews.reverse(list), is((List<Integer>) reversed));
+    assertThat(ListViews.slice(numbers, 0, 1, 0), is(empty()));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void slicesAreUnmodifiable() {
+    ListViews.slice(numbers, 0, 2, 5).set(0, 1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void slicesCheckTheirBounds() {
+    ListViews.slice(numbers, 0, 2, 5).get(5);
+  }
+
+  @Test
+  public void viewsAreNeverTheListTheyWereCreatedFrom() {
+    List<Integer> all = ListViews.slice(numbers, 0, 1, numbers.size());
+    List<Integer> concatenated = ListViews.concatenate(Collections.singletonList(numbers));
+    assertThat(all, is(not(sameInstance(numbers))));
+    assertThat(concatenated, is(not(sameInstance(numbers))));
+    assertThat(ListViews.isView(all), is(true));
+    assertThat(ListViews.isView(concatenated), is(true));
+    assertThat(ListViews.isView(ListViews.slice(numbers, 0, 1, 0)), is(true));
+    assertThat(ListViews.isView(numbers), is(false));
+  }
+
+  @Test
+  public void concatenateJoinsTheLists() {
+    List<Integer> concatenated = ListViews.concatenate(Arrays.asList(
+      numbers.subList(0, 2),
+      Collections.<Integer>emptyList(),
+      new LinkedList<>(numbers.subList(5, 7)),
+      numbers.subList(9, 10)
+    ));
+    assertThat(concatenated, contains(0, 1, 5, 6, 9));
+    assertThat(concatenated.size(), is(5));
+    assertThat(concatenated.get(0), is(0));
+    assertThat(concatenated.get(2), is(5));
+    assertThat(concatenated.get(4), is(9));
+  }
+}
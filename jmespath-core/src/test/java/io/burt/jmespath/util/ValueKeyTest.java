@@ -0,0 +1,41 @@
+package io.burt.jmespath.util;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class ValueKeyTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+
+  private Object key(String json) {
+    return ValueKey.of(runtime, runtime.parseString(json));
+  }
+
+  @Test
+  public void numbersAreEqualRegardlessOfRepresentation() {
+    assertThat(key("1"), is(key("1.0")));
+    assertThat(key("1").hashCode(), is(key("1.0").hashCode()));
+    assertThat(key("1"), is(not(key("2"))));
+  }
+
+  @Test
+  public void valuesOfDifferentTypesAreNotEqual() {
+    assertThat(key("1"), is(not(key("\"1\""))));
+    assertThat(key("true"), is(not(key("1"))));
+    assertThat(key("null"), is(not(key("false"))));
+    assertThat(key("null"), is(key("null")));
+  }
+
+  @Test
+  public void arraysAndObjectsAreComparedDeeply() {
+    assertThat(key("[1, {\"a\": 2}]"), is(key("[1.0, {\"a\": 2.0}]")));
+    assertThat(key("[1, 2]"), is(not(key("[2, 1]"))));
+    assertThat(key("{\"a\": 1, \"b\": [true]}"), is(key("{\"b\": [true], \"a\": 1}")));
+    assertThat(key("{\"a\": 1}"), is(not(key("{\"a\": 1, \"b\": null}"))));
+  }
+}
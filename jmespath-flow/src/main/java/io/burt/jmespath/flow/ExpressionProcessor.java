@@ -0,0 +1,277 @@
+package io.burt.jmespath.flow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPathType;
+
+/**
+ * A {@link Flow.Processor} that searches each element it receives with an
+ * expression and publishes the results, in the order of the elements.
+ * <p>
+ * By default elements are searched one at a time on the thread that delivers
+ * them. With an executor and a concurrency level, batches of elements are
+ * searched in parallel on the executor, while the results are still published
+ * in order. Batching amortises the cost of handing work to the executor, but
+ * elements wait until their batch is full, or the stream completes, so large
+ * batches only suit streams where elements arrive steadily.
+ * <p>
+ * The processor never requests more elements from upstream than the
+ * concurrency level times the batch size, and only requests more as results
+ * are handed to subscribers, who apply backpressure through the buffer of the
+ * underlying {@link SubmissionPublisher}.
+ * <p>
+ * When a search fails, the upstream subscription is cancelled and subscribers
+ * receive the exception.
+ * <p>
+ * Flow does not allow null elements, so with runtimes that represent JSON null
+ * as Java <code>null</code>, like <code>JcfRuntime</code>, null results are
+ * always skipped.
+ */
+public class ExpressionProcessor<T> extends SubmissionPublisher<T> implements Flow.Processor<T, T> {
+  private final Adapter<T> runtime;
+  private final Expression<T> expression;
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final int batchSize;
+  private final boolean skipNullResults;
+
+  private final Object lock;
+  private final Map<Long, Batch<T>> completedBatches;
+  private final Queue<Batch<T>> readyBatches;
+  private Flow.Subscription subscription;
+  private List<T> pendingElements;
+  private long nextSequenceNumber;
+  private long nextPublishedSequenceNumber;
+  private int batchesInFlight;
+  private boolean draining;
+  private boolean upstreamCompleted;
+  private boolean failed;
+
+  private ExpressionProcessor(Builder<T> builder) {
+    this.runtime = builder.runtime;
+    this.expression = builder.expression;
+    this.executor = builder.executor;
+    this.maxConcurrency = builder.maxConcurrency;
+    this.batchSize = builder.batchSize;
+    this.skipNullResults = builder.skipNullResults;
+    this.lock = new Object();
+    this.completedBatches = new HashMap<>();
+    this.readyBatches = new ArrayDeque<>();
+    this.pendingElements = new ArrayList<>(batchSize);
+  }
+
+  public static <U> Builder<U> builder(Adapter<U> runtime, Expression<U> expression) {
+    return new Builder<>(runtime, expression);
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    if (this.subscription != null) {
+      subscription.cancel();
+      return;
+    }
+    this.subscription = subscription;
+    subscription.request((long) maxConcurrency * batchSize);
+  }
+
+  @Override
+  public void onNext(T element) {
+    pendingElements.add(element);
+    if (pendingElements.size() == batchSize) {
+      dispatchPendingElements();
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    fail(error);
+  }
+
+  @Override
+  public void onComplete() {
+    if (!pendingElements.isEmpty()) {
+      dispatchPendingElements();
+    }
+    synchronized (lock) {
+      upstreamCompleted = true;
+      if (batchesInFlight == 0 && !failed) {
+        close();
+      }
+    }
+  }
+
+  private void dispatchPendingElements() {
+    final Batch<T> batch = new Batch<>(nextSequenceNumber++, pendingElements);
+    pendingElements = new ArrayList<>(batchSize);
+    synchronized (lock) {
+      batchesInFlight++;
+    }
+    if (executor == null) {
+      search(batch);
+    } else {
+      executor.execute(() -> search(batch));
+    }
+  }
+
+  private void search(Batch<T> batch) {
+    List<T> results = new ArrayList<>(batch.elements.size());
+    try {
+      for (T element : batch.elements) {
+        T result = expression.search(element);
+        if (result != null && (!skipNullResults || runtime.typeOf(result) != JmesPathType.NULL)) {
+          results.add(result);
+        }
+      }
+    } catch (Throwable t) {
+      fail(t);
+      return;
+    }
+    batch.results = results;
+    publish(batch);
+  }
+
+  private void publish(Batch<T> batch) {
+    synchronized (lock) {
+      if (failed) {
+        return;
+      }
+      completedBatches.put(batch.sequenceNumber, batch);
+      Batch<T> next;
+      while ((next = completedBatches.remove(nextPublishedSequenceNumber)) != null) {
+        nextPublishedSequenceNumber++;
+        readyBatches.add(next);
+      }
+      if (draining || readyBatches.isEmpty()) {
+        return;
+      }
+      draining = true;
+    }
+    drainReadyBatches();
+  }
+
+  /**
+   * Submits the results of the ready batches in order until there are none
+   * left. Only one thread drains at a time, and it submits without holding the
+   * lock, since submitting blocks while a subscriber's buffer is full, and the
+   * other searches and upstream completion must not wait for that.
+   */
+  private void drainReadyBatches() {
+    Batch<T> batch = null;
+    while (true) {
+      synchronized (lock) {
+        if (batch != null) {
+          batchesInFlight--;
+        }
+        batch = failed ? null : readyBatches.poll();
+        if (batch == null) {
+          draining = false;
+          if (upstreamCompleted && batchesInFlight == 0 && !failed) {
+            close();
+          }
+          return;
+        }
+      }
+      try {
+        for (T result : batch.results) {
+          submit(result);
+        }
+      } catch (IllegalStateException ise) {
+        // the publisher was closed because a search failed
+        return;
+      }
+      subscription.request(batch.elements.size());
+    }
+  }
+
+  private void fail(Throwable error) {
+    synchronized (lock) {
+      if (failed) {
+        return;
+      }
+      failed = true;
+      completedBatches.clear();
+      readyBatches.clear();
+    }
+    if (subscription != null) {
+      subscription.cancel();
+    }
+    closeExceptionally(error);
+  }
+
+  private static class Batch<T> {
+    final long sequenceNumber;
+    final List<T> elements;
+    List<T> results;
+
+    Batch(long sequenceNumber, List<T> elements) {
+      this.sequenceNumber = sequenceNumber;
+      this.elements = elements;
+    }
+  }
+
+  public static class Builder<T> {
+    protected final Adapter<T> runtime;
+    protected final Expression<T> expression;
+    protected Executor executor;
+    protected int maxConcurrency;
+    protected int batchSize;
+    protected boolean skipNullResults;
+
+    public Builder(Adapter<T> runtime, Expression<T> expression) {
+      this.runtime = runtime;
+      this.expression = expression;
+      this.executor = null;
+      this.maxConcurrency = 1;
+      this.batchSize = 1;
+      this.skipNullResults = false;
+    }
+
+    public ExpressionProcessor<T> build() {
+      return new ExpressionProcessor<>(this);
+    }
+
+    /**
+     * Search up to the specified number of batches in parallel on the
+     * executor. By default elements are searched on the thread that delivers
+     * them.
+     */
+    public Builder<T> withExecutor(Executor executor, int maxConcurrency) {
+      if (maxConcurrency < 1) {
+        throw new IllegalArgumentException("The concurrency level must be at least one");
+      }
+      this.executor = executor;
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /**
+     * Set the number of elements searched together. Defaults to one.
+     */
+    public Builder<T> withBatchSize(int batchSize) {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("The batch size must be at least one");
+      }
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Don't publish null results, for example for elements where the
+     * expression didn't match anything.
+     */
+    public Builder<T> withNullResultsSkipped() {
+      this.skipNullResults = true;
+      return this;
+    }
+  }
+}
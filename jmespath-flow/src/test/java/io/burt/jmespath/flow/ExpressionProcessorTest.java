@@ -0,0 +1,177 @@
+package io.burt.jmespath.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ExpressionProcessorTest {
+  private final Adapter<Object> runtime = new JcfRuntime();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  private static class CollectingSubscriber implements Flow.Subscriber<Object> {
+    final List<Object> results = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch done = new CountDownLatch(1);
+    volatile Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(Object item) {
+      results.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      done.countDown();
+    }
+  }
+
+  private static class StalledSubscriber extends CollectingSubscriber {
+    volatile Flow.Subscription subscription;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+  }
+
+  private static class RecordingSubscription implements Flow.Subscription {
+    final AtomicLong requested = new AtomicLong();
+    volatile boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      requested.addAndGet(n);
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private CollectingSubscriber run(ExpressionProcessor<Object> processor, int count) throws InterruptedException {
+    CollectingSubscriber subscriber = new CollectingSubscriber();
+    processor.subscribe(subscriber);
+    try (SubmissionPublisher<Object> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(processor);
+      for (int i = 0; i < count; i++) {
+        publisher.submit(runtime.parseString(i % 3 == 0 ? "{}" : String.format("{\"id\":%d}", i)));
+      }
+    }
+    assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+    return subscriber;
+  }
+
+  @Test
+  public void publishesTheResultOfEachElementInOrder() throws InterruptedException {
+    CollectingSubscriber subscriber = run(ExpressionProcessor.builder(runtime, runtime.compile("[id]")).build(), 10);
+    assertThat(subscriber.error, is(nullValue()));
+    assertThat(subscriber.results, is(runtime.toList(runtime.parseString("[[null],[1],[2],[null],[4],[5],[null],[7],[8],[null]]"))));
+  }
+
+  @Test
+  public void alwaysSkipsResultsThatAreJavaNulls() throws InterruptedException {
+    CollectingSubscriber subscriber = run(ExpressionProcessor.builder(runtime, runtime.compile("id")).build(), 10);
+    assertThat(subscriber.error, is(nullValue()));
+    assertThat(subscriber.results, is(runtime.toList(runtime.parseString("[1,2,4,5,7,8]"))));
+  }
+
+  @Test
+  public void searchesBatchesInParallelAndPublishesTheResultsInOrder() throws InterruptedException {
+    ExpressionProcessor<Object> processor = ExpressionProcessor.builder(runtime, runtime.compile("id")).withExecutor(executor, 4).withBatchSize(7).withNullResultsSkipped().build();
+    CollectingSubscriber subscriber = run(processor, 1000);
+    List<Object> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      if (i % 3 != 0) {
+        expected.add(runtime.createNumber((long) i));
+      }
+    }
+    assertThat(subscriber.error, is(nullValue()));
+    assertThat(subscriber.results, is(expected));
+  }
+
+  @Test
+  public void requestsNoMoreThanTheConcurrencyLevelTimesTheBatchSize() {
+    ExpressionProcessor<Object> processor = ExpressionProcessor.builder(runtime, runtime.compile("id")).withExecutor(Runnable::run, 2).withBatchSize(4).build();
+    RecordingSubscription subscription = new RecordingSubscription();
+    processor.onSubscribe(subscription);
+    assertThat(subscription.requested.get(), is(8L));
+    for (int i = 0; i < 3; i++) {
+      processor.onNext(runtime.parseString("{\"id\":1}"));
+    }
+    assertThat(subscription.requested.get(), is(8L));
+    processor.onNext(runtime.parseString("{\"id\":1}"));
+    assertThat(subscription.requested.get(), is(12L));
+  }
+
+  @Test
+  public void failsAndCancelsUpstreamWhenASearchFails() throws InterruptedException {
+    ExpressionProcessor<Object> processor = ExpressionProcessor.builder(runtime, runtime.compile("abs(id)")).build();
+    CollectingSubscriber subscriber = new CollectingSubscriber();
+    processor.subscribe(subscriber);
+    RecordingSubscription subscription = new RecordingSubscription();
+    processor.onSubscribe(subscription);
+    processor.onNext(runtime.parseString("{\"id\":-1}"));
+    processor.onNext(runtime.parseString("{\"id\":\"x\"}"));
+    assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(subscriber.error, is(instanceOf(ArgumentTypeException.class)));
+    assertThat(subscription.cancelled, is(true));
+  }
+
+  @Test(timeout = 10000)
+  public void searchesAreNotBlockedWhileASubscriberIsNotKeepingUp() throws InterruptedException {
+    ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+    ExpressionProcessor<Object> processor = ExpressionProcessor.builder(runtime, runtime.compile("@")).withExecutor(pool, 2).build();
+    StalledSubscriber subscriber = new StalledSubscriber();
+    processor.subscribe(subscriber);
+    processor.onSubscribe(new RecordingSubscription());
+    int count = processor.getMaxBufferCapacity() * 2;
+    for (int i = 0; i < count; i++) {
+      processor.onNext(runtime.createNumber((long) i));
+    }
+    while (pool.getCompletedTaskCount() < count - 1) {
+      Thread.sleep(1);
+    }
+    processor.onComplete();
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertThat(subscriber.done.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(subscriber.error, is(nullValue()));
+    assertThat(subscriber.results.size(), is(count));
+    assertThat(subscriber.results.get(count - 1), is((Object) runtime.createNumber((long) count - 1)));
+  }
+}
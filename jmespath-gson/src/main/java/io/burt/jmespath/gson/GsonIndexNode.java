@@ -0,0 +1,28 @@
+package io.burt.jmespath.gson;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+import io.burt.jmespath.node.IndexNode;
+
+class GsonIndexNode extends IndexNode<JsonElement> {
+  private final int index;
+
+  GsonIndexNode(GsonRuntime runtime, int index) {
+    super(runtime, index);
+    this.index = index;
+  }
+
+  @Override
+  public JsonElement search(JsonElement input) {
+    if (input.isJsonArray()) {
+      JsonArray array = input.getAsJsonArray();
+      int i = index < 0 ? array.size() + index : index;
+      if (i >= 0 && i < array.size()) {
+        return array.get(i);
+      }
+    }
+    return JsonNull.INSTANCE;
+  }
+}
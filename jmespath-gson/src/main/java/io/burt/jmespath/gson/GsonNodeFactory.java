@@ -0,0 +1,38 @@
+package io.burt.jmespath.gson;
+
+import com.google.gson.JsonElement;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.StandardNodeFactory;
+
+/**
+ * A node factory whose property, index and projection nodes work directly on
+ * {@link JsonElement}, {@link com.google.gson.JsonArray} and
+ * {@link com.google.gson.JsonObject}, without going through the runtime's
+ * adapter methods.
+ */
+public class GsonNodeFactory extends StandardNodeFactory<JsonElement> {
+  private final GsonRuntime runtime;
+
+  public GsonNodeFactory(GsonRuntime runtime, IndexCache indexCache) {
+    super(runtime, indexCache);
+    this.runtime = runtime;
+  }
+
+  @Override
+  public Node<JsonElement> createProperty(String name) {
+    return new GsonPropertyNode(runtime, name);
+  }
+
+  @Override
+  public Node<JsonElement> createIndex(int index) {
+    return new GsonIndexNode(runtime, index);
+  }
+
+  @Override
+  public Node<JsonElement> createProjection(Expression<JsonElement> expression) {
+    return new GsonProjectionNode(runtime, expression);
+  }
+}
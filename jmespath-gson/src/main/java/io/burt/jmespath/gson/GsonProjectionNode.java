@@ -0,0 +1,36 @@
+package io.burt.jmespath.gson;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.node.ProjectionNode;
+
+class GsonProjectionNode extends ProjectionNode<JsonElement> {
+  GsonProjectionNode(GsonRuntime runtime, Expression<JsonElement> projection) {
+    super(runtime, projection);
+  }
+
+  @Override
+  public JsonElement search(JsonElement input) {
+    if (!input.isJsonArray()) {
+      return JsonNull.INSTANCE;
+    }
+    JsonArray elements = input.getAsJsonArray();
+    Expression<JsonElement> projection = projection();
+    int size = elements.size();
+    EvaluationBudget budget = chargeProjection(size);
+    JsonArray results = new JsonArray(size);
+    for (JsonElement element : elements) {
+      checkpoint(budget);
+      JsonElement result = projection.search(element);
+      if (!result.isJsonNull()) {
+        results.add(result);
+      }
+    }
+    chargeResults(budget, results.size());
+    return results;
+  }
+}
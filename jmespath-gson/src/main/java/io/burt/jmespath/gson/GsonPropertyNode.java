@@ -0,0 +1,26 @@
+package io.burt.jmespath.gson;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+import io.burt.jmespath.node.PropertyNode;
+
+class GsonPropertyNode extends PropertyNode<JsonElement> {
+  private final String name;
+
+  GsonPropertyNode(GsonRuntime runtime, String name) {
+    super(runtime, name);
+    this.name = name;
+  }
+
+  @Override
+  public JsonElement search(JsonElement input) {
+    if (input.isJsonObject()) {
+      JsonElement value = input.getAsJsonObject().get(name);
+      if (value != null) {
+        return value;
+      }
+    }
+    return JsonNull.INSTANCE;
+  }
+}
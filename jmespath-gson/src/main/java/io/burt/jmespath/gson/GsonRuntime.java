@@ -1,24 +1,34 @@
 package io.burt.jmespath.gson;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.ObjectBuilder;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.node.NodeFactory;
 
+import java.io.IOException;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 public class GsonRuntime extends BaseRuntime<JsonElement> {
+  private static final Gson gson = new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
+
   private final JsonParser parser;
 
   public GsonRuntime() {
@@ -30,12 +40,43 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     this.parser = new JsonParser();
   }
 
+  /**
+   * Creates a {@link GsonNodeFactory}, whose nodes work directly on
+   * {@link JsonElement}. The nodes don't call {@link #getProperty}, {@link #typeOf}
+   * or {@link #toList}, so subclasses, which may override them, get a
+   * {@link io.burt.jmespath.node.StandardNodeFactory} instead.
+   */
+  @Override
+  protected NodeFactory<JsonElement> createNodeFactory(RuntimeConfiguration configuration) {
+    if (getClass() == GsonRuntime.class) {
+      return new GsonNodeFactory(this, configuration.indexCache());
+    } else {
+      return super.createNodeFactory(configuration);
+    }
+  }
+
   @Override
   public JsonElement parseString(String str) {
     return parser.parse(str);
   }
 
-  private static class JsonArrayListWrapper extends AbstractList<JsonElement> {
+  /**
+   * Writes the value with Gson's streaming writer.
+   */
+  @Override
+  public void writeJson(JsonElement value, Appendable output) throws IOException {
+    try {
+      gson.toJson(value, output);
+    } catch (JsonIOException jioe) {
+      if (jioe.getCause() instanceof IOException) {
+        throw (IOException) jioe.getCause();
+      } else {
+        throw jioe;
+      }
+    }
+  }
+
+  private static class JsonArrayListWrapper extends AbstractList<JsonElement> implements RandomAccess {
     private final JsonArray array;
 
     JsonArrayListWrapper(JsonArray array) {
@@ -157,6 +198,22 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     return array;
   }
 
+  @Override
+  public ArrayBuilder<JsonElement> arrayBuilder(int sizeHint) {
+    final JsonArray array = new JsonArray(sizeHint);
+    return new ArrayBuilder<JsonElement>() {
+      @Override
+      public void add(JsonElement element) {
+        array.add(element);
+      }
+
+      @Override
+      public JsonElement build() {
+        return array;
+      }
+    };
+  }
+
   @Override
   public JsonElement createString(String str) {
     return new JsonPrimitive(str);
@@ -176,6 +233,22 @@ public class GsonRuntime extends BaseRuntime<JsonElement> {
     return object;
   }
 
+  @Override
+  public ObjectBuilder<JsonElement> objectBuilder(int sizeHint) {
+    final JsonObject object = new JsonObject();
+    return new ObjectBuilder<JsonElement>() {
+      @Override
+      public void put(JsonElement name, JsonElement value) {
+        object.add(name.getAsString(), value);
+      }
+
+      @Override
+      public JsonElement build() {
+        return object;
+      }
+    };
+  }
+
   @Override
   public JsonElement createNumber(double n) {
     return new JsonPrimitive(n);
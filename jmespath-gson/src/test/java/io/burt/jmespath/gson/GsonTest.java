@@ -5,7 +5,24 @@ import io.burt.jmespath.Adapter;
 import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
 public class GsonTest extends JmesPathRuntimeTest<JsonElement> {
   @Override
   protected Adapter<JsonElement> createRuntime(RuntimeConfiguration configuration) { return new GsonRuntime(configuration); }
+
+  @Test
+  public void compilesWithTheSpecializedNodeFactory() {
+    assertThat(runtime().nodeFactory(), is(instanceOf(GsonNodeFactory.class)));
+  }
+
+  @Test
+  public void subclassesCompileWithTheStandardNodeFactory() {
+    assertThat(new GsonRuntime() { }.nodeFactory(), is(not(instanceOf(GsonNodeFactory.class))));
+  }
 }
@@ -0,0 +1,26 @@
+package io.burt.jmespath.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import io.burt.jmespath.node.IndexNode;
+
+class JacksonIndexNode extends IndexNode<JsonNode> {
+  private final int index;
+
+  JacksonIndexNode(JacksonRuntime runtime, int index) {
+    super(runtime, index);
+    this.index = index;
+  }
+
+  @Override
+  public JsonNode search(JsonNode input) {
+    if (input.isArray()) {
+      int i = index < 0 ? input.size() + index : index;
+      if (i >= 0 && i < input.size()) {
+        return input.get(i);
+      }
+    }
+    return NullNode.getInstance();
+  }
+}
@@ -0,0 +1,38 @@
+package io.burt.jmespath.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.index.IndexCache;
+import io.burt.jmespath.node.Node;
+import io.burt.jmespath.node.StandardNodeFactory;
+
+/**
+ * A node factory whose property, index and projection nodes work directly on
+ * {@link JsonNode}, {@link com.fasterxml.jackson.databind.node.ArrayNode} and
+ * {@link com.fasterxml.jackson.databind.node.ObjectNode}, without going
+ * through the runtime's adapter methods.
+ */
+public class JacksonNodeFactory extends StandardNodeFactory<JsonNode> {
+  private final JacksonRuntime runtime;
+
+  public JacksonNodeFactory(JacksonRuntime runtime, IndexCache indexCache) {
+    super(runtime, indexCache);
+    this.runtime = runtime;
+  }
+
+  @Override
+  public Node<JsonNode> createProperty(String name) {
+    return new JacksonPropertyNode(runtime, name);
+  }
+
+  @Override
+  public Node<JsonNode> createIndex(int index) {
+    return new JacksonIndexNode(runtime, index);
+  }
+
+  @Override
+  public Node<JsonNode> createProjection(Expression<JsonNode> expression) {
+    return new JacksonProjectionNode(runtime, expression);
+  }
+}
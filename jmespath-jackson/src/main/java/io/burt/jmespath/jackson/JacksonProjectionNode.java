@@ -0,0 +1,36 @@
+package io.burt.jmespath.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.limits.EvaluationBudget;
+import io.burt.jmespath.node.ProjectionNode;
+
+class JacksonProjectionNode extends ProjectionNode<JsonNode> {
+  JacksonProjectionNode(JacksonRuntime runtime, Expression<JsonNode> projection) {
+    super(runtime, projection);
+  }
+
+  @Override
+  public JsonNode search(JsonNode input) {
+    if (!input.isArray()) {
+      return NullNode.getInstance();
+    }
+    Expression<JsonNode> projection = projection();
+    int size = input.size();
+    EvaluationBudget budget = chargeProjection(size);
+    ArrayNode results = JsonNodeFactory.instance.arrayNode(size);
+    for (int i = 0; i < size; i++) {
+      checkpoint(budget);
+      JsonNode result = projection.search(input.get(i));
+      if (!result.isNull() && !result.isMissingNode()) {
+        results.add(result);
+      }
+    }
+    chargeResults(budget, results.size());
+    return results;
+  }
+}
@@ -0,0 +1,21 @@
+package io.burt.jmespath.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import io.burt.jmespath.node.PropertyNode;
+
+class JacksonPropertyNode extends PropertyNode<JsonNode> {
+  private final String name;
+
+  JacksonPropertyNode(JacksonRuntime runtime, String name) {
+    super(runtime, name);
+    this.name = name;
+  }
+
+  @Override
+  public JsonNode search(JsonNode input) {
+    JsonNode value = input.get(name);
+    return value == null ? NullNode.getInstance() : value;
+  }
+}
@@ -7,17 +7,25 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Iterator;
+import java.util.RandomAccess;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.ObjectBuilder;
 import io.burt.jmespath.RuntimeConfiguration;
+import io.burt.jmespath.node.NodeFactory;
 
 public class JacksonRuntime extends BaseRuntime<JsonNode> {
   private final ObjectMapper jsonParser;
@@ -35,6 +43,21 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     this.jsonParser = jsonParser;
   }
 
+  /**
+   * Creates a {@link JacksonNodeFactory}, whose nodes work directly on
+   * {@link JsonNode}. The nodes don't call {@link #getProperty}, {@link #typeOf}
+   * or {@link #toList}, so subclasses, which may override them, get a
+   * {@link io.burt.jmespath.node.StandardNodeFactory} instead.
+   */
+  @Override
+  protected NodeFactory<JsonNode> createNodeFactory(RuntimeConfiguration configuration) {
+    if (getClass() == JacksonRuntime.class) {
+      return new JacksonNodeFactory(this, configuration.indexCache());
+    } else {
+      return super.createNodeFactory(configuration);
+    }
+  }
+
   @Override
   public JsonNode parseString(String string) {
     try {
@@ -44,7 +67,35 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     }
   }
 
-  private static class ArrayNodeListWrapper extends AbstractList<JsonNode> {
+  /**
+   * Writes the value with a {@link JsonGenerator} from the runtime's
+   * {@link ObjectMapper} when the output is a {@link Writer}.
+   */
+  @Override
+  public void writeJson(JsonNode value, Appendable output) throws IOException {
+    if (output instanceof Writer) {
+      writeTree(value, jsonParser.getFactory().createGenerator((Writer) output));
+    } else {
+      super.writeJson(value, output);
+    }
+  }
+
+  @Override
+  public void writeJson(JsonNode value, OutputStream output) throws IOException {
+    writeTree(value, jsonParser.getFactory().createGenerator(output, JsonEncoding.UTF8));
+    output.flush();
+  }
+
+  private void writeTree(JsonNode value, JsonGenerator generator) throws IOException {
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    try {
+      jsonParser.writeTree(generator, value);
+    } finally {
+      generator.close();
+    }
+  }
+
+  private static class ArrayNodeListWrapper extends AbstractList<JsonNode> implements RandomAccess {
     private final ArrayNode array;
 
     ArrayNodeListWrapper(ArrayNode array) {
@@ -167,6 +218,22 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     return array;
   }
 
+  @Override
+  public ArrayBuilder<JsonNode> arrayBuilder(int sizeHint) {
+    final ArrayNode array = JsonNodeFactory.instance.arrayNode(sizeHint);
+    return new ArrayBuilder<JsonNode>() {
+      @Override
+      public void add(JsonNode element) {
+        array.add(element);
+      }
+
+      @Override
+      public JsonNode build() {
+        return array;
+      }
+    };
+  }
+
   @Override
   public JsonNode createString(String str) {
     return JsonNodeFactory.instance.textNode(str);
@@ -186,6 +253,22 @@ public class JacksonRuntime extends BaseRuntime<JsonNode> {
     return object;
   }
 
+  @Override
+  public ObjectBuilder<JsonNode> objectBuilder(int sizeHint) {
+    final ObjectNode object = JsonNodeFactory.instance.objectNode();
+    return new ObjectBuilder<JsonNode>() {
+      @Override
+      public void put(JsonNode name, JsonNode value) {
+        object.set(name.textValue(), value);
+      }
+
+      @Override
+      public JsonNode build() {
+        return object;
+      }
+    };
+  }
+
   @Override
   public JsonNode createNumber(double n) {
     return JsonNodeFactory.instance.numberNode(n);
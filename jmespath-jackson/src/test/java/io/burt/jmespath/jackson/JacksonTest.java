@@ -6,7 +6,24 @@ import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.Adapter;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+
 public class JacksonTest extends JmesPathRuntimeTest<JsonNode> {
   @Override
   protected Adapter<JsonNode> createRuntime(RuntimeConfiguration configuration) { return new JacksonRuntime(configuration); }
+
+  @Test
+  public void compilesWithTheSpecializedNodeFactory() {
+    assertThat(runtime().nodeFactory(), is(instanceOf(JacksonNodeFactory.class)));
+  }
+
+  @Test
+  public void subclassesCompileWithTheStandardNodeFactory() {
+    assertThat(new JacksonRuntime() { }.nodeFactory(), is(not(instanceOf(JacksonNodeFactory.class))));
+  }
 }
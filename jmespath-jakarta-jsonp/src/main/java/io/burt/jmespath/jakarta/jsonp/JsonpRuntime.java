@@ -1,21 +1,27 @@
 package io.burt.jmespath.jakarta.jsonp;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 
+import io.burt.jmespath.ArrayBuilder;
 import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
+import io.burt.jmespath.ObjectBuilder;
 import io.burt.jmespath.RuntimeConfiguration;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
@@ -23,6 +29,8 @@ import javax.json.JsonReaderFactory;
 import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
 
 import static javax.json.JsonValue.ValueType.ARRAY;
 import static javax.json.JsonValue.ValueType.NUMBER;
@@ -31,6 +39,7 @@ import static javax.json.JsonValue.ValueType.STRING;
 
 public class JsonpRuntime extends BaseRuntime<JsonValue> {
   private final JsonReaderFactory jsonReaderFactory;
+  private final JsonGeneratorFactory jsonGeneratorFactory;
 
   public JsonpRuntime() {
     this(RuntimeConfiguration.defaultConfiguration());
@@ -43,6 +52,7 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
   public JsonpRuntime(RuntimeConfiguration configuration, JsonReaderFactory jsonReaderFactory) {
     super(configuration);
     this.jsonReaderFactory = jsonReaderFactory;
+    this.jsonGeneratorFactory = Json.createGeneratorFactory(null);
   }
 
   @Override
@@ -50,7 +60,30 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
     return jsonReaderFactory.createReader(new StringReader(string)).readValue();
   }
 
-  private static class JsonArrayListWrapper extends AbstractList<JsonValue> {
+  /**
+   * Writes the value with a {@link JsonGenerator} when the output is a
+   * {@link Writer}.
+   */
+  @Override
+  public void writeJson(JsonValue value, Appendable output) throws IOException {
+    if (output instanceof Writer) {
+      JsonGenerator generator = jsonGeneratorFactory.createGenerator((Writer) output);
+      try {
+        generator.write(value);
+        generator.flush();
+      } catch (JsonException je) {
+        if (je.getCause() instanceof IOException) {
+          throw (IOException) je.getCause();
+        } else {
+          throw je;
+        }
+      }
+    } else {
+      super.writeJson(value, output);
+    }
+  }
+
+  private static class JsonArrayListWrapper extends AbstractList<JsonValue> implements RandomAccess {
     private final JsonArray array;
 
     JsonArrayListWrapper(JsonArray array) {
@@ -178,6 +211,22 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
     return builder.build();
   }
 
+  @Override
+  public ArrayBuilder<JsonValue> arrayBuilder(int sizeHint) {
+    final JsonArrayBuilder builder = Json.createArrayBuilder();
+    return new ArrayBuilder<JsonValue>() {
+      @Override
+      public void add(JsonValue element) {
+        builder.add(nodeOrNullNode(element));
+      }
+
+      @Override
+      public JsonValue build() {
+        return builder.build();
+      }
+    };
+  }
+
   @Override
   public JsonValue createString(String str) {
     return nodeOrNullNode(Json.createValue(str));
@@ -200,6 +249,25 @@ public class JsonpRuntime extends BaseRuntime<JsonValue> {
     return builder.build();
   }
 
+  @Override
+  public ObjectBuilder<JsonValue> objectBuilder(int sizeHint) {
+    final JsonObjectBuilder builder = Json.createObjectBuilder();
+    return new ObjectBuilder<JsonValue>() {
+      @Override
+      public void put(JsonValue name, JsonValue value) {
+        String key = JsonpRuntime.this.toString(name);
+        if (key != null) {
+          builder.add(key, nodeOrNullNode(value));
+        }
+      }
+
+      @Override
+      public JsonValue build() {
+        return builder.build();
+      }
+    };
+  }
+
   @Override
   public JsonValue createNumber(double n) {
     return Json.createValue(n);
@@ -0,0 +1,35 @@
+package io.burt.jmespath.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when {@link FlightRecorderJmesPath} compiles an expression. The
+ * duration of the event is the time it took to parse the expression, or to
+ * find it in the cache.
+ * <p>
+ * The event is disabled by default, enable it in the recording settings.
+ */
+@Name(CompileEvent.NAME)
+@Label("JMESPath Compile")
+@Description("Compilation of a JMESPath expression")
+@Category("JMESPath")
+@Enabled(false)
+@StackTrace(false)
+public class CompileEvent extends Event {
+  public static final String NAME = "io.burt.jmespath.Compile";
+
+  @Label("Expression")
+  String expression;
+
+  @Label("Runtime")
+  Class<?> runtime;
+
+  @Label("Cache Hit")
+  boolean cacheHit;
+}
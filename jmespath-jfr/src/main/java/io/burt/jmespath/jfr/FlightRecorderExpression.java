@@ -0,0 +1,56 @@
+package io.burt.jmespath.jfr;
+
+import io.burt.jmespath.Expression;
+
+/**
+ * Wraps a compiled expression and records a {@link SearchEvent} for each
+ * search that takes longer than the event's threshold.
+ * <p>
+ * When the event is not enabled in any running recording a search costs a
+ * single check in addition to the search itself.
+ */
+public class FlightRecorderExpression<T> implements Expression<T> {
+  private final String rawExpression;
+  private final Class<?> runtimeClass;
+  private final Expression<T> expression;
+
+  public FlightRecorderExpression(String rawExpression, Class<?> runtimeClass, Expression<T> expression) {
+    this.rawExpression = rawExpression;
+    this.runtimeClass = runtimeClass;
+    this.expression = expression;
+  }
+
+  /**
+   * Returns the wrapped expression.
+   */
+  public Expression<T> expression() {
+    return expression;
+  }
+
+  @Override
+  public T search(T input) {
+    SearchEvent event = new SearchEvent();
+    if (!event.isEnabled()) {
+      return expression.search(input);
+    }
+    event.begin();
+    try {
+      return expression.search(input);
+    } catch (RuntimeException e) {
+      event.error = e.getClass();
+      throw e;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.expression = rawExpression;
+        event.runtime = runtimeClass;
+        event.commit();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+}
@@ -0,0 +1,91 @@
+package io.burt.jmespath.jfr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.JmesPath;
+
+/**
+ * Compiles expressions with another {@link JmesPath}, usually a runtime, and
+ * records Java Flight Recorder events for compilations and slow searches.
+ * This makes it possible to correlate the time spent in JMESPath with
+ * garbage collection, allocation and other events in the same recording.
+ * <p>
+ * Both events are disabled by default. They can be enabled with a custom
+ * recording settings file, or when starting a recording programmatically:
+ *
+ * <pre>
+ * recording.enable(CompileEvent.NAME);
+ * recording.enable(SearchEvent.NAME).withThreshold(Duration.ofMillis(50));
+ * </pre>
+ *
+ * Optionally compiled expressions can be kept in a bounded cache, in which
+ * case the compile event tells whether or not the expression was found in it.
+ */
+public class FlightRecorderJmesPath<T> implements JmesPath<T> {
+  private final JmesPath<T> delegate;
+  private final Class<?> runtimeClass;
+  private final Map<String, Expression<T>> cache;
+
+  /**
+   * Creates an instance that compiles every expression with the specified
+   * runtime.
+   */
+  public FlightRecorderJmesPath(JmesPath<T> delegate) {
+    this(delegate, 0);
+  }
+
+  /**
+   * Creates an instance that compiles expressions with the specified runtime
+   * and keeps the most recently used compiled expressions, up to the specified
+   * number, in a cache.
+   */
+  public FlightRecorderJmesPath(JmesPath<T> delegate, final int cacheSize) {
+    this.delegate = delegate;
+    this.runtimeClass = delegate.getClass();
+    if (cacheSize > 0) {
+      this.cache = new LinkedHashMap<String, Expression<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Expression<T>> eldest) {
+          return size() > cacheSize;
+        }
+      };
+    } else {
+      this.cache = null;
+    }
+  }
+
+  @Override
+  public Expression<T> compile(String expression) {
+    CompileEvent event = new CompileEvent();
+    event.begin();
+    Expression<T> compiledExpression = cached(expression);
+    boolean cacheHit = compiledExpression != null;
+    if (!cacheHit) {
+      compiledExpression = new FlightRecorderExpression<>(expression, runtimeClass, delegate.compile(expression));
+      if (cache != null) {
+        synchronized (cache) {
+          cache.put(expression, compiledExpression);
+        }
+      }
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.expression = expression;
+      event.runtime = runtimeClass;
+      event.cacheHit = cacheHit;
+      event.commit();
+    }
+    return compiledExpression;
+  }
+
+  private Expression<T> cached(String expression) {
+    if (cache == null) {
+      return null;
+    }
+    synchronized (cache) {
+      return cache.get(expression);
+    }
+  }
+}
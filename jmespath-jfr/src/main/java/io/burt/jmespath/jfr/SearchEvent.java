@@ -0,0 +1,38 @@
+package io.burt.jmespath.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when a search with an expression compiled by
+ * {@link FlightRecorderJmesPath} takes longer than the threshold, which
+ * defaults to 10 ms and can be changed in the recording settings.
+ * <p>
+ * The event is disabled by default, enable it in the recording settings.
+ */
+@Name(SearchEvent.NAME)
+@Label("JMESPath Search")
+@Description("Evaluation of a JMESPath expression")
+@Category("JMESPath")
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public class SearchEvent extends Event {
+  public static final String NAME = "io.burt.jmespath.Search";
+
+  @Label("Expression")
+  String expression;
+
+  @Label("Runtime")
+  Class<?> runtime;
+
+  @Label("Error")
+  @Description("The class of the exception thrown by the search, if any")
+  Class<?> error;
+}
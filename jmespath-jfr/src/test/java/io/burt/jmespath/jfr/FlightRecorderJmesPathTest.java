@@ -0,0 +1,124 @@
+package io.burt.jmespath.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class FlightRecorderJmesPathTest {
+  private final JcfRuntime runtime = new JcfRuntime();
+
+  private List<RecordedEvent> recordedEvents(Recording recording, String name) throws IOException {
+    Path file = Files.createTempFile("jmespath", ".jfr");
+    try {
+      recording.dump(file);
+      List<RecordedEvent> events = new ArrayList<>();
+      for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        if (event.getEventType().getName().equals(name)) {
+          events.add(event);
+        }
+      }
+      return events;
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void recordsCompilationsAndCacheHits() throws IOException {
+    FlightRecorderJmesPath<Object> jmespath = new FlightRecorderJmesPath<>(runtime, 10);
+    try (Recording recording = new Recording()) {
+      recording.enable(CompileEvent.NAME);
+      recording.start();
+      Expression<Object> expression1 = jmespath.compile("foo.bar");
+      Expression<Object> expression2 = jmespath.compile("foo.bar");
+      recording.stop();
+      assertThat(expression2, is(sameInstance(expression1)));
+      List<RecordedEvent> events = recordedEvents(recording, CompileEvent.NAME);
+      assertThat(events, hasSize(2));
+      assertThat(events.get(0).getString("expression"), is("foo.bar"));
+      assertThat(events.get(0).getClass("runtime").getName(), is(JcfRuntime.class.getName()));
+      assertThat(events.get(0).getBoolean("cacheHit"), is(false));
+      assertThat(events.get(1).getBoolean("cacheHit"), is(true));
+    }
+  }
+
+  @Test
+  public void recordsSearchesOverTheThreshold() throws IOException {
+    Expression<Object> expression = new FlightRecorderJmesPath<>(runtime).compile("foo");
+    Object input = runtime.parseString("{\"foo\":1}");
+    try (Recording recording = new Recording()) {
+      recording.enable(SearchEvent.NAME).withThreshold(Duration.ofDays(1));
+      recording.start();
+      expression.search(input);
+      recording.stop();
+      assertThat(recordedEvents(recording, SearchEvent.NAME), is(empty()));
+    }
+    try (Recording recording = new Recording()) {
+      recording.enable(SearchEvent.NAME).withThreshold(Duration.ZERO);
+      recording.start();
+      expression.search(input);
+      recording.stop();
+      List<RecordedEvent> events = recordedEvents(recording, SearchEvent.NAME);
+      assertThat(events, hasSize(1));
+      assertThat(events.get(0).getString("expression"), is("foo"));
+      assertThat(events.get(0).getClass("runtime").getName(), is(JcfRuntime.class.getName()));
+    }
+  }
+
+  @Test
+  public void recordsTheErrorOfFailedSearches() throws IOException {
+    Expression<Object> expression = new FlightRecorderJmesPath<>(runtime).compile("abs(foo)");
+    try (Recording recording = new Recording()) {
+      recording.enable(SearchEvent.NAME).withThreshold(Duration.ZERO);
+      recording.start();
+      try {
+        expression.search(runtime.parseString("{\"foo\":\"bar\"}"));
+        fail("Expected ArgumentTypeException to have been thrown");
+      } catch (ArgumentTypeException ate) {
+      }
+      recording.stop();
+      List<RecordedEvent> events = recordedEvents(recording, SearchEvent.NAME);
+      assertThat(events, hasSize(1));
+      assertThat(events.get(0).getClass("error").getName(), is(ArgumentTypeException.class.getName()));
+    }
+  }
+
+  @Test
+  public void eventsAreDisabledByDefault() throws IOException {
+    FlightRecorderJmesPath<Object> jmespath = new FlightRecorderJmesPath<>(runtime);
+    try (Recording recording = new Recording()) {
+      recording.start();
+      jmespath.compile("foo").search(runtime.parseString("{}"));
+      recording.stop();
+      assertThat(recordedEvents(recording, CompileEvent.NAME), is(empty()));
+      assertThat(recordedEvents(recording, SearchEvent.NAME), is(empty()));
+    }
+  }
+
+  @Test
+  public void searchesWorkWithoutARecording() {
+    Expression<Object> expression = new FlightRecorderJmesPath<>(runtime).compile("foo");
+    assertThat(expression.search(runtime.parseString("{\"foo\":3}")), is(runtime.parseString("3")));
+    assertThat(expression.toString(), is(runtime.compile("foo").toString()));
+  }
+}
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Runs the smoke test a few times as a native executable and on the JVM, and
+# prints the wall clock time and peak resident set size of each run, as
+# reported by GNU time.
+#
+# Usage: compare-startup.sh <native executable> <java command...>
+
+RUNS=5
+
+if [ ! -x /usr/bin/time ]; then
+  echo "GNU time is not installed at /usr/bin/time, skipping the startup comparison" >&2
+  exit 0
+fi
+
+native_executable=$1
+shift
+report=$(mktemp)
+trap 'rm -f "$report"' EXIT
+
+measure() {
+  label=$1
+  shift
+  i=0
+  while [ $i -lt $RUNS ]; do
+    /usr/bin/time -v "$@" > /dev/null 2> "$report" || { cat "$report" >&2; exit 1; }
+    elapsed=$(sed -n 's/.*Elapsed (wall clock) time.*: //p' "$report")
+    rss=$(sed -n 's/.*Maximum resident set size (kbytes): //p' "$report")
+    printf '%-7s run %d: %s elapsed, %s KiB max RSS\n' "$label" $((i + 1)) "$elapsed" "$rss"
+    i=$((i + 1))
+  done
+}
+
+measure native "$native_executable"
+measure jvm "$@"
@@ -0,0 +1,52 @@
+package io.burt.jmespath.nativeimage;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.burt.jmespath.Adapter;
+import io.burt.jmespath.Expression;
+import io.burt.jmespath.gson.GsonRuntime;
+import io.burt.jmespath.jackson.JacksonRuntime;
+import io.burt.jmespath.jcf.JcfRuntime;
+
+/**
+ * Compiles and runs a few expressions with each runtime that ships
+ * native-image configuration, and exits with a non-zero status when a result
+ * is not the expected one. It is built into a native executable and run by
+ * the <code>native</code> profile.
+ */
+public class SmokeTest {
+  private static final String DOCUMENT = "{\"users\":[{\"id\":\"u-1\",\"name\":\"Alice\",\"age\":31},{\"id\":\"u-2\",\"name\":\"Bob\",\"age\":27}]}";
+
+  private static final List<String[]> CASES = Arrays.asList(
+    new String[] {"users[?id == 'u-2'].name | [0]", "\"Bob\""},
+    new String[] {"sort_by(users, &age)[*].id", "[\"u-2\",\"u-1\"]"},
+    new String[] {"{names: join(', ', users[*].name), total: sum(users[*].age)}", "{\"names\":\"Alice, Bob\",\"total\":58}"}
+  );
+
+  public static void main(String[] args) {
+    int failures = 0;
+    failures += run("jcf", new JcfRuntime());
+    failures += run("jackson", new JacksonRuntime());
+    failures += run("gson", new GsonRuntime());
+    if (failures > 0) {
+      System.exit(1);
+    }
+  }
+
+  private static <T> int run(String name, Adapter<T> runtime) {
+    int failures = 0;
+    T input = runtime.parseString(DOCUMENT);
+    for (String[] testCase : CASES) {
+      Expression<T> expression = runtime.compile(testCase[0]);
+      T expected = runtime.parseString(testCase[1]);
+      T actual = expression.search(input);
+      if (runtime.compare(expected, actual) != 0) {
+        System.err.printf("%s: %s returned %s, expected %s%n", name, testCase[0], runtime.toString(actual), testCase[1]);
+        failures++;
+      }
+    }
+    System.out.printf("%s: %d of %d expressions ok%n", name, CASES.size() - failures, CASES.size());
+    return failures;
+  }
+}
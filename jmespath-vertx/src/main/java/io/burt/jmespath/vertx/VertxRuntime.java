@@ -1,8 +1,10 @@
 package io.burt.jmespath.vertx;
 
+import io.burt.jmespath.BaseRuntime;
 import io.burt.jmespath.JmesPathType;
 import io.burt.jmespath.RuntimeConfiguration;
-import io.burt.jmespath.jcf.JcfRuntime;
+import io.burt.jmespath.util.ListViews;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -11,20 +13,39 @@ import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import static io.burt.jmespath.JmesPathType.ARRAY;
+import static io.burt.jmespath.JmesPathType.BOOLEAN;
+import static io.burt.jmespath.JmesPathType.NULL;
+import static io.burt.jmespath.JmesPathType.NUMBER;
 import static io.burt.jmespath.JmesPathType.OBJECT;
+import static io.burt.jmespath.JmesPathType.STRING;
 
+/**
+ * A runtime that searches {@link JsonObject} and {@link JsonArray} structures
+ * directly, without copying them.
+ * <p>
+ * Objects and arrays created by searches wrap the maps and lists built by the
+ * search instead of copying them into new Vert.x structures. Slices, reversed
+ * and flattened arrays are copied unless
+ * {@link RuntimeConfiguration.Builder#withListViews} is set, since arrays that
+ * wrap views can't be modified. Use
+ * {@link WorkerExpression} to run expensive searches on worker threads.
+ */
+public class VertxRuntime extends BaseRuntime<Object> {
+    private final boolean listViews;
 
-public class VertxRuntime extends JcfRuntime {
     public VertxRuntime() {
         this(RuntimeConfiguration.defaultConfiguration());
     }
 
     public VertxRuntime(RuntimeConfiguration configuration) {
         super(configuration);
+        this.listViews = configuration.listViews();
     }
 
     @Override
@@ -32,80 +53,170 @@ public class VertxRuntime extends JcfRuntime {
         return Json.decodeValue(str);
     }
 
-    @Override
+    /**
+     * Parses JSON directly from a buffer, without first decoding it to a
+     * string.
+     */
+    public Object parseBuffer(Buffer buffer) {
+        return Json.decodeValue(buffer);
+    }
+
+    /**
+     * Converts the maps and lists that Vert.x keeps inside of
+     * {@link JsonObject} and {@link JsonArray} to their wrappers, the same way
+     * {@link JsonObject#getValue} does.
+     */
     @SuppressWarnings("unchecked")
-    public List<Object> toList(final Object value) {
-        if (value instanceof JsonArray) {
-            final JsonArray ja = (JsonArray) value;
-            return new AbstractList<Object>() {
+    private static Object wrap(Object value) {
+        if (value instanceof Map) {
+            return new JsonObject((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            return new JsonArray((List) value);
+        } else if (value instanceof CharSequence) {
+            return value.toString();
+        } else {
+            return value;
+        }
+    }
 
-                @Override
-                public int size() {
-                    return ja.size();
-                }
+    private static class JsonArrayListWrapper extends AbstractList<Object> implements RandomAccess {
+        private final JsonArray array;
+
+        JsonArrayListWrapper(JsonArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public Object get(int index) {
+            return array.getValue(index);
+        }
+
+        @Override
+        public int size() {
+            return array.size();
+        }
+    }
+
+    /**
+     * Iterates over the values of an object without copying them. Indexed
+     * access, which is rare for object values, copies them on first use.
+     */
+    private static class JsonObjectValuesWrapper extends AbstractList<Object> {
+        private final JsonObject object;
+        private List<Object> values;
+
+        JsonObjectValuesWrapper(JsonObject object) {
+            this.object = object;
+        }
 
+        @Override
+        public Iterator<Object> iterator() {
+            final Iterator<Object> values = object.getMap().values().iterator();
+            return new Iterator<Object>() {
                 @Override
-                public Object get(int i) {
-                    return ja.getValue(i);
+                public boolean hasNext() {
+                    return values.hasNext();
                 }
-            };
-        }
-        if (value instanceof JsonObject) {
-            return new AbstractList<Object>() {
-                private List<Object> cache = null;
 
                 @Override
-                public int size() {
-                    return ((JsonObject) value).size();
+                public Object next() {
+                    return wrap(values.next());
                 }
 
                 @Override
-                public Object get(int i) {
-                    if (cache == null) {
-                        List<Object> list = new ArrayList<>(size());
-                        for (Map.Entry<String, Object> entry : (JsonObject) value) {
-                            list.add(entry.getValue());
-                        }
-                        cache = list;
-                    }
-                    return cache.get(i);
+                public void remove() {
+                    throw new UnsupportedOperationException();
                 }
             };
         }
-        return Collections.EMPTY_LIST;
+
+        @Override
+        public Object get(int index) {
+            if (values == null) {
+                List<Object> copy = new ArrayList<>(size());
+                for (Object value : this) {
+                    copy.add(value);
+                }
+                values = copy;
+            }
+            return values.get(index);
+        }
+
+        @Override
+        public int size() {
+            return object.size();
+        }
+    }
+
+    @Override
+    public List<Object> toList(Object value) {
+        if (value instanceof JsonArray) {
+            return new JsonArrayListWrapper((JsonArray) value);
+        } else if (value instanceof JsonObject) {
+            return new JsonObjectValuesWrapper((JsonObject) value);
+        } else {
+            return Collections.emptyList();
+        }
     }
 
     @Override
     public String toString(Object value) {
-        if (value instanceof JsonArray || value instanceof JsonObject) {
+        if (value instanceof JsonObject) {
+            return ((JsonObject) value).encode();
+        } else if (value instanceof JsonArray) {
+            return ((JsonArray) value).encode();
+        } else if (value == null) {
+            return "null";
+        } else {
             return value.toString();
+        }
+    }
+
+    @Override
+    public Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
         } else {
-            return super.toString(value);
+            return null;
         }
     }
 
     @Override
     public boolean isTruthy(Object value) {
         switch (typeOf(value)) {
+            case NULL:
+                return false;
+            case NUMBER:
+                return true;
+            case BOOLEAN:
+                return (Boolean) value;
             case OBJECT:
                 return !((JsonObject) value).isEmpty();
             case ARRAY:
                 return !((JsonArray) value).isEmpty();
+            case STRING:
+                return !((String) value).isEmpty();
             default:
-                return super.isTruthy(value);
+                throw new IllegalStateException(String.format("Unknown node type encountered: %s", value.getClass().getName()));
         }
     }
 
     @Override
     public JmesPathType typeOf(Object value) {
-        if (value instanceof JsonObject) {
+        if (value == null) {
+            return NULL;
+        } else if (value instanceof JsonObject) {
             return OBJECT;
         } else if (value instanceof JsonArray) {
             return ARRAY;
-        } else if (value instanceof Collection || value instanceof Map) {
-            throw new IllegalStateException(String.format("Unknown node type encountered: %s", value.getClass().getName()));
+        } else if (value instanceof String) {
+            return STRING;
+        } else if (value instanceof Number) {
+            return NUMBER;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
         } else {
-            return super.typeOf(value);
+            throw new IllegalStateException(String.format("Unknown node type encountered: %s", value.getClass().getName()));
         }
     }
 
@@ -122,29 +233,57 @@ public class VertxRuntime extends JcfRuntime {
     @SuppressWarnings("unchecked")
     public Collection<Object> getPropertyNames(Object value) {
         if (value instanceof JsonObject) {
-            JsonObject jo = (JsonObject) value;
-            return (Collection) jo.getMap().keySet();
+            return (Collection) ((JsonObject) value).fieldNames();
         } else {
-            return Collections.EMPTY_LIST;
+            return Collections.emptyList();
         }
     }
 
+    @Override
+    public Object createNull() {
+        return null;
+    }
+
+    /**
+     * Wraps the elements in a {@link JsonArray} without copying them, unless
+     * they are not in a list with fast indexed access.
+     */
     @Override
     public Object createArray(Collection<Object> elements) {
-        JsonArray ja = new JsonArray();
-        for (Object element : elements) {
-            ja.add(element);
+        if (elements instanceof List && elements instanceof RandomAccess && (listViews || !ListViews.isView(elements))) {
+            return new JsonArray((List) elements);
+        } else {
+            return new JsonArray(new ArrayList<>(elements));
         }
-        return ja;
     }
 
     @Override
+    public Object createString(String str) {
+        return str;
+    }
+
+    @Override
+    public Object createBoolean(boolean b) {
+        return b;
+    }
+
+    /**
+     * Wraps the map in a {@link JsonObject} without copying it.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
     public Object createObject(Map<Object, Object> obj) {
-        JsonObject jo = new JsonObject();
-        for (Map.Entry<Object, Object> entry : obj.entrySet()) {
-            jo.put((String) entry.getKey(), entry.getValue());
-        }
-        return jo;
+        return new JsonObject((Map) obj);
+    }
+
+    @Override
+    public Object createNumber(double n) {
+        return n;
+    }
+
+    @Override
+    public Object createNumber(long n) {
+        return n;
     }
 
     @Override
@@ -0,0 +1,48 @@
+package io.burt.jmespath.vertx;
+
+import io.burt.jmespath.Expression;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Runs searches of an expression on Vert.x worker threads with
+ * {@link Vertx#executeBlocking}, so that expensive searches, like sorting big
+ * arrays, don't block the event loop.
+ * <p>
+ * Searches are not ordered, so several can run in parallel. The result
+ * handler is called on the context of the caller.
+ */
+public class WorkerExpression {
+    private final Vertx vertx;
+    private final Expression<Object> expression;
+
+    public WorkerExpression(Vertx vertx, Expression<Object> expression) {
+        this.vertx = vertx;
+        this.expression = expression;
+    }
+
+    /** Returns the wrapped expression */
+    public Expression<Object> expression() {
+        return expression;
+    }
+
+    /**
+     * Searches the input on a worker thread and passes the result, or the
+     * exception thrown by the search, to the handler.
+     */
+    public void search(final Object input, Handler<AsyncResult<Object>> resultHandler) {
+        vertx.executeBlocking(new Handler<Future<Object>>() {
+            @Override
+            public void handle(Future<Object> future) {
+                future.complete(expression.search(input));
+            }
+        }, false, resultHandler);
+    }
+
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
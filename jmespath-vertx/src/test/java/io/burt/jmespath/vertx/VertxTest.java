@@ -1,10 +1,98 @@
 package io.burt.jmespath.vertx;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
 import io.burt.jmespath.JmesPathRuntimeTest;
 import io.burt.jmespath.RuntimeConfiguration;
 import io.burt.jmespath.Adapter;
+import io.burt.jmespath.function.ArgumentTypeException;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.not;
 
 public class VertxTest extends JmesPathRuntimeTest<Object> {
   @Override
   protected Adapter<Object> createRuntime(RuntimeConfiguration configuration) { return new VertxRuntime(configuration); }
+
+  @Test
+  public void parseBufferParsesJsonFromABuffer() {
+    Object value = ((VertxRuntime) runtime()).parseBuffer(new JsonObject("{\"foo\":[1,{\"bar\":\"baz\"}]}").toBuffer());
+    assertThat(value, is(instanceOf(JsonObject.class)));
+    assertThat(search("foo[1].bar", value), is((Object) "baz"));
+  }
+
+  @Test
+  public void toListIteratesOverTheValuesOfAnObject() {
+    List<Object> values = runtime().toList(parse("{\"a\":{\"b\":1},\"c\":[2],\"d\":3}"));
+    assertThat(values.size(), is(3));
+    int i = 0;
+    for (Object value : values) {
+      assertThat(value, is(values.get(i++)));
+    }
+    assertThat(values.get(0), is(instanceOf(JsonObject.class)));
+    assertThat(values.get(1), is(instanceOf(JsonArray.class)));
+  }
+
+  @Test
+  public void createdObjectsAndArraysWrapTheirContents() {
+    Object input = parse("{\"foo\":{\"bar\":[1,2]}}");
+    JsonObject result = (JsonObject) search("{a: foo, b: foo.bar[*]}", input);
+    assertThat(result.getJsonObject("a").getMap(), is(sameInstance(((JsonObject) input).getJsonObject("foo").getMap())));
+    assertThat(result.getJsonArray("b"), is(new JsonArray().add(1).add(2)));
+  }
+
+  @Test
+  public void slicedReversedAndFlattenedArraysCanBeModified() {
+    Object input = parse("{\"foo\":[[1],2,3]}");
+    for (String expression : Arrays.asList("foo[:]", "foo[]", "reverse(foo)", "foo[0:2]")) {
+      JsonArray result = (JsonArray) search(expression, input);
+      result.add(4);
+      assertThat(result.getList(), is(not(sameInstance(((JsonObject) input).getJsonArray("foo").getList()))));
+    }
+    assertThat(input, is(parse("{\"foo\":[[1],2,3]}")));
+  }
+
+  @Test
+  public void workerExpressionsSearchOnWorkerThreads() throws InterruptedException {
+    // Vertx.vertx() is a static interface method, which can't be called from Java 7 sources
+    Vertx vertx = Vertx.factory.vertx();
+    try {
+      final CountDownLatch done = new CountDownLatch(2);
+      final AtomicReference<Object> result = new AtomicReference<>();
+      final AtomicReference<Throwable> error = new AtomicReference<>();
+      new WorkerExpression(vertx, runtime().compile("sort(foo)")).search(parse("{\"foo\":[3,1,2]}"), new Handler<AsyncResult<Object>>() {
+        @Override
+        public void handle(AsyncResult<Object> ar) {
+          result.set(ar.result());
+          done.countDown();
+        }
+      });
+      new WorkerExpression(vertx, runtime().compile("abs(foo)")).search(parse("{\"foo\":\"x\"}"), new Handler<AsyncResult<Object>>() {
+        @Override
+        public void handle(AsyncResult<Object> ar) {
+          error.set(ar.cause());
+          done.countDown();
+        }
+      });
+      assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+      assertThat(result.get(), is(parse("[1,2,3]")));
+      assertThat(error.get(), is(instanceOf(ArgumentTypeException.class)));
+    } finally {
+      vertx.close();
+    }
+  }
 }